@@ -0,0 +1,54 @@
+package citedocs.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs streamed responses (exports) on a bounded pool instead of a new
+ * thread per request, and gives them enough time to finish. Notification
+ * streams write from their own small pool.
+ */
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+
+    private final int concurrency;
+    private final long timeoutMs;
+
+    public AsyncWebConfig(@Value("${citedocs.export.concurrency:4}") int concurrency,
+                          @Value("${citedocs.export.timeout-ms:1800000}") long timeoutMs) {
+        this.concurrency = concurrency;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(concurrency * 4);
+        executor.setThreadNamePrefix("export-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationStreamExecutor(
+            @Value("${citedocs.notifications.stream.concurrency:2}") int concurrency,
+            @Value("${citedocs.notifications.stream.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notify-sse-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
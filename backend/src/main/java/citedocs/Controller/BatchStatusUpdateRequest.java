@@ -0,0 +1,15 @@
+package citedocs.Controller;
+
+import java.util.List;
+
+public class BatchStatusUpdateRequest extends StatusUpdateRequest {
+    private List<Long> requestIds;
+
+    public List<Long> getRequestIds() {
+        return requestIds;
+    }
+
+    public void setRequestIds(List<Long> requestIds) {
+        this.requestIds = requestIds;
+    }
+}
@@ -2,7 +2,9 @@ package citedocs.Controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +15,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import citedocs.Entity.DocumentsEntity;
+import citedocs.Service.DocumentCatalog;
 import citedocs.Service.DocumentsService;
 
 @RestController
@@ -33,9 +37,17 @@ public class DocumentsController {
         return documentsService.create(payload);
     }
 
+    // Catalog snapshot with a strong ETag; unchanged catalogs get 304 Not Modified
     @GetMapping
-    public List<DocumentsEntity> findAll() {
-        return documentsService.findAll();
+    public ResponseEntity<List<DocumentsEntity>> findAll(WebRequest request) {
+        DocumentCatalog.Snapshot catalog = documentsService.findAll();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.documents());
     }
 
     @GetMapping("/{id}")
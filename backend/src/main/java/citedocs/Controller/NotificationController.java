@@ -2,7 +2,11 @@ package citedocs.Controller;
 
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,12 +14,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import citedocs.DTO.NotificationWriterStatsDTO;
+import citedocs.DTO.StreamTicketDTO;
+import citedocs.DTO.UnreadCountDTO;
 import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.UserEntity;
 import citedocs.Service.NotificationService;
+import citedocs.Service.StreamTicketService;
+import citedocs.Service.UserService;
 
 @CrossOrigin
 @RestController
@@ -23,9 +36,15 @@ import citedocs.Service.NotificationService;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final StreamTicketService streamTicketService;
+    private final UserService userService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  StreamTicketService streamTicketService,
+                                  UserService userService) {
         this.notificationService = notificationService;
+        this.streamTicketService = streamTicketService;
+        this.userService = userService;
     }
 
     // Create (already existing)
@@ -41,22 +60,100 @@ public class NotificationController {
         return notificationService.findAll();
     }
 
-    // Get notifications for a specific user (most recent first)
+    // Single-use ticket for opening the stream, issued to the JWT holder
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<StreamTicketDTO> issueStreamTicket(HttpServletRequest request) {
+        Object userIdAttr = request.getAttribute("userId");
+        if (userIdAttr == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(streamTicketService.issue(Integer.parseInt(userIdAttr.toString())));
+    }
+
+    // Server-Sent Events stream of the caller's new notifications. EventSource
+    // cannot set headers, so it authenticates with ?ticket= from
+    // /stream-ticket instead of the JWT; the browser resumes with
+    // Last-Event-ID after a reconnect
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(required = false) String ticket,
+                                             HttpServletRequest request) {
+        Object userIdAttr = request.getAttribute("userId");
+        Integer userId = userIdAttr != null
+                ? Integer.valueOf(userIdAttr.toString())
+                : streamTicketService.redeem(ticket).orElse(null);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Integer resumeAfter = parseEventId(lastEventId != null ? lastEventId : after);
+        return ResponseEntity.ok(notificationService.openStream(userId, resumeAfter));
+    }
+
+    // Get notifications for a specific user (most recent first). With before
+    // or limit this returns a CursorPage; pass nextCursor back as before
     @GetMapping("/user/{userId}")
-    public List<NotificationEntity> findByUser(@PathVariable int userId) {
+    public Object findByUser(@PathVariable int userId,
+                             @RequestParam(required = false) String before,
+                             @RequestParam(required = false) Integer limit) {
+        if (before != null || limit != null) {
+            return notificationService.findPageByUserId(userId, false, before, limit);
+        }
         return notificationService.findByUserId(userId);
     }
 
-    // Get only unread notifications for a specific user
+    // Get only unread notifications for a specific user, paged the same way
     @GetMapping("/user/{userId}/unread")
-    public List<NotificationEntity> findUnreadByUser(@PathVariable int userId) {
+    public Object findUnreadByUser(@PathVariable int userId,
+                                   @RequestParam(required = false) String before,
+                                   @RequestParam(required = false) Integer limit) {
+        if (before != null || limit != null) {
+            return notificationService.findPageByUserId(userId, true, before, limit);
+        }
         return notificationService.findUnreadByUserId(userId);
     }
 
-    // Mark a notification as read (idempotent)
+    // Number of unread notifications, for the bell badge
+    @GetMapping("/user/{userId}/unread-count")
+    public UnreadCountDTO countUnread(@PathVariable int userId) {
+        return notificationService.countUnread(userId);
+    }
+
+    // Write-behind queue depth and flush latency; registrars only
+    @GetMapping("/writer-stats")
+    public ResponseEntity<NotificationWriterStatsDTO> writerStats(HttpServletRequest request) {
+        Object userIdAttr = request.getAttribute("userId");
+        if (userIdAttr == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        UserEntity user = userService.findById(Integer.parseInt(userIdAttr.toString()));
+        if (user.getRole() != UserEntity.Role.REGISTRAR) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(notificationService.writerStats());
+    }
+
+    // Mark everything up to upTo (the newest notification the client shows) as read
+    @PutMapping("/user/{userId}/read-all")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markAllAsRead(@PathVariable int userId, @RequestParam int upTo) {
+        notificationService.markAllAsRead(userId, upTo);
+    }
+
+    // Mark a notification as read (idempotent). Broadcasts are marked for
+    // the caller, taken from the JWT only
     @PutMapping("/{id}/read")
-    public NotificationEntity markAsRead(@PathVariable int id) {
-        return notificationService.markAsRead(id);
+    public NotificationEntity markAsRead(@PathVariable int id, HttpServletRequest request) {
+        Object userIdAttr = request.getAttribute("userId");
+        Integer readerId = userIdAttr != null ? Integer.valueOf(userIdAttr.toString()) : null;
+        return notificationService.markAsRead(id, readerId);
+    }
+
+    // Requests behind a notification; a digest lists every request it counts
+    @GetMapping("/{id}/requests")
+    public List<Integer> findRequestIds(@PathVariable int id) {
+        return notificationService.findRequestIds(id);
     }
 
     // Update (full update)
@@ -71,4 +168,15 @@ public class NotificationController {
     public void delete(@PathVariable int id) {
         notificationService.delete(id);
     }
+
+    private static Integer parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
 }
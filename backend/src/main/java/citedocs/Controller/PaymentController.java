@@ -5,8 +5,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import citedocs.Entity.PaymentEntity;
+import citedocs.Service.IdempotencyService;
 import citedocs.Service.PaymentService;
 
 @RestController
@@ -31,9 +36,11 @@ import citedocs.Service.PaymentService;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
@@ -41,11 +48,22 @@ public class PaymentController {
         return paymentService.create(payload);
     }
 
+    // The file is written inside the idempotent section, so a retry with
+    // the same Idempotency-Key neither stores the file nor the payment twice
     @PostMapping("/upload")
-    public PaymentEntity uploadPayment(
+    public ResponseEntity<Object> uploadPayment(
         @RequestParam("requestId") Long requestId,
         @RequestParam("proofFile") MultipartFile proofFile,
-        @RequestParam(value = "remarks", required = false) String remarks) {
+        @RequestParam(value = "remarks", required = false) String remarks,
+        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+        HttpServletRequest request) {
+        String scope = "POST /api/payments/upload#" + request.getAttribute("userId");
+        List<Object> fingerprint = Arrays.asList(requestId, proofFile.getOriginalFilename(), proofFile.getSize(), remarks);
+        return idempotencyService.execute(idempotencyKey, scope, fingerprint,
+                () -> storeProof(requestId, proofFile, remarks));
+    }
+
+    private PaymentEntity storeProof(Long requestId, MultipartFile proofFile, String remarks) {
     try {
         // Create uploads directory if not exists
         String uploadDir = "uploads/payments/";
@@ -1,8 +1,13 @@
 package citedocs.Controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +19,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import citedocs.Entity.RequestStatusLogEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Service.ExportService;
 import citedocs.Service.RequestStatusLogService;
+import citedocs.Service.UserService;
 
 @RestController
 @RequestMapping("/api/request-status-logs")
@@ -24,9 +33,15 @@ import citedocs.Service.RequestStatusLogService;
 public class RequestStatusLogController {
 
     private final RequestStatusLogService requestStatusLogService;
+    private final UserService userService;
+    private final ExportService exportService;
 
-    public RequestStatusLogController(RequestStatusLogService requestStatusLogService) {
+    public RequestStatusLogController(RequestStatusLogService requestStatusLogService,
+                                      UserService userService,
+                                      ExportService exportService) {
         this.requestStatusLogService = requestStatusLogService;
+        this.userService = userService;
+        this.exportService = exportService;
     }
 
     @PostMapping
@@ -35,13 +50,38 @@ public class RequestStatusLogController {
     }
 
     @GetMapping
-    public List<RequestStatusLogEntity> findAll(@RequestParam(required = false) Long userId) {
+    public List<RequestStatusLogEntity> findAll(@RequestParam(required = false) Long userId,
+                                                @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (includeArchived) {
+            return requestStatusLogService.findAllIncludingArchived(userId);
+        }
         if (userId != null) {
             return requestStatusLogService.findByUserId(userId);
         }
         return requestStatusLogService.findAll();
     }
 
+    // Streams status changes made in [from, to] as CSV or NDJSON, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        // Audit exports are for registrars only
+        Object userIdAttr = request.getAttribute("userId");
+        if (userIdAttr == null) {
+            throw new RuntimeException("Unauthorized: No user ID found in request");
+        }
+        UserEntity user = userService.findById(Integer.parseInt(userIdAttr.toString()));
+        if (user.getRole() != UserEntity.Role.REGISTRAR) {
+            throw new RuntimeException("Unauthorized: Only registrars can export status logs");
+        }
+
+        return exportService.exportStatusLogs(format, from, to, gzip);
+    }
+
     @GetMapping("/{id}")
     public RequestStatusLogEntity findById(@PathVariable int id) {
         return requestStatusLogService.findById(id);
@@ -1,10 +1,13 @@
 package citedocs.Controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,13 +15,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import citedocs.DTO.BatchStatusResultDTO;
+import citedocs.DTO.RequestChangesDTO;
+import citedocs.DTO.RequestClaimDTO;
+import citedocs.DTO.RequestDetailDTO;
+import citedocs.DTO.RequestFilter;
+import citedocs.DTO.RequestStatsDTO;
+import citedocs.DTO.RequestStatusSnapshot;
+import citedocs.DTO.RequestSummaryDTO;
 import citedocs.Entity.RequestsEntity;
 import citedocs.Entity.UserEntity;
+import citedocs.Service.ExportService;
+import citedocs.Service.IdempotencyService;
 import citedocs.Service.RequestsService;
 import citedocs.Service.UserService;
 
@@ -29,28 +44,95 @@ public class RequestsController {
 
     private final RequestsService requestsService;
     private final UserService userService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
 
-    public RequestsController(RequestsService requestsService, UserService userService) {
+    public RequestsController(RequestsService requestsService, UserService userService, ExportService exportService,
+                              IdempotencyService idempotencyService) {
         this.requestsService = requestsService;
         this.userService = userService;
+        this.exportService = exportService;
+        this.idempotencyService = idempotencyService;
     }
 
+    // A retry with the same Idempotency-Key returns the first response
+    // instead of creating (and notifying) a duplicate request
     @PostMapping
-    public RequestsEntity create(@RequestBody RequestsEntity payload) {
-        return requestsService.create(payload);
+    public ResponseEntity<Object> create(@RequestBody RequestsEntity payload,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         HttpServletRequest request) {
+        String scope = "POST /api/requests#" + request.getAttribute("userId");
+        return idempotencyService.execute(idempotencyKey, scope, payload, () -> requestsService.create(payload));
     }
 
+    // Without paging parameters this returns the full list; with any of
+    // status, documentId, dateNeededFrom, dateNeededTo, after or limit it
+    // returns a CursorPage. includeArchived=true also reads archived requests.
     @GetMapping
-    public List<RequestsEntity> findAll(@RequestParam(required = false) Long userId) {
-        if (userId != null) {
-            return requestsService.findByUserId(userId);
+    public Object findAll(RequestFilter filter) {
+        if (filter.isPaged()) {
+            return requestsService.findPage(filter);
         }
-        return requestsService.findAll();
+        if (filter.getUserId() != null) {
+            return requestsService.findByUserId(filter.getUserId(), filter.isIncludeArchived());
+        }
+        return requestsService.findAll(filter.isIncludeArchived());
+    }
+
+    // Dashboard counts by status and document, for everyone or one user
+    @GetMapping("/stats")
+    public RequestStatsDTO getStats(@RequestParam(required = false) Long userId) {
+        return requestsService.getStats(userId);
+    }
+
+    // Registrar work queue: the next actionable requests, most urgent first
+    @GetMapping("/queue")
+    public List<RequestSummaryDTO> findWorkQueue(@RequestParam(required = false) Integer limit,
+                                                 HttpServletRequest request) {
+        requireRegistrar(request);
+        return requestsService.findWorkQueue(limit);
+    }
+
+    // Assigns the next unclaimed request to the calling registrar; 204 when none is left
+    @PostMapping("/claim-next")
+    public ResponseEntity<RequestClaimDTO> claimNext(HttpServletRequest request) {
+        Integer userId = requireRegistrar(request);
+        return requestsService.claimNext(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{id}/release")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseClaim(@PathVariable Long id, HttpServletRequest request) {
+        Integer userId = requireRegistrar(request);
+        requestsService.releaseClaim(id, userId);
+    }
+
+    // Delta sync: requests created, changed or deleted after the "since" watermark
+    @GetMapping("/changes")
+    public RequestChangesDTO findChanges(@RequestParam(required = false) String since,
+                                         @RequestParam(required = false) Long userId,
+                                         @RequestParam(required = false) Integer limit) {
+        return requestsService.findChanges(since, userId, limit);
+    }
+
+    // Streams requests created in [from, to] as CSV or NDJSON, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        requireRegistrar(request);
+        return exportService.exportRequests(format, from, to, gzip);
     }
 
     @GetMapping("/{id}")
-    public RequestsEntity findById(@PathVariable Long id) {
-        return requestsService.findById(id);
+    public RequestDetailDTO findById(@PathVariable Long id,
+                                     @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return requestsService.findDetailById(id, includeArchived);
     }
 
     @PutMapping("/{id}")
@@ -65,7 +147,19 @@ public class RequestsController {
     }
 
     @PutMapping("/{id}/status")
-    public RequestsEntity updateStatus(@PathVariable Long id, @RequestBody StatusUpdateRequest payload, HttpServletRequest request) {
+    public RequestStatusSnapshot updateStatus(@PathVariable Long id, @RequestBody StatusUpdateRequest payload, HttpServletRequest request) {
+        Integer userId = requireRegistrar(request);
+        return requestsService.updateStatus(id, payload, userId);
+    }
+
+    // Applies one status to many requests; each item reports its own outcome
+    @PutMapping("/status/batch")
+    public List<BatchStatusResultDTO> updateStatusBatch(@RequestBody BatchStatusUpdateRequest payload, HttpServletRequest request) {
+        Integer userId = requireRegistrar(request);
+        return requestsService.updateStatusBatch(payload, userId);
+    }
+
+    private Integer requireRegistrar(HttpServletRequest request) {
         // Get the authenticated user ID from the request
         Object userIdAttr = request.getAttribute("userId");
         if (userIdAttr == null) {
@@ -79,8 +173,7 @@ public class RequestsController {
         if (user.getRole() != UserEntity.Role.REGISTRAR) {
             throw new RuntimeException("Unauthorized: Only registrars can update request status");
         }
-        
-        return requestsService.updateStatus(id, payload, userId);
+
+        return userId;
     }
 }
-
@@ -0,0 +1,62 @@
+package citedocs.DTO;
+
+import citedocs.Entity.RequestsEntity;
+
+/**
+ * Outcome of one item in a batch status update.
+ */
+public class BatchStatusResultDTO {
+    private Long requestId;
+    private boolean success;
+    private String status;
+    private String message;
+
+    public BatchStatusResultDTO() {}
+
+    public BatchStatusResultDTO(Long requestId, boolean success, String status, String message) {
+        this.requestId = requestId;
+        this.success = success;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchStatusResultDTO succeeded(Long requestId, RequestsEntity.Status status) {
+        return new BatchStatusResultDTO(requestId, true, status.toString(), null);
+    }
+
+    public static BatchStatusResultDTO failed(Long requestId, String message) {
+        return new BatchStatusResultDTO(requestId, false, null, message);
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
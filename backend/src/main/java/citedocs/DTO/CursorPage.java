@@ -0,0 +1,35 @@
+package citedocs.DTO;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. nextCursor is null on the last page;
+ * otherwise pass it back as the "after" parameter to fetch the next page.
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
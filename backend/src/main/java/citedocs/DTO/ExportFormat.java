@@ -0,0 +1,37 @@
+package citedocs.DTO;
+
+/**
+ * Output formats supported by the export endpoints.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromString(String key) {
+        if (key == null || key.isBlank()) {
+            return CSV;
+        }
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(key.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid export format: " + key);
+    }
+}
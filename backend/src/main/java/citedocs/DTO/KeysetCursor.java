@@ -0,0 +1,68 @@
+package citedocs.DTO;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import citedocs.Exception.BadRequestException;
+
+/**
+ * Position in a list ordered by (timestamp, id), exchanged with clients as
+ * "2025-12-11T08:30:00.123456,42". The id breaks ties between rows written
+ * in the same instant so every row is returned exactly once.
+ */
+public class KeysetCursor implements Comparable<KeysetCursor> {
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        int separator = value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+
+        try {
+            LocalDateTime timestamp = LocalDateTime.parse(value.substring(0, separator).trim());
+            Long id = Long.parseLong(value.substring(separator + 1).trim());
+            return new KeysetCursor(timestamp, id);
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // The id for lists keyed by an INT column; a client-supplied id outside
+    // that range is a bad cursor, not a server error
+    public int getIntId() {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new BadRequestException("Invalid cursor: " + this);
+        }
+        return id.intValue();
+    }
+
+    @Override
+    public int compareTo(KeysetCursor other) {
+        int byTimestamp = timestamp.compareTo(other.timestamp);
+        return byTimestamp != 0 ? byTimestamp : id.compareTo(other.id);
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "," + id;
+    }
+}
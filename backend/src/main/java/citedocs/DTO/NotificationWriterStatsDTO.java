@@ -0,0 +1,120 @@
+package citedocs.DTO;
+
+/**
+ * Counters of the notification write-behind queue since startup. queueDepth
+ * counts notifications queued or being written. Flush times are per batch,
+ * in milliseconds. callerWrites are notifications the sender wrote itself
+ * because the queue was full (or not running). failed counts notifications
+ * in write attempts that failed and were retried. coalesced are
+ * notifications merged into a digest row instead of being inserted.
+ */
+public class NotificationWriterStatsDTO {
+    private int queueDepth;
+    private int queueCapacity;
+    private long written;
+    private long batches;
+    private long callerWrites;
+    private long failed;
+    private long coalesced;
+    private double lastFlushMs;
+    private double avgFlushMs;
+    private double maxFlushMs;
+
+    public NotificationWriterStatsDTO() {}
+
+    public NotificationWriterStatsDTO(int queueDepth, int queueCapacity, long written, long batches,
+                                      long callerWrites, long failed, long coalesced,
+                                      double lastFlushMs, double avgFlushMs, double maxFlushMs) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.written = written;
+        this.batches = batches;
+        this.callerWrites = callerWrites;
+        this.failed = failed;
+        this.coalesced = coalesced;
+        this.lastFlushMs = lastFlushMs;
+        this.avgFlushMs = avgFlushMs;
+        this.maxFlushMs = maxFlushMs;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void setWritten(long written) {
+        this.written = written;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+
+    public long getCallerWrites() {
+        return callerWrites;
+    }
+
+    public void setCallerWrites(long callerWrites) {
+        this.callerWrites = callerWrites;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+        this.coalesced = coalesced;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(long coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public double getLastFlushMs() {
+        return lastFlushMs;
+    }
+
+    public void setLastFlushMs(double lastFlushMs) {
+        this.lastFlushMs = lastFlushMs;
+    }
+
+    public double getAvgFlushMs() {
+        return avgFlushMs;
+    }
+
+    public void setAvgFlushMs(double avgFlushMs) {
+        this.avgFlushMs = avgFlushMs;
+    }
+
+    public double getMaxFlushMs() {
+        return maxFlushMs;
+    }
+
+    public void setMaxFlushMs(double maxFlushMs) {
+        this.maxFlushMs = maxFlushMs;
+    }
+}
@@ -0,0 +1,56 @@
+package citedocs.DTO;
+
+import java.util.List;
+
+/**
+ * Requests created, changed or deleted after a watermark. Pass watermark
+ * back as "since" on the next call; when hasMore is true, call again right
+ * away to fetch the rest.
+ */
+public class RequestChangesDTO {
+    private List<RequestSummaryDTO> changed;
+    private List<Long> deleted;
+    private String watermark;
+    private boolean hasMore;
+
+    public RequestChangesDTO() {}
+
+    public RequestChangesDTO(List<RequestSummaryDTO> changed, List<Long> deleted, String watermark, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    public List<RequestSummaryDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<RequestSummaryDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
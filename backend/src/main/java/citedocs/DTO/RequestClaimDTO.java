@@ -0,0 +1,45 @@
+package citedocs.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request claimed by a registrar: the list row, who holds it and until
+ * when. After leaseExpiresAt anyone may claim it again.
+ */
+public class RequestClaimDTO {
+    private RequestSummaryDTO request;
+    private Integer assignedTo;
+    private LocalDateTime leaseExpiresAt;
+
+    public RequestClaimDTO() {}
+
+    public RequestClaimDTO(RequestSummaryDTO request, Integer assignedTo, LocalDateTime leaseExpiresAt) {
+        this.request = request;
+        this.assignedTo = assignedTo;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public RequestSummaryDTO getRequest() {
+        return request;
+    }
+
+    public void setRequest(RequestSummaryDTO request) {
+        this.request = request;
+    }
+
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(Integer assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+}
@@ -0,0 +1,36 @@
+package citedocs.DTO;
+
+import citedocs.Entity.RequestsEntity;
+
+/**
+ * One GROUP BY row used to rebuild the in-memory request statistics.
+ */
+public class RequestCountRow {
+    private Long userId;
+    private RequestsEntity.Status status;
+    private String documentName;
+    private long count;
+
+    public RequestCountRow(Long userId, RequestsEntity.Status status, String documentName, long count) {
+        this.userId = userId;
+        this.status = status;
+        this.documentName = documentName;
+        this.count = count;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public RequestsEntity.Status getStatus() {
+        return status;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package citedocs.DTO;
+
+/**
+ * Outbox payload for a newly submitted request.
+ */
+public class RequestCreatedEvent {
+    private Long requestId;
+    private Long userId;
+    private String documentName;
+
+    public RequestCreatedEvent() {}
+
+    public RequestCreatedEvent(Long requestId, Long userId, String documentName) {
+        this.requestId = requestId;
+        this.userId = userId;
+        this.documentName = documentName;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public void setDocumentName(String documentName) {
+        this.documentName = documentName;
+    }
+}
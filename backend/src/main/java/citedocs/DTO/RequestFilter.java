@@ -0,0 +1,100 @@
+package citedocs.DTO;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Query parameters accepted by GET /api/requests. Every filter is optional;
+ * "after" is the nextCursor returned by the previous page.
+ */
+public class RequestFilter {
+    private String status;
+    private Long documentId;
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateNeededFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateNeededTo;
+
+    private String after;
+    private Integer limit;
+
+    // Also read requests moved to the archive tables
+    private boolean includeArchived;
+
+    /**
+     * Plain "GET /api/requests" and "GET /api/requests?userId=" keep returning
+     * the full array for existing clients; any other parameter opts into paging.
+     */
+    public boolean isPaged() {
+        return status != null || documentId != null || dateNeededFrom != null
+                || dateNeededTo != null || after != null || limit != null;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(Long documentId) {
+        this.documentId = documentId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getDateNeededFrom() {
+        return dateNeededFrom;
+    }
+
+    public void setDateNeededFrom(LocalDate dateNeededFrom) {
+        this.dateNeededFrom = dateNeededFrom;
+    }
+
+    public LocalDate getDateNeededTo() {
+        return dateNeededTo;
+    }
+
+    public void setDateNeededTo(LocalDate dateNeededTo) {
+        this.dateNeededTo = dateNeededTo;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    public void setIncludeArchived(boolean includeArchived) {
+        this.includeArchived = includeArchived;
+    }
+}
@@ -0,0 +1,54 @@
+package citedocs.DTO;
+
+import java.util.Map;
+
+/**
+ * Request counts for the dashboards, either global or for one user.
+ */
+public class RequestStatsDTO {
+    private Long userId;
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byDocument;
+
+    public RequestStatsDTO() {}
+
+    public RequestStatsDTO(Long userId, long total, Map<String, Long> byStatus, Map<String, Long> byDocument) {
+        this.userId = userId;
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byDocument = byDocument;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByDocument() {
+        return byDocument;
+    }
+
+    public void setByDocument(Map<String, Long> byDocument) {
+        this.byDocument = byDocument;
+    }
+}
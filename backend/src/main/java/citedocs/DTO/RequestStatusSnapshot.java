@@ -0,0 +1,79 @@
+package citedocs.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import citedocs.Entity.RequestsEntity;
+
+/**
+ * The few columns the status write path needs, read without loading or
+ * enriching the entity.
+ */
+public class RequestStatusSnapshot {
+    private Long requestId;
+    private Long userId;
+    private RequestsEntity.Status status;
+    private LocalDateTime dateReady;
+    private LocalDate dateNeeded;
+    private LocalDateTime createdAt;
+
+    public RequestStatusSnapshot() {}
+
+    public RequestStatusSnapshot(Long requestId, Long userId, RequestsEntity.Status status, LocalDateTime dateReady,
+                                 LocalDate dateNeeded, LocalDateTime createdAt) {
+        this.requestId = requestId;
+        this.userId = userId;
+        this.status = status;
+        this.dateReady = dateReady;
+        this.dateNeeded = dateNeeded;
+        this.createdAt = createdAt;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public RequestsEntity.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(RequestsEntity.Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getDateReady() {
+        return dateReady;
+    }
+
+    public void setDateReady(LocalDateTime dateReady) {
+        this.dateReady = dateReady;
+    }
+
+    public LocalDate getDateNeeded() {
+        return dateNeeded;
+    }
+
+    public void setDateNeeded(LocalDate dateNeeded) {
+        this.dateNeeded = dateNeeded;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
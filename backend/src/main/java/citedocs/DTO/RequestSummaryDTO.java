@@ -0,0 +1,183 @@
+package citedocs.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import citedocs.Entity.RequestsEntity;
+
+/**
+ * Row of the request lists, read with a JPQL constructor expression instead
+ * of loading entities. Field names match the entity JSON the portals already
+ * read (userName, documentName, document.name, proofOfPayment, ...).
+ */
+public class RequestSummaryDTO {
+
+    /**
+     * The document fields the lists show, in place of the entity reference.
+     */
+    public static class DocumentRef {
+        private Long documentId;
+        private String name;
+
+        public DocumentRef() {}
+
+        public DocumentRef(Long documentId, String name) {
+            this.documentId = documentId;
+            this.name = name;
+        }
+
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        public void setDocumentId(Long documentId) {
+            this.documentId = documentId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private Long requestId;
+    private Long userId;
+    private String userName;
+    private String studentId;
+    private DocumentRef document;
+    private String documentName;
+    private RequestsEntity.Status status;
+    private int copies;
+    private LocalDate dateNeeded;
+    private LocalDateTime dateReady;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String proofOfPayment;
+
+    public RequestSummaryDTO() {}
+
+    public RequestSummaryDTO(Long requestId, Long userId, String userName, String studentId,
+                             Long documentId, String documentName, RequestsEntity.Status status, int copies,
+                             LocalDate dateNeeded, LocalDateTime dateReady,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.requestId = requestId;
+        this.userId = userId;
+        this.userName = userName;
+        this.studentId = studentId;
+        this.document = new DocumentRef(documentId, documentName);
+        this.documentName = documentName;
+        this.status = status;
+        this.copies = copies;
+        this.dateNeeded = dateNeeded;
+        this.dateReady = dateReady;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public DocumentRef getDocument() {
+        return document;
+    }
+
+    public void setDocument(DocumentRef document) {
+        this.document = document;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public void setDocumentName(String documentName) {
+        this.documentName = documentName;
+    }
+
+    public RequestsEntity.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(RequestsEntity.Status status) {
+        this.status = status;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    public void setCopies(int copies) {
+        this.copies = copies;
+    }
+
+    public LocalDate getDateNeeded() {
+        return dateNeeded;
+    }
+
+    public void setDateNeeded(LocalDate dateNeeded) {
+        this.dateNeeded = dateNeeded;
+    }
+
+    public LocalDateTime getDateReady() {
+        return dateReady;
+    }
+
+    public void setDateReady(LocalDateTime dateReady) {
+        this.dateReady = dateReady;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getProofOfPayment() {
+        return proofOfPayment;
+    }
+
+    public void setProofOfPayment(String proofOfPayment) {
+        this.proofOfPayment = proofOfPayment;
+    }
+}
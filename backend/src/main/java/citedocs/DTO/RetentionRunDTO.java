@@ -0,0 +1,67 @@
+package citedocs.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one retention purge run: rows removed from the live tables,
+ * the number of primary-key-range chunks it took, and wall time in
+ * milliseconds including the pauses between chunks.
+ */
+public class RetentionRunDTO {
+    private LocalDateTime startedAt;
+    private long notificationsDeleted;
+    private long statusLogsArchived;
+    private int chunks;
+    private long elapsedMs;
+
+    public RetentionRunDTO() {}
+
+    public RetentionRunDTO(LocalDateTime startedAt, long notificationsDeleted, long statusLogsArchived,
+                           int chunks, long elapsedMs) {
+        this.startedAt = startedAt;
+        this.notificationsDeleted = notificationsDeleted;
+        this.statusLogsArchived = statusLogsArchived;
+        this.chunks = chunks;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getNotificationsDeleted() {
+        return notificationsDeleted;
+    }
+
+    public void setNotificationsDeleted(long notificationsDeleted) {
+        this.notificationsDeleted = notificationsDeleted;
+    }
+
+    public long getStatusLogsArchived() {
+        return statusLogsArchived;
+    }
+
+    public void setStatusLogsArchived(long statusLogsArchived) {
+        this.statusLogsArchived = statusLogsArchived;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
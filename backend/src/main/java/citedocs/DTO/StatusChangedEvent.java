@@ -0,0 +1,104 @@
+package citedocs.DTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox payload for one or more requests moved to the same status by the
+ * same registrar (a single update or a batch).
+ */
+public class StatusChangedEvent {
+    private String newStatus;
+    private String remarks;
+    private Integer changedBy;
+    private List<Change> changes = new ArrayList<>();
+
+    public static class Change {
+        private Long requestId;
+        private Long userId;
+        private String oldStatus;
+        private LocalDateTime dateReady;
+
+        public Change() {}
+
+        public Change(Long requestId, Long userId, String oldStatus, LocalDateTime dateReady) {
+            this.requestId = requestId;
+            this.userId = userId;
+            this.oldStatus = oldStatus;
+            this.dateReady = dateReady;
+        }
+
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        public void setRequestId(Long requestId) {
+            this.requestId = requestId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getOldStatus() {
+            return oldStatus;
+        }
+
+        public void setOldStatus(String oldStatus) {
+            this.oldStatus = oldStatus;
+        }
+
+        public LocalDateTime getDateReady() {
+            return dateReady;
+        }
+
+        public void setDateReady(LocalDateTime dateReady) {
+            this.dateReady = dateReady;
+        }
+    }
+
+    public StatusChangedEvent() {}
+
+    public StatusChangedEvent(String newStatus, String remarks, Integer changedBy) {
+        this.newStatus = newStatus;
+        this.remarks = remarks;
+        this.changedBy = changedBy;
+    }
+
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    public void setNewStatus(String newStatus) {
+        this.newStatus = newStatus;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public Integer getChangedBy() {
+        return changedBy;
+    }
+
+    public void setChangedBy(Integer changedBy) {
+        this.changedBy = changedBy;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<Change> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,34 @@
+package citedocs.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ticket for GET /notifications/stream?ticket=...; valid once, until expiresAt.
+ */
+public class StreamTicketDTO {
+    private String ticket;
+    private LocalDateTime expiresAt;
+
+    public StreamTicketDTO() {}
+
+    public StreamTicketDTO(String ticket, LocalDateTime expiresAt) {
+        this.ticket = ticket;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,32 @@
+package citedocs.DTO;
+
+/**
+ * Number of unread notifications for a user, for the notification bell.
+ */
+public class UnreadCountDTO {
+    private int userId;
+    private int unread;
+
+    public UnreadCountDTO() {}
+
+    public UnreadCountDTO(int userId, int unread) {
+        this.userId = userId;
+        this.unread = unread;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUnread() {
+        return unread;
+    }
+
+    public void setUnread(int unread) {
+        this.unread = unread;
+    }
+}
@@ -0,0 +1,42 @@
+package citedocs.Entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Primary key of the archive tables. MySQL only allows range partitioning
+ * when every unique key contains the partitioning column, so the archive
+ * year leads the key next to the row's original id.
+ */
+public class ArchiveId implements Serializable {
+
+    private int archiveYear;
+    private Long id;
+
+    public ArchiveId() {}
+
+    public ArchiveId(int archiveYear, Long id) {
+        this.archiveYear = archiveYear;
+        this.id = id;
+    }
+
+    public int getArchiveYear() {
+        return archiveYear;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ArchiveId other)) return false;
+        return archiveYear == other.archiveYear && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(archiveYear, id);
+    }
+}
@@ -0,0 +1,78 @@
+package citedocs.Entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Claim slip of an archived request. Claim numbers stay unique because they
+ * are never reissued; the archive does not enforce it, since a partitioned
+ * table cannot have a unique key without the archive year.
+ */
+@Entity
+@IdClass(ArchiveId.class)
+@Table(name = "claim_slips_archive", indexes = {
+        @Index(name = "idx_claim_slips_archive_request", columnList = "request_id"),
+        @Index(name = "idx_claim_slips_archive_number", columnList = "claim_number")
+})
+public class ArchivedClaimSlipEntity {
+
+    @Id
+    @Column(name = "archive_year")
+    private int archiveYear;
+
+    @Id
+    @Column(name = "claim_id")
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Column(name = "claim_number", nullable = false)
+    private String claimNumber;
+
+    @Column(name = "date_ready")
+    private LocalDate dateReady;
+
+    @Column(name = "issued_by")
+    private Integer issuedBy;
+
+    @Column(name = "issued_at")
+    private LocalDateTime issuedAt;
+
+    public ArchivedClaimSlipEntity() {}
+
+    public int getArchiveYear() {
+        return archiveYear;
+    }
+
+    public Long getClaimId() {
+        return id;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public String getClaimNumber() {
+        return claimNumber;
+    }
+
+    public LocalDate getDateReady() {
+        return dateReady;
+    }
+
+    public Integer getIssuedBy() {
+        return issuedBy;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+}
@@ -0,0 +1,64 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Payment proof of an archived request. The uploaded file itself stays
+ * where it is; only the row moves.
+ */
+@Entity
+@IdClass(ArchiveId.class)
+@Table(name = "payments_archive", indexes = {
+        @Index(name = "idx_payments_archive_request", columnList = "request_id")
+})
+public class ArchivedPaymentEntity {
+
+    @Id
+    @Column(name = "archive_year")
+    private int archiveYear;
+
+    @Id
+    @Column(name = "payment_id")
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Column(name = "proof_of_payment", nullable = false, length = 255)
+    private String proofOfPayment;
+
+    @Column(name = "remarks", columnDefinition = "TEXT")
+    private String remarks;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    public ArchivedPaymentEntity() {}
+
+    public int getArchiveYear() {
+        return archiveYear;
+    }
+
+    public Long getPaymentId() {
+        return id;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public String getProofOfPayment() {
+        return proofOfPayment;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+}
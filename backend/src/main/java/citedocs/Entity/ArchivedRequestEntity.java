@@ -0,0 +1,110 @@
+package citedocs.Entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A closed request moved out of the requests table by the archiver, keyed
+ * and (on MySQL) partitioned by the year it was created. Rows are written
+ * only by {@link citedocs.Service.RequestArchiver} and never updated.
+ */
+@Entity
+@IdClass(ArchiveId.class)
+@Table(name = "requests_archive", indexes = {
+        @Index(name = "idx_requests_archive_request", columnList = "request_id"),
+        @Index(name = "idx_requests_archive_user_created", columnList = "user_id, created_at, request_id"),
+        @Index(name = "idx_requests_archive_created", columnList = "created_at, request_id")
+})
+public class ArchivedRequestEntity {
+
+    @Id
+    @Column(name = "archive_year")
+    private int archiveYear;
+
+    @Id
+    @Column(name = "request_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "varchar(32)")
+    private RequestsEntity.Status status;
+
+    @Column(nullable = false)
+    private int copies;
+
+    @Column(name = "date_needed")
+    private LocalDate dateNeeded;
+
+    @Column(name = "date_ready")
+    private LocalDateTime dateReady;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedRequestEntity() {}
+
+    public int getArchiveYear() {
+        return archiveYear;
+    }
+
+    public Long getRequestId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public RequestsEntity.Status getStatus() {
+        return status;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    public LocalDate getDateNeeded() {
+        return dateNeeded;
+    }
+
+    public LocalDateTime getDateReady() {
+        return dateReady;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Status history of an archived request, in the archive year of its request.
+ */
+@Entity
+@IdClass(ArchiveId.class)
+@Table(name = "request_status_log_archive", indexes = {
+        @Index(name = "idx_status_log_archive_request", columnList = "request_id")
+})
+public class ArchivedStatusLogEntity {
+
+    @Id
+    @Column(name = "archive_year")
+    private int archiveYear;
+
+    @Id
+    @Column(name = "log_id")
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Column(name = "old_status", nullable = false)
+    private String oldStatus;
+
+    @Column(name = "new_status", nullable = false)
+    private String newStatus;
+
+    @Column(name = "remarks")
+    private String remarks;
+
+    @Column(name = "changed_by", nullable = false)
+    private int changedBy;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public ArchivedStatusLogEntity() {}
+
+    /**
+     * Detached copy in the shape of a live log row, for read endpoints that
+     * return archived history alongside current history.
+     */
+    public RequestStatusLogEntity toStatusLog() {
+        RequestStatusLogEntity log = new RequestStatusLogEntity();
+        log.setLogId(id.intValue());
+        log.setRequestId(requestId);
+        log.setOldStatus(oldStatus);
+        log.setNewStatus(newStatus);
+        log.setRemarks(remarks);
+        log.setChangedBy(changedBy);
+        log.setChangedAt(changedAt);
+        return log;
+    }
+
+    public int getArchiveYear() {
+        return archiveYear;
+    }
+
+    public Long getLogId() {
+        return id;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package citedocs.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Next unallocated claim number for one year. Application nodes reserve
+ * blocks of numbers from this row and hand them out from memory.
+ */
+@Entity
+@Table(name = "claim_number_sequences")
+public class ClaimNumberSequenceEntity {
+
+    @Id
+    @Column(name = "seq_year")
+    private int year;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    public ClaimNumberSequenceEntity() {
+    }
+
+    public ClaimNumberSequenceEntity(int year, long nextValue) {
+        this.year = year;
+        this.nextValue = nextValue;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -0,0 +1,57 @@
+package citedocs.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One request summarised by a digest notification, so a digest can still
+ * be traced back to every request it counts.
+ */
+@Entity
+@Table(name = "notification_digest_requests", indexes = {
+        @Index(name = "idx_digest_requests_notification", columnList = "notification_id")
+})
+public class NotificationDigestRequestEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private int notificationId;
+
+    @Column(name = "request_id", nullable = false)
+    private int requestId;
+
+    public NotificationDigestRequestEntity() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(int notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public int getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(int requestId) {
+        this.requestId = requestId;
+    }
+}
@@ -1,32 +1,66 @@
 package citedocs.Entity;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Unread counts and unread pages per user are answered from this index alone
+        @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read, created_at"),
+        // Keyset pagination of a user's full list on (created_at, notification_id)
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, notification_id"),
+        // Role broadcasts, in the same keyset order
+        @Index(name = "idx_notifications_role_created", columnList = "role, created_at, notification_id"),
+        // Open digests a new notification can be coalesced into
+        @Index(name = "idx_notifications_digest", columnList = "digest_key, created_at")
+})
 public class NotificationEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int notificationId;
 
+    // 0 on broadcasts
     @Column(name = "user_id", nullable = false)
     private int userId;
 
+    // Set on broadcasts: one row addressed to every user with this role, whose
+    // read state is kept per user in NotificationReadMarkEntity
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", length = 20)
+    private UserEntity.Role role;
+
     @Column(name = "request_id", nullable = false)
     private int requestId;
 
+    // Free-form text; empty on templated rows, whose sentence is rendered on read
     @Column(columnDefinition = "TEXT", nullable = false)
     private String message;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "template", length = 30)
+    private NotificationTemplate template;
+
+    // Template parameters, packed by NotificationTemplate.params
+    @Column(name = "params", length = 1000)
+    private String params;
+
+    // Set on rows NotificationCoalescer may merge later notifications into
+    @Column(name = "digest_key", length = 255)
+    private String digestKey;
+
     @Column(name = "is_read")
     private boolean isRead;
 
@@ -35,7 +69,20 @@ public class NotificationEntity {
 
     @PrePersist
     private void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Microseconds, as stored, so the value can be used as a keyset cursor
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        blankTemplatedMessage();
+    }
+
+    @PreUpdate
+    private void onUpdate() {
+        blankTemplatedMessage();
+    }
+
+    private void blankTemplatedMessage() {
+        if (template != null) {
+            message = "";
+        }
     }
 
     public int getNotificationId() {
@@ -54,6 +101,14 @@ public class NotificationEntity {
         this.userId = userId;
     }
 
+    public UserEntity.Role getRole() {
+        return role;
+    }
+
+    public void setRole(UserEntity.Role role) {
+        this.role = role;
+    }
+
     public int getRequestId() {
         return requestId;
     }
@@ -63,13 +118,37 @@ public class NotificationEntity {
     }
 
     public String getMessage() {
-        return message;
+        return template != null ? template.render(requestId, params) : message;
     }
 
     public void setMessage(String message) {
         this.message = message;
     }
 
+    public NotificationTemplate getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(NotificationTemplate template) {
+        this.template = template;
+    }
+
+    public String getParams() {
+        return params;
+    }
+
+    public void setParams(String params) {
+        this.params = params;
+    }
+
+    public String getDigestKey() {
+        return digestKey;
+    }
+
+    public void setDigestKey(String digestKey) {
+        this.digestKey = digestKey;
+    }
+
     public boolean getIsRead() {
         return isRead;
     }
@@ -0,0 +1,163 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * A user's "read up to" watermark: every notification of the user with an
+ * id at or below readThroughId counts as read, whatever its own is_read
+ * flag says. Rows above it are read only if their flag is set.
+ *
+ * Role broadcasts have no per-user row to flag, so the ids of broadcasts
+ * the user read above the watermark are kept here as a sorted set,
+ * delta-encoded as unsigned varints (one or two bytes per id for nearby
+ * ids). Ids fall out of the set as the watermark passes them. The set is
+ * decoded once per loaded blob, not on every lookup.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+public class NotificationReadMarkEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private int userId;
+
+    @Column(name = "read_through_id", nullable = false)
+    private int readThroughId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "read_broadcast_ids", columnDefinition = "BLOB")
+    private byte[] readBroadcastIds;
+
+    // readBroadcastIds decoded, and the array it was decoded from
+    @Transient
+    private int[] decodedIds;
+
+    @Transient
+    private byte[] decodedFrom;
+
+    public NotificationReadMarkEntity() {
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getReadThroughId() {
+        return readThroughId;
+    }
+
+    public void setReadThroughId(int readThroughId) {
+        this.readThroughId = readThroughId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public byte[] getReadBroadcastIds() {
+        return readBroadcastIds;
+    }
+
+    public void setReadBroadcastIds(byte[] readBroadcastIds) {
+        this.readBroadcastIds = readBroadcastIds;
+    }
+
+    /**
+     * Whether the user has read the broadcast, through the watermark or
+     * individually.
+     */
+    public boolean hasReadBroadcast(int notificationId) {
+        return notificationId <= readThroughId
+                || Arrays.binarySearch(decodedIds(), notificationId) >= 0;
+    }
+
+    /**
+     * Ids of broadcasts read individually above the watermark, ascending.
+     */
+    public int[] readBroadcastIdsAboveMark() {
+        return Arrays.stream(decodedIds()).filter(id -> id > readThroughId).toArray();
+    }
+
+    /**
+     * Adds a broadcast to the read set, dropping ids the watermark has since
+     * passed. Returns false if it was already read.
+     */
+    public boolean markBroadcastRead(int notificationId) {
+        if (hasReadBroadcast(notificationId)) {
+            return false;
+        }
+        int[] ids = readBroadcastIdsAboveMark();
+        int[] updated = Arrays.copyOf(ids, ids.length + 1);
+        updated[ids.length] = notificationId;
+        Arrays.sort(updated);
+        readBroadcastIds = encode(updated);
+        decodedIds = updated;
+        decodedFrom = readBroadcastIds;
+        return true;
+    }
+
+    private int[] decodedIds() {
+        // compared by reference: Hibernate sets the field without the setter
+        if (decodedIds == null || decodedFrom != readBroadcastIds) {
+            decodedIds = decode(readBroadcastIds);
+            decodedFrom = readBroadcastIds;
+        }
+        return decodedIds;
+    }
+
+    private static byte[] encode(int[] sortedIds) {
+        byte[] out = new byte[sortedIds.length * 5];
+        int pos = 0;
+        int previous = 0;
+        for (int id : sortedIds) {
+            int delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7F) != 0) {
+                out[pos++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out[pos++] = (byte) delta;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static int[] decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new int[0];
+        }
+        int[] ids = new int[bytes.length];
+        int count = 0;
+        int previous = 0;
+        int pos = 0;
+        while (pos < bytes.length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && pos < bytes.length);
+            previous += delta;
+            ids[count++] = previous;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}
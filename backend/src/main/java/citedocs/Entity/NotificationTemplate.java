@@ -0,0 +1,85 @@
+package citedocs.Entity;
+
+/**
+ * Wording of templated notifications. Rows store the template and a short
+ * parameter payload instead of the sentence, which is rendered when the
+ * notification is read; a wording change here applies to existing rows
+ * without a data migration. Rendering is a single String.format, so it is
+ * not cached.
+ */
+public enum NotificationTemplate {
+
+    // params: student name, student SID (may be empty), document name
+    REQUEST_SUBMITTED {
+        @Override
+        String format(int requestId, String[] params) {
+            String sid = param(params, 1);
+            return String.format(
+                    "New request submitted by %s%s for %s.",
+                    param(params, 0),
+                    (!sid.isEmpty() ? " (SID: " + sid + ")" : ""),
+                    param(params, 2)
+            );
+        }
+    },
+
+    // params: number of requests, document name; REQUEST_SUBMITTED rows
+    // coalesced by NotificationCoalescer
+    REQUEST_DIGEST {
+        @Override
+        String format(int requestId, String[] params) {
+            return String.format(
+                    "%s new requests for %s.",
+                    param(params, 0),
+                    param(params, 1)
+            );
+        }
+    },
+
+    // params: new status, remarks (may be empty)
+    REQUEST_STATUS {
+        @Override
+        String format(int requestId, String[] params) {
+            String message = String.format(
+                    "Your document request (REQ-%d) is now %s.",
+                    requestId,
+                    param(params, 0)
+            );
+            String remarks = param(params, 1);
+            return !remarks.isEmpty() ? message + " Remarks: " + remarks : message;
+        }
+    };
+
+    // ASCII unit separator between parameters
+    private static final char SEPARATOR = '\u001F';
+
+    abstract String format(int requestId, String[] params);
+
+    public String render(int requestId, String params) {
+        return format(requestId, unpack(params));
+    }
+
+    /**
+     * Packs template parameters into the stored payload; null becomes empty.
+     */
+    public static String params(String... values) {
+        StringBuilder packed = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                packed.append(SEPARATOR);
+            }
+            if (values[i] != null) {
+                packed.append(values[i].trim().replace(SEPARATOR, ' '));
+            }
+        }
+        return packed.toString();
+    }
+
+    public static String[] unpack(String params) {
+        return params != null ? params.split(String.valueOf(SEPARATOR), -1) : new String[0];
+    }
+
+    public static String param(String[] params, int index) {
+        return index < params.length ? params[index] : "";
+    }
+}
@@ -7,11 +7,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "request_status_log")
+@Table(name = "request_status_log", indexes = {
+        // Date-range exports read the log in changed_at order
+        @Index(name = "idx_status_log_changed", columnList = "changed_at")
+})
 public class RequestStatusLogEntity {
 
     @Id
@@ -0,0 +1,68 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * Marker left behind when a request is deleted or moved to the archive, so
+ * delta sync clients can drop it from their copy of the list.
+ */
+@Entity
+@Table(name = "request_tombstones", indexes = {
+        @Index(name = "idx_request_tombstones_deleted", columnList = "deleted_at, request_id")
+})
+public class RequestTombstoneEntity {
+
+    @Id
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public RequestTombstoneEntity() {}
+
+    public RequestTombstoneEntity(Long requestId, Long userId) {
+        this.requestId = requestId;
+        this.userId = userId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (deletedAt == null)
+            deletedAt = LocalDateTime.now();
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
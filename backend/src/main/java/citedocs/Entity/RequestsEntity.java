@@ -2,6 +2,7 @@ package citedocs.Entity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -14,6 +15,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -21,7 +23,19 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "requests")
+@Table(name = "requests", indexes = {
+        // Keyset pagination on (created_at, request_id), alone and behind each equality filter
+        @Index(name = "idx_requests_created", columnList = "created_at, request_id"),
+        @Index(name = "idx_requests_status_created", columnList = "status, created_at, request_id"),
+        @Index(name = "idx_requests_user_created", columnList = "user_id, created_at, request_id"),
+        @Index(name = "idx_requests_document_created", columnList = "document_id, created_at, request_id"),
+        @Index(name = "idx_requests_date_needed", columnList = "date_needed"),
+        // Delta sync reads rows changed after an (updated_at, request_id) watermark
+        @Index(name = "idx_requests_updated", columnList = "updated_at, request_id"),
+        // Claim-next walks open requests in claim_priority order; closed ones are NULL
+        @Index(name = "idx_requests_claim", columnList = "claim_priority, request_id"),
+        @Index(name = "idx_requests_assignee", columnList = "assigned_to, lease_expires_at")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class RequestsEntity {
 
@@ -75,6 +89,17 @@ public class RequestsEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Registrar working on the request, until the lease expires
+    @Column(name = "assigned_to")
+    private Integer assignedTo;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Urgency key while PENDING or PROCESSING, NULL otherwise; see claimPriority()
+    @Column(name = "claim_priority")
+    private Long claimPriority;
+
     // Transient fields for enriched responses (populated by service)
     @jakarta.persistence.Transient
     private String userName;  // Student name from UserEntity
@@ -95,11 +120,42 @@ public class RequestsEntity {
         if (status == null) {
             status = Status.PENDING;
         }
+        claimPriority = claimPriority(status, dateNeeded, createdAt);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        claimPriority = claimPriority(status, dateNeeded, createdAt);
+    }
+
+    private static final double AGING_WEIGHT = 0.5;
+    private static final long PROCESSING_OFFSET_SECONDS = 24 * 60 * 60;
+    private static final long DEFAULT_LEAD_DAYS = 7;
+
+    /**
+     * Urgency of an open request; lower comes first. It is the time left
+     * until the request is due, minus half the time it has been waiting,
+     * plus a day once someone has started on it. The waiting term grows at
+     * the same rate for every request, so it is left out: the key is fixed
+     * until the status or dateNeeded changes, and can be stored and indexed.
+     * Requests without a dateNeeded are due a week after they were filed.
+     *
+     * Returns null for requests nobody has to act on any more.
+     */
+    public static Long claimPriority(Status status, LocalDate dateNeeded, LocalDateTime createdAt) {
+        if (status != Status.PENDING && status != Status.PROCESSING) {
+            return null;
+        }
+        LocalDateTime filed = createdAt != null ? createdAt : LocalDateTime.now();
+        LocalDateTime due = dateNeeded != null ? dateNeeded.atStartOfDay() : filed.plusDays(DEFAULT_LEAD_DAYS);
+
+        // due - AGING_WEIGHT * (now - filed), without the "now" term shared by all requests
+        double key = due.toEpochSecond(ZoneOffset.UTC) + AGING_WEIGHT * filed.toEpochSecond(ZoneOffset.UTC);
+        if (status == Status.PROCESSING) {
+            key += PROCESSING_OFFSET_SECONDS;
+        }
+        return (long) key;
     }
 
     // Getters and Setters
@@ -152,6 +208,22 @@ public class RequestsEntity {
         this.dateNeeded = dateNeeded;
     }
 
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(Integer assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
     public LocalDateTime getDateReady() {          // <-- NEW
         return dateReady;
     }
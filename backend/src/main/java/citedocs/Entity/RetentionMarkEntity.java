@@ -0,0 +1,56 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Where a retention walk resumes: every id below nextId has been visited
+ * since the last full walk from the start of the table, which ended at
+ * sweptAt. Rows the walk left behind (unread then) are visited again by
+ * the next full walk.
+ */
+@Entity
+@Table(name = "retention_marks")
+public class RetentionMarkEntity {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "next_id", nullable = false)
+    private long nextId;
+
+    @Column(name = "swept_at")
+    private LocalDateTime sweptAt;
+
+    public RetentionMarkEntity() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getNextId() {
+        return nextId;
+    }
+
+    public void setNextId(long nextId) {
+        this.nextId = nextId;
+    }
+
+    public LocalDateTime getSweptAt() {
+        return sweptAt;
+    }
+
+    public void setSweptAt(LocalDateTime sweptAt) {
+        this.sweptAt = sweptAt;
+    }
+}
@@ -0,0 +1,64 @@
+package citedocs.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A short-lived, single-use ticket for opening the notification stream.
+ * EventSource cannot send an Authorization header, so the browser trades
+ * its JWT for one of these and puts it in the stream URL instead. Only a
+ * hash of the ticket is stored; redeeming it deletes the row.
+ */
+@Entity
+@Table(name = "stream_tickets", indexes = {
+        @Index(name = "idx_stream_tickets_expires", columnList = "expires_at")
+})
+public class StreamTicketEntity {
+
+    @Id
+    @Column(name = "ticket_hash", length = 64)
+    private String ticketHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StreamTicketEntity() {}
+
+    public StreamTicketEntity(String ticketHash, Integer userId, LocalDateTime expiresAt) {
+        this.ticketHash = ticketHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTicketHash() {
+        return ticketHash;
+    }
+
+    public void setTicketHash(String ticketHash) {
+        this.ticketHash = ticketHash;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
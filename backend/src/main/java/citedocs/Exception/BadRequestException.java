@@ -0,0 +1,11 @@
+package citedocs.Exception;
+
+/**
+ * Thrown when a client sends a value the server cannot use, such as a
+ * malformed or out-of-range cursor. Mapped to 400.
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package citedocs.Exception;
+
+/**
+ * Thrown when a write loses a race with a concurrent change to the same
+ * resource. Mapped to 409 so clients can reload and retry.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
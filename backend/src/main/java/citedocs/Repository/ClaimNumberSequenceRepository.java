@@ -0,0 +1,29 @@
+package citedocs.Repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import citedocs.Entity.ClaimNumberSequenceEntity;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ClaimNumberSequenceRepository extends JpaRepository<ClaimNumberSequenceEntity, Integer> {
+
+    // Locks the year's row so concurrent nodes reserve disjoint blocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ClaimNumberSequenceEntity s WHERE s.year = :year")
+    Optional<ClaimNumberSequenceEntity> findForUpdate(@Param("year") int year);
+
+    // Plain INSERT: save() would merge over a row another node created in the
+    // meantime, while this fails with a duplicate key and the caller retries
+    @Modifying
+    @Query(value = "INSERT INTO claim_number_sequences (seq_year, next_value) VALUES (:year, :nextValue)",
+           nativeQuery = true)
+    int insert(@Param("year") int year, @Param("nextValue") long nextValue);
+}
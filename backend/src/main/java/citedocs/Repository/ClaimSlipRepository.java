@@ -1,13 +1,21 @@
 package citedocs.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import citedocs.Entity.ClaimSlipEntity;
 
 @Repository
-public interface ClaimSlipRepository extends JpaRepository<ClaimSlipEntity, Integer>{
+public interface ClaimSlipRepository extends JpaRepository<ClaimSlipEntity, Integer>, ClaimSlipRepositoryCustom {
     Optional<ClaimSlipEntity> findByRequestId(Long requestId);
+    List<ClaimSlipEntity> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT c.requestId FROM ClaimSlipEntity c WHERE c.requestId IN :requestIds")
+    List<Long> findRequestIdsWithSlip(@Param("requestIds") Collection<Long> requestIds);
 }
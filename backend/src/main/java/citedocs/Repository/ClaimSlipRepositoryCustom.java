@@ -0,0 +1,16 @@
+package citedocs.Repository;
+
+import java.util.List;
+
+import citedocs.Entity.ClaimSlipEntity;
+
+public interface ClaimSlipRepositoryCustom {
+
+    // Writes all claim slips as one JDBC batch; a request that already has
+    // a claim slip keeps its existing one. Throws DuplicateKeyException if a
+    // claim number already belongs to another request.
+    void upsertAll(List<ClaimSlipEntity> claimSlips);
+
+    // Highest NNN issued as REQ-year-NNN, live or archived, or 0
+    long findLastIssuedNumber(int year);
+}
@@ -0,0 +1,99 @@
+package citedocs.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import citedocs.Entity.ClaimSlipEntity;
+
+/**
+ * JDBC batch upsert for claim slips. IDENTITY ids stop Hibernate from
+ * batching inserts, so bulk writes go through JdbcTemplate instead; the
+ * statements join the surrounding JPA transaction.
+ */
+class ClaimSlipRepositoryImpl implements ClaimSlipRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO claim_slips (request_id, claim_number, date_ready, issued_by, issued_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            // Idempotent on the unique request_id: an existing slip is left untouched.
+            // The unique claim_number takes the same path, see checkClaimNumbers
+            "ON DUPLICATE KEY UPDATE request_id = request_id";
+
+    // Longest, then greatest, so "REQ-2026-1000" sorts above "REQ-2026-999"
+    private static final String LAST_ISSUED_SQL =
+            "SELECT claim_number FROM (" +
+            "SELECT claim_number FROM claim_slips WHERE claim_number LIKE ? " +
+            "UNION ALL " +
+            "SELECT claim_number FROM claim_slips_archive WHERE claim_number LIKE ?" +
+            ") issued ORDER BY LENGTH(claim_number) DESC, claim_number DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    ClaimSlipRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public void upsertAll(List<ClaimSlipEntity> claimSlips) {
+        if (claimSlips.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, claimSlips, claimSlips.size(), (ps, claimSlip) -> {
+            ps.setLong(1, claimSlip.getRequestId());
+            ps.setString(2, claimSlip.getClaimNumber());
+            ps.setDate(3, claimSlip.getDateReady() != null ? Date.valueOf(claimSlip.getDateReady()) : null);
+            ps.setObject(4, claimSlip.getIssuedBy());
+            ps.setTimestamp(5, Timestamp.valueOf(claimSlip.getIssuedAt() != null ? claimSlip.getIssuedAt() : now));
+        });
+        checkClaimNumbers(claimSlips);
+    }
+
+    @Override
+    public long findLastIssuedNumber(int year) {
+        String prefix = "REQ-" + year + "-";
+        List<String> last = jdbcTemplate.queryForList(LAST_ISSUED_SQL, String.class, prefix + "%", prefix + "%");
+        if (last.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(last.get(0).substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("Unexpected claim number " + last.get(0), ex);
+        }
+    }
+
+    /**
+     * ON DUPLICATE KEY also swallows a clash on claim_number, which would
+     * leave the request without a slip. Reads the numbers back and fails the
+     * transaction if one of them is held by a different request.
+     */
+    private void checkClaimNumbers(List<ClaimSlipEntity> claimSlips) {
+        Map<String, Long> expected = claimSlips.stream()
+                .collect(Collectors.toMap(ClaimSlipEntity::getClaimNumber, ClaimSlipEntity::getRequestId));
+
+        namedJdbcTemplate.query(
+                "SELECT claim_number, request_id FROM claim_slips WHERE claim_number IN (:claimNumbers)",
+                new MapSqlParameterSource("claimNumbers", expected.keySet()),
+                rs -> {
+                    String claimNumber = rs.getString(1);
+                    long holder = rs.getLong(2);
+                    if (holder != expected.get(claimNumber)) {
+                        throw new DuplicateKeyException("Claim number " + claimNumber
+                                + " already belongs to request " + holder);
+                    }
+                });
+    }
+}
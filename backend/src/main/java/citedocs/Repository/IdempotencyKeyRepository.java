@@ -0,0 +1,39 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import citedocs.Entity.IdempotencyKeyEntity;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    // Plain INSERT (save() would merge into an existing row); a duplicate key
+    // fails with DataIntegrityViolationException, which is how a claim is lost
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (key_hash, fingerprint, status, created_at, expires_at) " +
+                   "VALUES (:keyHash, :fingerprint, 'IN_PROGRESS', :createdAt, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("keyHash") String keyHash,
+                    @Param("fingerprint") String fingerprint,
+                    @Param("createdAt") LocalDateTime createdAt,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = :status, k.responseBody = :responseBody " +
+           "WHERE k.keyHash = :keyHash")
+    int complete(@Param("keyHash") String keyHash,
+                 @Param("responseBody") String responseBody,
+                 @Param("status") IdempotencyKeyEntity.Status status);
+
+    // Removes a claim only if nobody has re-claimed it since it was read
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.keyHash = :keyHash AND k.createdAt = :createdAt")
+    int deleteClaim(@Param("keyHash") String keyHash, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
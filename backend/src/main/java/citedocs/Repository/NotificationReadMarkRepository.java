@@ -0,0 +1,43 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import citedocs.Entity.NotificationReadMarkEntity;
+import citedocs.Entity.UserEntity;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMarkEntity, Integer> {
+
+    @Query("SELECT m.readThroughId FROM NotificationReadMarkEntity m WHERE m.userId = :userId")
+    Optional<Integer> findReadThroughId(@Param("userId") int userId);
+
+    // Moves the user's watermark up to readThroughId, never back, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_marks (user_id, read_through_id, updated_at) " +
+                   "VALUES (:userId, :readThroughId, :now) " +
+                   "ON DUPLICATE KEY UPDATE read_through_id = GREATEST(read_through_id, VALUES(read_through_id)), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int advance(@Param("userId") int userId,
+                @Param("readThroughId") int readThroughId,
+                @Param("now") LocalDateTime now);
+
+    // Read marks of every user with the role
+    @Query("SELECT m FROM NotificationReadMarkEntity m, UserEntity u WHERE u.uid = m.userId AND u.role = :role")
+    List<NotificationReadMarkEntity> findByUserRole(@Param("role") UserEntity.Role role);
+
+    // Locks the user's row while its broadcast read set is rewritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM NotificationReadMarkEntity m WHERE m.userId = :userId")
+    Optional<NotificationReadMarkEntity> findForUpdate(@Param("userId") int userId);
+}
@@ -1,18 +1,145 @@
 package citedocs.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import jakarta.persistence.LockModeType;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<NotificationEntity, Integer> {
+public interface NotificationRepository extends JpaRepository<NotificationEntity, Integer>, NotificationRepositoryCustom {
 
     // find notifications for a specific user, recent first
-    List<NotificationEntity> findByUserIdOrderByCreatedAtDesc(int userId);
+    List<NotificationEntity> findByUserIdOrderByCreatedAtDescNotificationIdDesc(int userId);
+
+    // A notification is unread when its own flag is not set and it is above the user's read watermark
+    String ABOVE_READ_MARK =
+            "AND n.notificationId > COALESCE((SELECT m.readThroughId FROM NotificationReadMarkEntity m " +
+            "                                 WHERE m.userId = :userId), 0) ";
 
     // find unread notifications for a specific user, recent first
-    List<NotificationEntity> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(int userId);
+    @Query("SELECT n FROM NotificationEntity n WHERE n.userId = :userId AND n.isRead = false " +
+           ABOVE_READ_MARK +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findUnreadByUserId(@Param("userId") int userId);
+
+    // Keyset pages of a user's notifications, newest first; a null cursor is the first page
+    @Query("SELECT n FROM NotificationEntity n WHERE n.userId = :userId " +
+           "AND (:beforeCreatedAt IS NULL OR n.createdAt < :beforeCreatedAt " +
+           "     OR (n.createdAt = :beforeCreatedAt AND n.notificationId < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findPageByUserId(@Param("userId") int userId,
+                                              @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                              @Param("beforeId") Integer beforeId,
+                                              Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n WHERE n.userId = :userId AND n.isRead = false " +
+           ABOVE_READ_MARK +
+           "AND (:beforeCreatedAt IS NULL OR n.createdAt < :beforeCreatedAt " +
+           "     OR (n.createdAt = :beforeCreatedAt AND n.notificationId < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findUnreadPageByUserId(@Param("userId") int userId,
+                                                    @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                    @Param("beforeId") Integer beforeId,
+                                                    Pageable pageable);
+
+    // unread count for the bell (idx_notifications_user_read, plus the watermark row)
+    @Query("SELECT COUNT(n) FROM NotificationEntity n WHERE n.userId = :userId AND n.isRead = false " +
+           ABOVE_READ_MARK)
+    long countUnread(@Param("userId") int userId);
+
+    // Keyset pages of the broadcasts addressed to a role (idx_notifications_role_created)
+    @Query("SELECT n FROM NotificationEntity n WHERE n.role = :role " +
+           "AND (:beforeCreatedAt IS NULL OR n.createdAt < :beforeCreatedAt " +
+           "     OR (n.createdAt = :beforeCreatedAt AND n.notificationId < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findBroadcastPage(@Param("role") UserEntity.Role role,
+                                               @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                               @Param("beforeId") Integer beforeId,
+                                               Pageable pageable);
+
+    // Broadcasts the user has not read: above their watermark and not in their
+    // read set (pass a single 0 when the set is empty)
+    @Query("SELECT n FROM NotificationEntity n WHERE n.role = :role " +
+           ABOVE_READ_MARK +
+           "AND n.notificationId NOT IN :readIds " +
+           "AND (:beforeCreatedAt IS NULL OR n.createdAt < :beforeCreatedAt " +
+           "     OR (n.createdAt = :beforeCreatedAt AND n.notificationId < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findUnreadBroadcastPage(@Param("role") UserEntity.Role role,
+                                                     @Param("userId") int userId,
+                                                     @Param("readIds") Collection<Integer> readIds,
+                                                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                     @Param("beforeId") Integer beforeId,
+                                                     Pageable pageable);
+
+    @Query("SELECT COUNT(n) FROM NotificationEntity n WHERE n.role = :role " +
+           ABOVE_READ_MARK +
+           "AND n.notificationId NOT IN :readIds")
+    long countUnreadBroadcasts(@Param("role") UserEntity.Role role,
+                               @Param("userId") int userId,
+                               @Param("readIds") Collection<Integer> readIds);
+
+    // The newest row with the digest key for the recipient created since the
+    // window opened, locked while later notifications are merged into it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM NotificationEntity n WHERE n.digestKey = :digestKey AND n.createdAt > :since " +
+           "AND n.userId = :userId AND (n.role = :role OR (:role IS NULL AND n.role IS NULL)) " +
+           "ORDER BY n.createdAt DESC, n.notificationId DESC")
+    List<NotificationEntity> findOpenDigest(@Param("digestKey") String digestKey,
+                                            @Param("userId") int userId,
+                                            @Param("role") UserEntity.Role role,
+                                            @Param("since") LocalDateTime since,
+                                            Pageable pageable);
+
+    @Query("SELECT d.requestId FROM NotificationDigestRequestEntity d " +
+           "WHERE d.notificationId = :notificationId ORDER BY d.requestId")
+    List<Integer> findDigestRequestIds(@Param("notificationId") int notificationId);
+
+    // Sets the flag only if it is still unset, so of two concurrent readers
+    // exactly one gets 1 and adjusts the unread count
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true " +
+           "WHERE n.notificationId = :id AND n.isRead = false AND n.role IS NULL")
+    int markReadIfUnread(@Param("id") int id);
+
+    @Modifying
+    @Query("DELETE FROM NotificationDigestRequestEntity d WHERE d.notificationId = :notificationId")
+    int deleteDigestRequests(@Param("notificationId") int notificationId);
+
+    // a user's notifications and their role's broadcasts created after a
+    // stream event id, oldest first (Last-Event-ID resume)
+    @Query("SELECT n FROM NotificationEntity n WHERE (n.userId = :userId OR n.role = :role) " +
+           "AND n.notificationId > :afterId ORDER BY n.notificationId ASC")
+    List<NotificationEntity> findStreamBacklog(@Param("userId") int userId,
+                                               @Param("role") UserEntity.Role role,
+                                               @Param("afterId") int afterId,
+                                               Pageable pageable);
+
+    // Rows of a user or their role with the template, created since a time,
+    // at or below a stream event id (digests to re-send on resume)
+    @Query("SELECT n FROM NotificationEntity n WHERE (n.userId = :userId OR n.role = :role) " +
+           "AND n.template = :template AND n.createdAt > :since AND n.notificationId <= :throughId " +
+           "ORDER BY n.notificationId ASC")
+    List<NotificationEntity> findStreamRowsSince(@Param("userId") int userId,
+                                                 @Param("role") UserEntity.Role role,
+                                                 @Param("template") NotificationTemplate template,
+                                                 @Param("since") LocalDateTime since,
+                                                 @Param("throughId") int throughId,
+                                                 Pageable pageable);
+
+    @Query("SELECT n.createdAt FROM NotificationEntity n WHERE n.notificationId = :id")
+    Optional<LocalDateTime> findCreatedAt(@Param("id") int id);
 }
@@ -0,0 +1,25 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import citedocs.Entity.NotificationEntity;
+
+public interface NotificationRepositoryCustom {
+
+    record Head(int notificationId, LocalDateTime createdAt) {}
+
+    // Inserts all notifications as one JDBC batch and sets their generated ids
+    void insertAll(List<NotificationEntity> notifications);
+
+    // Records the requests a digest notification summarises, as one JDBC batch
+    void insertDigestRequests(int notificationId, List<Integer> requestIds);
+
+    // First notification at or after the id, by primary key, or null
+    Head findHead(int fromId);
+
+    // Deletes notifications in [fromId, toId) created before the cutoff that
+    // are read (flag or read mark) or are role broadcasts, and the digest
+    // requests they leave behind. Returns the notifications deleted.
+    int deleteReadBefore(int fromId, int toId, LocalDateTime cutoff);
+}
@@ -0,0 +1,130 @@
+package citedocs.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import citedocs.Entity.NotificationEntity;
+
+/**
+ * JDBC batch inserts for notifications and digest requests, see
+ * {@link ClaimSlipRepositoryImpl}, and the primary-key-range deletes of the
+ * retention purge.
+ */
+class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, role, request_id, message, template, params, digest_key, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DIGEST_REQUEST_SQL =
+            "INSERT INTO notification_digest_requests (notification_id, request_id) VALUES (?, ?)";
+
+    private static final String DELETE_READ_SQL =
+            "DELETE FROM notifications " +
+            "WHERE notification_id >= ? AND notification_id < ? AND created_at < ? " +
+            "AND (is_read = TRUE OR role IS NOT NULL " +
+            "     OR notification_id <= COALESCE((SELECT m.read_through_id FROM notification_read_marks m " +
+            "                                     WHERE m.user_id = notifications.user_id), 0))";
+
+    private static final String DELETE_ORPHAN_DIGEST_REQUESTS_SQL =
+            "DELETE FROM notification_digest_requests " +
+            "WHERE notification_id >= ? AND notification_id < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM notifications n " +
+            "                WHERE n.notification_id = notification_digest_requests.notification_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    NotificationRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        // Microseconds, as stored, so timestamps streamed or used as cursors match the rows
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NotificationEntity notif = notifications.get(i);
+                        ps.setInt(1, notif.getUserId());
+                        ps.setString(2, notif.getRole() != null ? notif.getRole().name() : null);
+                        ps.setInt(3, notif.getRequestId());
+                        // Templated rows store their parameters, not the rendered sentence
+                        ps.setString(4, notif.getTemplate() == null ? notif.getMessage() : "");
+                        ps.setString(5, notif.getTemplate() != null ? notif.getTemplate().name() : null);
+                        ps.setString(6, notif.getParams());
+                        ps.setString(7, notif.getDigestKey());
+                        ps.setBoolean(8, notif.getIsRead());
+                        ps.setTimestamp(9, createdAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return notifications.size();
+                    }
+                },
+                keys);
+
+        // Generated ids come back in insert order; the stream uses them as event ids
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < notifications.size() && i < keyList.size(); i++) {
+            Object id = keyList.get(i).values().iterator().next();
+            notifications.get(i).setNotificationId(((Number) id).intValue());
+            notifications.get(i).setCreatedAt(now);
+        }
+    }
+
+    @Override
+    public void insertDigestRequests(int notificationId, List<Integer> requestIds) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_DIGEST_REQUEST_SQL, requestIds, requestIds.size(),
+                (ps, requestId) -> {
+                    ps.setInt(1, notificationId);
+                    ps.setInt(2, requestId);
+                });
+    }
+
+    @Override
+    public Head findHead(int fromId) {
+        List<Head> heads = jdbcTemplate.query(
+                "SELECT notification_id, created_at FROM notifications " +
+                "WHERE notification_id >= ? ORDER BY notification_id LIMIT 1",
+                (rs, rowNum) -> new Head(rs.getInt(1), toLocalDateTime(rs.getTimestamp(2))),
+                fromId);
+        return heads.isEmpty() ? null : heads.get(0);
+    }
+
+    @Override
+    public int deleteReadBefore(int fromId, int toId, LocalDateTime cutoff) {
+        int deleted = jdbcTemplate.update(DELETE_READ_SQL, fromId, toId, Timestamp.valueOf(cutoff));
+        if (deleted > 0) {
+            jdbcTemplate.update(DELETE_ORPHAN_DIGEST_REQUESTS_SQL, fromId, toId);
+        }
+        return deleted;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
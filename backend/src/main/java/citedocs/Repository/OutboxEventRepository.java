@@ -0,0 +1,39 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import citedocs.Entity.OutboxEventEntity;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, String> {
+
+    // ids of events in the given status whose next attempt is due, oldest first
+    @Query("SELECT e.eventId FROM OutboxEventEntity e " +
+           "WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<String> findDueEventIds(@Param("status") OutboxEventEntity.Status status,
+                                 @Param("now") LocalDateTime now,
+                                 Pageable pageable);
+
+    // Conditional status change; returns 0 if the event is no longer in the expected status
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.status = :newStatus, e.processedAt = :now " +
+           "WHERE e.eventId = :eventId AND e.status = :expectedStatus")
+    int transition(@Param("eventId") String eventId,
+                   @Param("expectedStatus") OutboxEventEntity.Status expectedStatus,
+                   @Param("newStatus") OutboxEventEntity.Status newStatus,
+                   @Param("now") LocalDateTime now);
+
+    // Processed events are kept for a while for troubleshooting, then purged a batch at a time
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'PROCESSED' AND processed_at < :cutoff LIMIT :limit",
+           nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -1,9 +1,12 @@
 package citedocs.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import citedocs.Entity.PaymentEntity;
@@ -12,4 +15,8 @@ import citedocs.Entity.PaymentEntity;
 public interface PaymentRepository extends JpaRepository<PaymentEntity, Integer> {
     Optional<PaymentEntity> findByRequestId(Long requestId);
     List<PaymentEntity> findAllByRequestId(Long requestId);
+    // (requestId, proofOfPayment) pairs for list rows; the latest upload comes last
+    @Query("SELECT p.requestId, p.proofOfPayment FROM PaymentEntity p " +
+           "WHERE p.requestId IN :requestIds ORDER BY p.paymentId")
+    List<Object[]> findProofsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 }
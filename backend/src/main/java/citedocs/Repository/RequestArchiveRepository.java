@@ -0,0 +1,50 @@
+package citedocs.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.ArchiveId;
+import citedocs.Entity.ArchivedRequestEntity;
+import citedocs.Entity.ArchivedStatusLogEntity;
+
+public interface RequestArchiveRepository extends JpaRepository<ArchivedRequestEntity, ArchiveId>, RequestArchiveRepositoryCustom {
+
+    // Same row shape as RequestsRepository.SUMMARY_SELECT, so archived and
+    // live rows can be merged into one list
+    String SUMMARY_SELECT =
+            "SELECT new citedocs.DTO.RequestSummaryDTO(a.id, a.userId, u.name, u.sid, " +
+            "a.documentId, d.name, a.status, a.copies, a.dateNeeded, a.dateReady, a.createdAt, a.updatedAt) " +
+            "FROM ArchivedRequestEntity a LEFT JOIN DocumentsEntity d ON d.documentId = a.documentId " +
+            "LEFT JOIN UserEntity u ON u.uid = a.userId ";
+
+    @Query(SUMMARY_SELECT)
+    List<RequestSummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE a.userId = :userId")
+    List<RequestSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :id")
+    Optional<RequestSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    // (requestId, proofOfPayment) pairs for archived rows; the latest upload comes last
+    @Query("SELECT p.requestId, p.proofOfPayment FROM ArchivedPaymentEntity p " +
+           "WHERE p.requestId IN :requestIds ORDER BY p.id")
+    List<Object[]> findProofsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("SELECT log FROM ArchivedStatusLogEntity log ORDER BY log.changedAt DESC")
+    List<ArchivedStatusLogEntity> findAllStatusLogs();
+
+    // Logs of the user's archived requests, and old logs of their live
+    // requests moved here by RetentionPurger
+    @Query("SELECT log FROM ArchivedStatusLogEntity log " +
+           "WHERE log.requestId IN (SELECT req.id FROM ArchivedRequestEntity req WHERE req.userId = :userId) " +
+           "OR log.requestId IN (SELECT r.requestId FROM RequestsEntity r WHERE r.userId = :userId) " +
+           "ORDER BY log.changedAt DESC")
+    List<ArchivedStatusLogEntity> findStatusLogsByUserId(@Param("userId") Long userId);
+}
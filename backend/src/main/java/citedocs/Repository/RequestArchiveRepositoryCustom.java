@@ -0,0 +1,37 @@
+package citedocs.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.RequestsEntity;
+
+public interface RequestArchiveRepositoryCustom {
+
+    record Candidate(Long requestId, Long userId, RequestsEntity.Status status, Long documentId) {}
+
+    // Same filters and keyset condition as RequestsRepository.findPage
+    List<RequestSummaryDTO> findPage(RequestsEntity.Status status,
+                                     Long documentId,
+                                     Long userId,
+                                     LocalDate dateNeededFrom,
+                                     LocalDate dateNeededTo,
+                                     LocalDateTime afterCreatedAt,
+                                     Long afterId,
+                                     int limit);
+
+    // Oldest year that has requests closed before the horizon, or null
+    Integer findOldestArchivableYear(LocalDateTime closedBefore);
+
+    // Locks up to limit closed requests last changed before the horizon
+    List<Candidate> lockArchivable(LocalDateTime closedBefore, int limit);
+
+    // Copies the requests and their status logs, payments and claim slips
+    // into the archive tables and deletes them from the live tables
+    int moveToArchive(List<Long> requestIds);
+
+    // Makes sure the archive tables have a partition for each year in the
+    // range; a no-op on databases without range partitioning
+    void preparePartitions(int fromYear, int toYear);
+}
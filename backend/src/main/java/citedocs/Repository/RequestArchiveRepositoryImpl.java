@@ -0,0 +1,224 @@
+package citedocs.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.RequestsEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Moves closed requests and everything hanging off them into the archive
+ * tables with set-based INSERT ... SELECT / DELETE statements, one chunk of
+ * request ids at a time. The statements join the surrounding transaction,
+ * so a chunk is moved completely or not at all, together with the delete
+ * tombstones that tell delta sync clients the requests are gone.
+ *
+ * On MySQL the archive tables are RANGE partitioned on archive_year, one
+ * partition per year plus a catch-all, so a whole year can later be dropped
+ * or scanned on its own.
+ */
+class RequestArchiveRepositoryImpl implements RequestArchiveRepositoryCustom {
+
+    private static final String CLOSED = "status IN ('COMPLETED', 'REJECTED')";
+
+    private static final String ARCHIVE_YEAR = "YEAR(COALESCE(r.created_at, r.updated_at))";
+
+    private static final String[] ARCHIVE_TABLES = {
+            "requests_archive", "request_status_log_archive", "payments_archive", "claim_slips_archive"
+    };
+
+    private static final String CATCH_ALL_PARTITION = "p_future";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean partitioningSupported;
+
+    RequestArchiveRepositoryImpl(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Built from the filters given, like RequestsRepositoryImpl.findPage
+    @Override
+    public List<RequestSummaryDTO> findPage(RequestsEntity.Status status,
+                                            Long documentId,
+                                            Long userId,
+                                            LocalDate dateNeededFrom,
+                                            LocalDate dateNeededTo,
+                                            LocalDateTime afterCreatedAt,
+                                            Long afterId,
+                                            int limit) {
+        StringBuilder jpql = new StringBuilder(RequestArchiveRepository.SUMMARY_SELECT);
+        Map<String, Object> params = new LinkedHashMap<>();
+        jpql.append("WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND a.status = :status");
+            params.put("status", status);
+        }
+        if (documentId != null) {
+            jpql.append(" AND a.documentId = :documentId");
+            params.put("documentId", documentId);
+        }
+        if (userId != null) {
+            jpql.append(" AND a.userId = :userId");
+            params.put("userId", userId);
+        }
+        if (dateNeededFrom != null) {
+            jpql.append(" AND a.dateNeeded >= :dateNeededFrom");
+            params.put("dateNeededFrom", dateNeededFrom);
+        }
+        if (dateNeededTo != null) {
+            jpql.append(" AND a.dateNeeded <= :dateNeededTo");
+            params.put("dateNeededTo", dateNeededTo);
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (a.createdAt < :afterCreatedAt" +
+                        " OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY a.createdAt DESC, a.id DESC");
+
+        TypedQuery<RequestSummaryDTO> query = entityManager.createQuery(jpql.toString(), RequestSummaryDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Integer findOldestArchivableYear(LocalDateTime closedBefore) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(" + ARCHIVE_YEAR + ") FROM requests r WHERE r." + CLOSED + " AND r.updated_at < ?",
+                Integer.class, closedBefore);
+    }
+
+    @Override
+    public List<Candidate> lockArchivable(LocalDateTime closedBefore, int limit) {
+        return jdbcTemplate.query(
+                "SELECT request_id, user_id, status, document_id FROM requests " +
+                "WHERE " + CLOSED + " AND updated_at < ? ORDER BY request_id LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> new Candidate(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        RequestsEntity.Status.fromString(rs.getString(3)),
+                        rs.getLong(4)),
+                closedBefore, limit);
+    }
+
+    @Override
+    public int moveToArchive(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return 0;
+        }
+
+        String in = requestIds.stream().map(id -> "?").collect(Collectors.joining(", ", "(", ")"));
+        Object[] ids = requestIds.toArray();
+
+        // Children first, while their request row is still there to give the year
+        jdbcTemplate.update(
+                "INSERT INTO request_status_log_archive " +
+                "(archive_year, log_id, request_id, old_status, new_status, remarks, changed_by, changed_at) " +
+                "SELECT " + ARCHIVE_YEAR + ", l.log_id, l.request_id, l.old_status, l.new_status, l.remarks, " +
+                "l.changed_by, l.changed_at " +
+                "FROM request_status_log l JOIN requests r ON r.request_id = l.request_id " +
+                "WHERE l.request_id IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM request_status_log WHERE request_id IN " + in, ids);
+
+        jdbcTemplate.update(
+                "INSERT INTO payments_archive " +
+                "(archive_year, payment_id, request_id, proof_of_payment, remarks, uploaded_at) " +
+                "SELECT " + ARCHIVE_YEAR + ", p.payment_id, p.request_id, p.proof_of_payment, p.remarks, p.uploaded_at " +
+                "FROM payments p JOIN requests r ON r.request_id = p.request_id " +
+                "WHERE p.request_id IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM payments WHERE request_id IN " + in, ids);
+
+        jdbcTemplate.update(
+                "INSERT INTO claim_slips_archive " +
+                "(archive_year, claim_id, request_id, claim_number, date_ready, issued_by, issued_at) " +
+                "SELECT " + ARCHIVE_YEAR + ", c.claim_id, c.request_id, c.claim_number, c.date_ready, c.issued_by, c.issued_at " +
+                "FROM claim_slips c JOIN requests r ON r.request_id = c.request_id " +
+                "WHERE c.request_id IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM claim_slips WHERE request_id IN " + in, ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> requestParams = new ArrayList<>();
+        requestParams.add(now);
+        Collections.addAll(requestParams, ids);
+        jdbcTemplate.update(
+                "INSERT INTO requests_archive " +
+                "(archived_at, archive_year, request_id, user_id, document_id, status, copies, " +
+                "date_needed, date_ready, created_at, updated_at) " +
+                "SELECT ?, " + ARCHIVE_YEAR + ", r.request_id, r.user_id, r.document_id, r.status, r.copies, " +
+                "r.date_needed, r.date_ready, r.created_at, r.updated_at " +
+                "FROM requests r WHERE r.request_id IN " + in, requestParams.toArray());
+
+        // Delta sync clients learn from the tombstone that the request left the live list
+        jdbcTemplate.update(
+                "INSERT INTO request_tombstones (request_id, user_id, deleted_at) " +
+                "SELECT r.request_id, r.user_id, ? FROM requests r WHERE r.request_id IN " + in,
+                requestParams.toArray());
+        return jdbcTemplate.update("DELETE FROM requests WHERE request_id IN " + in, ids);
+    }
+
+    @Override
+    public void preparePartitions(int fromYear, int toYear) {
+        if (!isPartitioningSupported()) {
+            return;
+        }
+
+        for (String table : ARCHIVE_TABLES) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                    String.class, table);
+
+            if (partitions.isEmpty()) {
+                // ALTER ... PARTITION BY rebuilds the table; it is still empty
+                // or small the first time the archiver runs
+                jdbcTemplate.execute("ALTER TABLE " + table + " PARTITION BY RANGE (archive_year) ("
+                        + yearPartitions(fromYear, toYear) + ")");
+                continue;
+            }
+
+            int highest = partitions.stream()
+                    .filter(name -> name.matches("p\\d{4}"))
+                    .mapToInt(name -> Integer.parseInt(name.substring(1)))
+                    .max()
+                    .orElse(fromYear - 1);
+            if (highest < toYear) {
+                // Splitting the catch-all only touches rows that are in it
+                jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + CATCH_ALL_PARTITION
+                        + " INTO (" + yearPartitions(Math.max(fromYear, highest + 1), toYear) + ")");
+            }
+        }
+    }
+
+    private static String yearPartitions(int fromYear, int toYear) {
+        StringBuilder ddl = new StringBuilder();
+        for (int year = fromYear; year <= toYear; year++) {
+            ddl.append("PARTITION p").append(year).append(" VALUES LESS THAN (").append(year + 1).append("), ");
+        }
+        return ddl.append("PARTITION ").append(CATCH_ALL_PARTITION).append(" VALUES LESS THAN MAXVALUE").toString();
+    }
+
+    private boolean isPartitioningSupported() {
+        Boolean supported = partitioningSupported;
+        if (supported == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            supported = product != null && product.toLowerCase().contains("mysql");
+            partitioningSupported = supported;
+        }
+        return supported;
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import citedocs.Entity.RequestStatusLogEntity;
 
 @Repository
-public interface RequestStatusLogRepository extends JpaRepository<RequestStatusLogEntity, Integer>{
+public interface RequestStatusLogRepository extends JpaRepository<RequestStatusLogEntity, Integer>, RequestStatusLogRepositoryCustom {
     
     @Query("SELECT log FROM RequestStatusLogEntity log " +
            "JOIN RequestsEntity req ON log.requestId = req.requestId " +
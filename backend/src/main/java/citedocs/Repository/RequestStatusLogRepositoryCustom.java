@@ -0,0 +1,28 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import citedocs.Entity.RequestStatusLogEntity;
+
+public interface RequestStatusLogRepositoryCustom {
+
+    record Head(long logId, LocalDateTime changedAt) {}
+
+    // Inserts all status logs as one JDBC batch
+    void insertAll(List<RequestStatusLogEntity> logs);
+
+    // Streams export rows changed in [from, to) in (changed_at, log_id) order.
+    // Values follow ExportService.STATUS_LOG_COLUMNS; null bounds are open.
+    void streamForExport(LocalDateTime from, LocalDateTime to, Consumer<Object[]> rowHandler);
+
+    // First status log at or after the id, by primary key, or null
+    Head findHead(long fromId);
+
+    // Moves logs in [fromId, toId) changed before the cutoff into
+    // request_status_log_archive, under their request's archive year.
+    // Logs already in the archive are left to whoever copied them. Returns
+    // the logs moved.
+    int archiveBefore(long fromId, long toId, LocalDateTime cutoff);
+}
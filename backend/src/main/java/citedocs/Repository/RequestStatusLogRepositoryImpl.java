@@ -0,0 +1,125 @@
+package citedocs.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.Entity.RequestStatusLogEntity;
+
+/**
+ * JDBC batch insert for status logs, see {@link ClaimSlipRepositoryImpl},
+ * the streaming export query, see {@link RequestsRepositoryImpl}, and the
+ * primary-key-range moves of the retention purge.
+ */
+class RequestStatusLogRepositoryImpl implements RequestStatusLogRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO request_status_log (request_id, old_status, new_status, remarks, changed_by, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String EXPORT_SQL =
+            "SELECT l.log_id, l.request_id, l.old_status, l.new_status, l.remarks, " +
+            "l.changed_by, u.name, l.changed_at " +
+            "FROM request_status_log l " +
+            "LEFT JOIN users u ON u.user_id = l.changed_by";
+
+    // Same archive year as RequestArchiveRepositoryImpl gives the request.
+    // IGNORE skips logs another node copied first; that node deletes them.
+    private static final String ARCHIVE_SQL =
+            "INSERT IGNORE INTO request_status_log_archive " +
+            "(archive_year, log_id, request_id, old_status, new_status, remarks, changed_by, changed_at) " +
+            "SELECT YEAR(COALESCE(r.created_at, r.updated_at)), l.log_id, l.request_id, l.old_status, " +
+            "l.new_status, l.remarks, l.changed_by, l.changed_at " +
+            "FROM request_status_log l JOIN requests r ON r.request_id = l.request_id " +
+            "WHERE l.log_id >= ? AND l.log_id < ? AND l.changed_at < ?";
+
+    private static final String DELETE_ARCHIVED_SQL =
+            "DELETE FROM request_status_log " +
+            "WHERE log_id >= ? AND log_id < ? AND changed_at < ? " +
+            "AND EXISTS (SELECT 1 FROM requests r WHERE r.request_id = request_status_log.request_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    RequestStatusLogRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${citedocs.export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void insertAll(List<RequestStatusLogEntity> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setLong(1, log.getRequestId());
+            ps.setString(2, log.getOldStatus());
+            ps.setString(3, log.getNewStatus());
+            ps.setString(4, log.getRemarks());
+            ps.setInt(5, log.getChangedBy());
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    @Override
+    public void streamForExport(LocalDateTime from, LocalDateTime to, Consumer<Object[]> rowHandler) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>();
+        sql.append(" WHERE 1 = 1");
+        if (from != null) {
+            sql.append(" AND l.changed_at >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND l.changed_at < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY l.changed_at, l.log_id");
+
+        streamingJdbcTemplate.query(sql.toString(), rs -> {
+            rowHandler.accept(new Object[] {
+                    rs.getInt(1),
+                    rs.getLong(2),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getInt(6),
+                    rs.getString(7),
+                    rs.getObject(8, LocalDateTime.class)
+            });
+        }, params.toArray());
+    }
+
+    @Override
+    public Head findHead(long fromId) {
+        List<Head> heads = jdbcTemplate.query(
+                "SELECT log_id, changed_at FROM request_status_log " +
+                "WHERE log_id >= ? ORDER BY log_id LIMIT 1",
+                (rs, rowNum) -> new Head(rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))),
+                fromId);
+        return heads.isEmpty() ? null : heads.get(0);
+    }
+
+    @Override
+    public int archiveBefore(long fromId, long toId, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        int copied = jdbcTemplate.update(ARCHIVE_SQL, fromId, toId, before);
+        if (copied == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(DELETE_ARCHIVED_SQL, fromId, toId, before);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
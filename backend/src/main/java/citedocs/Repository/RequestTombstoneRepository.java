@@ -0,0 +1,24 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import citedocs.Entity.RequestTombstoneEntity;
+
+public interface RequestTombstoneRepository extends JpaRepository<RequestTombstoneEntity, Long> {
+
+    // Deletions after the (deletedAt, requestId) watermark, oldest first
+    @Query("SELECT t FROM RequestTombstoneEntity t " +
+           "WHERE (t.deletedAt > :afterTime OR (t.deletedAt = :afterTime AND t.requestId > :afterId)) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "ORDER BY t.deletedAt ASC, t.requestId ASC")
+    List<RequestTombstoneEntity> findDeletedAfter(@Param("afterTime") LocalDateTime afterTime,
+                                                  @Param("afterId") Long afterId,
+                                                  @Param("userId") Long userId,
+                                                  Pageable pageable);
+}
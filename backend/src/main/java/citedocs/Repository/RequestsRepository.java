@@ -1,11 +1,126 @@
 package citedocs.Repository;
 
 
+import citedocs.DTO.RequestCountRow;
+import citedocs.DTO.RequestStatusSnapshot;
+import citedocs.DTO.RequestSummaryDTO;
 import citedocs.Entity.RequestsEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
 
-public interface RequestsRepository extends JpaRepository<RequestsEntity, Long> {
+
+public interface RequestsRepository extends JpaRepository<RequestsEntity, Long>, RequestsRepositoryCustom {
     List<RequestsEntity> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Request list rows as constructor projections: document and student are
+    // joined in, no entities are loaded, and proofOfPayment is filled in
+    // afterwards with one batched query.
+    String SUMMARY_SELECT =
+            "SELECT new citedocs.DTO.RequestSummaryDTO(r.requestId, r.userId, u.name, u.sid, " +
+            "d.documentId, d.name, r.status, r.copies, r.dateNeeded, r.dateReady, r.createdAt, r.updatedAt) " +
+            "FROM RequestsEntity r JOIN r.document d LEFT JOIN UserEntity u ON u.uid = r.userId ";
+
+    @Query(SUMMARY_SELECT)
+    List<RequestSummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId")
+    List<RequestSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE r.requestId = :id")
+    Optional<RequestSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE r.requestId IN :ids")
+    List<RequestSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Delta sync: rows written after the (updatedAt, requestId) watermark, oldest first
+    @Query(SUMMARY_SELECT +
+           "WHERE (r.updatedAt > :afterUpdatedAt " +
+           "       OR (r.updatedAt = :afterUpdatedAt AND r.requestId > :afterId)) " +
+           "AND (:userId IS NULL OR r.userId = :userId) " +
+           "ORDER BY r.updatedAt ASC, r.requestId ASC")
+    List<RequestSummaryDTO> findChangedAfter(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                             @Param("afterId") Long afterId,
+                                             @Param("userId") Long userId,
+                                             Pageable pageable);
+
+    // Batched read for bulk status changes; rows stay locked until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RequestsEntity r WHERE r.requestId IN :ids")
+    List<RequestsEntity> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Open requests nobody holds a live lease on, most urgent first, after the
+    // (claimPriority, requestId) of the last candidate tried. claim_priority is
+    // NULL for closed requests, so this is a range read of idx_requests_claim
+    // in index order with no sort and no locks.
+    // Rows are (requestId, claimPriority)
+    @Query("SELECT r.requestId, r.claimPriority FROM RequestsEntity r " +
+           "WHERE r.claimPriority IS NOT NULL " +
+           "AND (r.leaseExpiresAt IS NULL OR r.leaseExpiresAt < :now) " +
+           "AND (r.claimPriority > :afterPriority " +
+           "OR (r.claimPriority = :afterPriority AND r.requestId > :afterId)) " +
+           "ORDER BY r.claimPriority, r.requestId")
+    List<Object[]> findClaimCandidates(@Param("now") LocalDateTime now,
+                                       @Param("afterPriority") Long afterPriority,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // Takes the lease only if the request is still open and unclaimed; a
+    // registrar who lost the race to another gets 0 and tries the next one
+    @Modifying
+    @Query("UPDATE RequestsEntity r SET r.assignedTo = :assignee, r.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE r.requestId = :id AND r.claimPriority IS NOT NULL " +
+           "AND (r.leaseExpiresAt IS NULL OR r.leaseExpiresAt < :now)")
+    int assignIfClaimable(@Param("id") Long id,
+                          @Param("assignee") Integer assignee,
+                          @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                          @Param("now") LocalDateTime now);
+
+    // Only the current holder can release; once someone else claims the row it is theirs
+    @Modifying
+    @Query("UPDATE RequestsEntity r SET r.assignedTo = NULL, r.leaseExpiresAt = NULL " +
+           "WHERE r.requestId = :id AND r.assignedTo = :assignee")
+    int release(@Param("id") Long id, @Param("assignee") Integer assignee);
+
+    @Query("SELECT new citedocs.DTO.RequestStatusSnapshot(r.requestId, r.userId, r.status, r.dateReady, " +
+           "r.dateNeeded, r.createdAt) " +
+           "FROM RequestsEntity r WHERE r.requestId = :id")
+    Optional<RequestStatusSnapshot> findStatusSnapshot(@Param("id") Long id);
+
+    // Compare-and-set: only applies if the status is still the one the caller read.
+    // Bulk updates skip @PreUpdate, so the caller passes the new claim priority.
+    @Modifying
+    @Query("UPDATE RequestsEntity r SET r.status = :newStatus, r.dateReady = :dateReady, r.updatedAt = :now, " +
+           "r.claimPriority = :claimPriority " +
+           "WHERE r.requestId = :id AND r.status = :expectedStatus")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expectedStatus") RequestsEntity.Status expectedStatus,
+                            @Param("newStatus") RequestsEntity.Status newStatus,
+                            @Param("dateReady") LocalDateTime dateReady,
+                            @Param("claimPriority") Long claimPriority,
+                            @Param("now") LocalDateTime now);
+
+    // (requestId, status, dateNeeded, createdAt, claimPriority) rows for the in-memory work queue
+    @Query("SELECT r.requestId, r.status, r.dateNeeded, r.createdAt, r.claimPriority FROM RequestsEntity r " +
+           "WHERE r.status IN :statuses")
+    List<Object[]> findQueueRows(@Param("statuses") Collection<RequestsEntity.Status> statuses);
+
+    @Query("SELECT r.requestId, r.status, r.dateNeeded, r.createdAt FROM RequestsEntity r " +
+           "WHERE r.requestId IN :ids")
+    List<Object[]> findQueueRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Source of truth for the in-memory request statistics
+    @Query("SELECT new citedocs.DTO.RequestCountRow(r.userId, r.status, d.name, COUNT(r)) " +
+           "FROM RequestsEntity r LEFT JOIN r.document d " +
+           "GROUP BY r.userId, r.status, d.name")
+    List<RequestCountRow> countByUserStatusAndDocument();
+}
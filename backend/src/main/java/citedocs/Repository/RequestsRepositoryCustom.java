@@ -0,0 +1,32 @@
+package citedocs.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.RequestsEntity;
+
+public interface RequestsRepositoryCustom {
+
+    // Keyset page, newest first. Null parameters disable their filter and are
+    // left out of the query; the cursor condition resumes strictly after
+    // (afterCreatedAt, afterId).
+    List<RequestSummaryDTO> findPage(RequestsEntity.Status status,
+                                     Long documentId,
+                                     Long userId,
+                                     LocalDate dateNeededFrom,
+                                     LocalDate dateNeededTo,
+                                     LocalDateTime afterCreatedAt,
+                                     Long afterId,
+                                     int limit);
+
+    // Writes {claimPriority, requestId, status} rows as one JDBC batch; a row
+    // whose status has changed since it was read is left alone
+    void updateClaimPriorities(List<Object[]> rows);
+
+    // Streams export rows created in [from, to) in (created_at, request_id) order.
+    // Values follow ExportService.REQUEST_COLUMNS; null bounds are open.
+    void streamForExport(LocalDateTime from, LocalDateTime to, Consumer<Object[]> rowHandler);
+}
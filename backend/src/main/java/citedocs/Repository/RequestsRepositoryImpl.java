@@ -0,0 +1,147 @@
+package citedocs.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.RequestsEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Filtered request page and forward-only export query.
+ *
+ * The page query is assembled from the filters actually given, so MySQL
+ * plans each combination on its own and can pick the matching
+ * (filter, created_at, request_id) index; a single statement with
+ * "(:x IS NULL OR col = :x)" guards is planned once for every combination
+ * and falls back to a full scan.
+ *
+ * The export fetch size defaults to Integer.MIN_VALUE, which makes MySQL
+ * Connector/J stream rows one at a time instead of buffering the whole
+ * result, so heap use does not grow with the export.
+ */
+class RequestsRepositoryImpl implements RequestsRepositoryCustom {
+
+    private static final String EXPORT_SQL =
+            "SELECT r.request_id, r.user_id, u.name, u.student_id, d.name, r.status, " +
+            "r.copies, r.date_needed, r.date_ready, r.created_at, r.updated_at " +
+            "FROM requests r " +
+            "JOIN documents d ON d.document_id = r.document_id " +
+            "LEFT JOIN users u ON u.user_id = r.user_id";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    RequestsRepositoryImpl(EntityManager entityManager,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${citedocs.export.fetch-size:-2147483648}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public List<RequestSummaryDTO> findPage(RequestsEntity.Status status,
+                                            Long documentId,
+                                            Long userId,
+                                            LocalDate dateNeededFrom,
+                                            LocalDate dateNeededTo,
+                                            LocalDateTime afterCreatedAt,
+                                            Long afterId,
+                                            int limit) {
+        StringBuilder jpql = new StringBuilder(RequestsRepository.SUMMARY_SELECT);
+        Map<String, Object> params = new LinkedHashMap<>();
+        jpql.append("WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND r.status = :status");
+            params.put("status", status);
+        }
+        if (documentId != null) {
+            jpql.append(" AND d.documentId = :documentId");
+            params.put("documentId", documentId);
+        }
+        if (userId != null) {
+            jpql.append(" AND r.userId = :userId");
+            params.put("userId", userId);
+        }
+        if (dateNeededFrom != null) {
+            jpql.append(" AND r.dateNeeded >= :dateNeededFrom");
+            params.put("dateNeededFrom", dateNeededFrom);
+        }
+        if (dateNeededTo != null) {
+            jpql.append(" AND r.dateNeeded <= :dateNeededTo");
+            params.put("dateNeededTo", dateNeededTo);
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (r.createdAt < :afterCreatedAt" +
+                        " OR (r.createdAt = :afterCreatedAt AND r.requestId < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY r.createdAt DESC, r.requestId DESC");
+
+        TypedQuery<RequestSummaryDTO> query = entityManager.createQuery(jpql.toString(), RequestSummaryDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public void updateClaimPriorities(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE requests SET claim_priority = ? WHERE request_id = ? AND status = ?",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                    ps.setString(3, row[2].toString());
+                });
+    }
+
+    @Override
+    public void streamForExport(LocalDateTime from, LocalDateTime to, Consumer<Object[]> rowHandler) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>();
+        sql.append(" WHERE 1 = 1");
+        if (from != null) {
+            sql.append(" AND r.created_at >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND r.created_at < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY r.created_at, r.request_id");
+
+        streamingJdbcTemplate.query(sql.toString(), rs -> {
+            rowHandler.accept(new Object[] {
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getString(6),
+                    rs.getInt(7),
+                    rs.getObject(8, LocalDate.class),
+                    getDateTime(rs, 9),
+                    getDateTime(rs, 10),
+                    getDateTime(rs, 11)
+            });
+        }, params.toArray());
+    }
+
+    private static LocalDateTime getDateTime(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class);
+    }
+}
@@ -0,0 +1,29 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import citedocs.Entity.RetentionMarkEntity;
+
+@Repository
+public interface RetentionMarkRepository extends JpaRepository<RetentionMarkEntity, String> {
+
+    // Moves the walk's resume point up to nextId, never back, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO retention_marks (name, next_id) VALUES (:name, :nextId) " +
+                   "ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id))",
+           nativeQuery = true)
+    int advance(@Param("name") String name, @Param("nextId") long nextId);
+
+    // Records a completed walk from the start of the table
+    @Modifying
+    @Query(value = "INSERT INTO retention_marks (name, next_id, swept_at) VALUES (:name, 0, :sweptAt) " +
+                   "ON DUPLICATE KEY UPDATE swept_at = VALUES(swept_at)",
+           nativeQuery = true)
+    int markSwept(@Param("name") String name, @Param("sweptAt") LocalDateTime sweptAt);
+}
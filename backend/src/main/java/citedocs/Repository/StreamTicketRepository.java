@@ -0,0 +1,22 @@
+package citedocs.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import citedocs.Entity.StreamTicketEntity;
+
+public interface StreamTicketRepository extends JpaRepository<StreamTicketEntity, String> {
+
+    // Only one of two concurrent redemptions deletes the row; the other gets 0
+    @Modifying
+    @Query("DELETE FROM StreamTicketEntity t WHERE t.ticketHash = :ticketHash AND t.expiresAt > :now")
+    int redeem(@Param("ticketHash") String ticketHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM stream_tickets WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,8 +1,11 @@
 package citedocs.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import citedocs.Entity.UserEntity;
@@ -15,4 +18,8 @@ public interface UserRepository extends JpaRepository<UserEntity, Integer> {
 
     // ⭐ Added for registrar lookup
     List<UserEntity> findByRole(UserEntity.Role role);
+
+    // One user's role, for RegistrarRoster
+    @Query("SELECT u.role FROM UserEntity u WHERE u.uid = :userId")
+    Optional<UserEntity.Role> findRoleById(@Param("userId") int userId);
 }
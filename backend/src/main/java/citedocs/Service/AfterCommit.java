@@ -0,0 +1,27 @@
+package citedocs.Service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects (caches, queues, streams) only once the
+ * database change they mirror is committed, so a rollback never leaves them
+ * ahead of the database. Outside a transaction the action runs right away.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -12,9 +12,11 @@ import citedocs.Repository.UserRepository;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final RegistrarRoster registrarRoster;
 
-    public AuthService(UserRepository userRepository) {
+    public AuthService(UserRepository userRepository, RegistrarRoster registrarRoster) {
         this.userRepository = userRepository;
+        this.registrarRoster = registrarRoster;
     }
 
     // ========================================================
@@ -65,6 +67,7 @@ public class AuthService {
         }
 
         // --- 3. Save user ---
+        registrarRoster.invalidate();
         return userRepository.save(newUser);
     }
 }
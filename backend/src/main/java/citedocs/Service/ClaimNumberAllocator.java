@@ -0,0 +1,103 @@
+package citedocs.Service;
+
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.Entity.ClaimNumberSequenceEntity;
+import citedocs.Repository.ClaimNumberSequenceRepository;
+import citedocs.Repository.ClaimSlipRepository;
+
+/**
+ * Issues claim numbers (REQ-YYYY-NNN) from a per-year sequence.
+ *
+ * Each node reserves a block of numbers at a time by advancing the year's
+ * row in claim_number_sequences under a row lock, in its own short
+ * transaction, and then hands numbers out from memory. Issuing a number
+ * normally needs no database round trip, blocks never overlap across nodes,
+ * and numbering restarts every year. Numbers left in a block when a node
+ * stops are skipped, so the sequence can have gaps.
+ *
+ * A year's row starts after the highest number already issued for that
+ * year. Before this sequence existed the number was the request id, so the
+ * year the sequence was introduced continues above those numbers; every
+ * later year starts at 1.
+ */
+@Component
+public class ClaimNumberAllocator {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final ClaimNumberSequenceRepository sequenceRepository;
+    private final ClaimSlipRepository claimSlipRepository;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+
+    // year -> {next, limit} of the block this node currently holds
+    private final Map<Integer, long[]> blocks = new HashMap<>();
+
+    public ClaimNumberAllocator(ClaimNumberSequenceRepository sequenceRepository,
+                                ClaimSlipRepository claimSlipRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${citedocs.claim-numbers.block-size:50}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.claimSlipRepository = claimSlipRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public String nextClaimNumber() {
+        return nextClaimNumber(Year.now().getValue());
+    }
+
+    String nextClaimNumber(int year) {
+        return String.format("REQ-%d-%03d", year, next(year));
+    }
+
+    private synchronized long next(int year) {
+        long[] block = blocks.get(year);
+        if (block == null || block[0] >= block[1]) {
+            long start = reserveBlock(year);
+            block = new long[] { start, start + blockSize };
+            blocks.put(year, block);
+        }
+        return block[0]++;
+    }
+
+    private long reserveBlock(int year) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return requiresNew.execute(status -> reserveBlockInTransaction(year));
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException ex) {
+                // Another node created the year's row first (it exists now), or
+                // the row lock was a deadlock victim or timed out; the
+                // transaction rolled back, so try again
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private long reserveBlockInTransaction(int year) {
+        ClaimNumberSequenceEntity sequence = sequenceRepository.findForUpdate(year)
+                .orElseGet(() -> {
+                    sequenceRepository.insert(year, claimSlipRepository.findLastIssuedNumber(year) + 1);
+                    return sequenceRepository.findForUpdate(year).orElseThrow();
+                });
+
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        sequenceRepository.save(sequence);
+        return start;
+    }
+}
@@ -0,0 +1,138 @@
+package citedocs.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Repository.DocumentsRepository;
+
+/**
+ * Immutable in-memory copy of the document catalog.
+ *
+ * The snapshot is loaded at startup, replaced atomically after every
+ * committed write through {@link DocumentsService}, and refreshed
+ * periodically to pick up changes made on other nodes. Readers never touch
+ * the database and never see a half-built catalog.
+ */
+@Component
+public class DocumentCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentCatalog.class);
+
+    /**
+     * One version of the catalog. The documents in it are never modified
+     * after publication; {@link #copyOf(Long)} hands out detached copies.
+     */
+    public record Snapshot(long version, List<DocumentsEntity> documents,
+                           Map<Long, DocumentsEntity> byId, String etag) {}
+
+    private final DocumentsRepository documentsRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public DocumentCatalog(DocumentsRepository documentsRepository) {
+        this.documentsRepository = documentsRepository;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Detached copy of a catalog document, usable as a @ManyToOne reference
+     * when saving a request without loading the document.
+     */
+    public Optional<DocumentsEntity> copyOf(Long documentId) {
+        DocumentsEntity document = snapshot().byId().get(documentId);
+        if (document == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(detachedCopy(document));
+    }
+
+    /**
+     * Reloads the snapshot after the current transaction commits, or right
+     * away when called outside a transaction.
+     */
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${citedocs.documents.refresh-interval-ms:60000}",
+               fixedDelayString = "${citedocs.documents.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh document catalog; keeping the current snapshot", ex);
+        }
+    }
+
+    // Serialized so concurrent reloads publish in the order they read
+    public synchronized Snapshot reload() {
+        List<DocumentsEntity> documents = documentsRepository.findAll(Sort.by("documentId")).stream()
+                .map(DocumentCatalog::detachedCopy)
+                .toList();
+
+        Map<Long, DocumentsEntity> byId = new LinkedHashMap<>();
+        documents.forEach(document -> byId.put(document.getDocumentId(), document));
+
+        String etag = etagOf(documents);
+        Snapshot previous = snapshot.get();
+        if (previous != null && previous.etag().equals(etag)) {
+            return previous;
+        }
+
+        Snapshot next = new Snapshot(previous != null ? previous.version() + 1 : 1,
+                documents, Map.copyOf(byId), etag);
+        snapshot.set(next);
+        return next;
+    }
+
+    private static DocumentsEntity detachedCopy(DocumentsEntity document) {
+        DocumentsEntity copy = new DocumentsEntity();
+        copy.setDocumentId(document.getDocumentId());
+        copy.setName(document.getName());
+        copy.setDescription(document.getDescription());
+        return copy;
+    }
+
+    // Strong ETag derived from the content, so every node agrees on it
+    private static String etagOf(List<DocumentsEntity> documents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (DocumentsEntity document : documents) {
+                digest.update(String.valueOf(document.getDocumentId()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(document.getName()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(document.getDescription()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 1);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
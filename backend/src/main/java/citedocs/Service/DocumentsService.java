@@ -1,8 +1,7 @@
 package citedocs.Service;
 
-import java.util.List;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import citedocs.Entity.DocumentsEntity;
@@ -14,18 +13,22 @@ import citedocs.Repository.DocumentsRepository;
 public class DocumentsService {
 
     private final DocumentsRepository documentsRepository;
+    private final DocumentCatalog documentCatalog;
 
-    public DocumentsService(DocumentsRepository documentsRepository) {
+    public DocumentsService(DocumentsRepository documentsRepository, DocumentCatalog documentCatalog) {
         this.documentsRepository = documentsRepository;
+        this.documentCatalog = documentCatalog;
     }
 
     public DocumentsEntity create(DocumentsEntity doc) {
+        documentCatalog.reloadAfterCommit();
         return documentsRepository.save(doc);
     }
 
-    @Transactional(readOnly = true)
-    public List<DocumentsEntity> findAll() {
-        return documentsRepository.findAll();
+    // Served from the in-memory catalog; no transaction or connection needed
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DocumentCatalog.Snapshot findAll() {
+        return documentCatalog.snapshot();
     }
 
     @Transactional(readOnly = true)
@@ -38,11 +41,13 @@ public class DocumentsService {
         DocumentsEntity existing = findById(id);
         existing.setName(payload.getName());
         existing.setDescription(payload.getDescription());
+        documentCatalog.reloadAfterCommit();
         return documentsRepository.save(existing);
     }
 
     public void delete(Long id) {
         DocumentsEntity existing = findById(id);
+        documentCatalog.reloadAfterCommit();
         documentsRepository.delete(existing);
     }
 }
\ No newline at end of file
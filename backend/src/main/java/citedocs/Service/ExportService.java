@@ -0,0 +1,116 @@
+package citedocs.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.DTO.ExportFormat;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestsRepository;
+
+/**
+ * Streams requests and status logs as CSV or NDJSON for audits.
+ *
+ * Rows go straight from a forward-only JDBC cursor to the response through
+ * a small buffer, so an export of any size runs in constant heap and the
+ * first bytes are sent as soon as the query starts returning rows.
+ */
+@Service
+public class ExportService {
+
+    public static final List<String> REQUEST_COLUMNS = List.of(
+            "request_id", "user_id", "student_name", "student_id", "document", "status",
+            "copies", "date_needed", "date_ready", "created_at", "updated_at");
+
+    public static final List<String> STATUS_LOG_COLUMNS = List.of(
+            "log_id", "request_id", "old_status", "new_status", "remarks",
+            "changed_by", "changed_by_name", "changed_at");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RequestsRepository requestsRepository;
+    private final RequestStatusLogRepository requestStatusLogRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(RequestsRepository requestsRepository,
+                         RequestStatusLogRepository requestStatusLogRepository,
+                         ObjectMapper objectMapper) {
+        this.requestsRepository = requestsRepository;
+        this.requestStatusLogRepository = requestStatusLogRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Requests created between from and to, both dates inclusive
+    public ResponseEntity<StreamingResponseBody> exportRequests(String format, LocalDate from, LocalDate to,
+                                                                boolean gzip) {
+        return export("requests", format, gzip, REQUEST_COLUMNS, handler ->
+                requestsRepository.streamForExport(startOf(from), endOf(to), handler));
+    }
+
+    // Status changes made between from and to, both dates inclusive
+    public ResponseEntity<StreamingResponseBody> exportStatusLogs(String format, LocalDate from, LocalDate to,
+                                                                  boolean gzip) {
+        return export("request-status-logs", format, gzip, STATUS_LOG_COLUMNS, handler ->
+                requestStatusLogRepository.streamForExport(startOf(from), endOf(to), handler));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, String formatKey, boolean gzip,
+                                                         List<String> columns,
+                                                         Consumer<Consumer<Object[]>> source) {
+        ExportFormat format = ExportFormat.fromString(formatKey);
+
+        StreamingResponseBody body = out -> {
+            // syncFlush: flush() pushes the compressed bytes so far to the
+            // client instead of leaving them in the deflater
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : out;
+            OutputStream buffered = new BufferedOutputStream(target, BUFFER_SIZE);
+
+            ExportWriter writer = ExportWriter.create(format, columns, buffered, objectMapper);
+            writer.writeHeader();
+            writer.flush();
+
+            try {
+                source.accept(writer::writeRowUnchecked);
+            } catch (UncheckedIOException ex) {
+                // Client went away mid-download
+                throw ex.getCause();
+            }
+
+            writer.finish();
+            buffered.flush();
+            if (target instanceof GZIPOutputStream zipped)
+                zipped.finish();
+        };
+
+        String filename = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                                  : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -0,0 +1,145 @@
+package citedocs.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.DTO.ExportFormat;
+
+/**
+ * Writes export rows one at a time; nothing is kept once a row is written.
+ */
+abstract class ExportWriter {
+
+    protected final List<String> columns;
+
+    protected ExportWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    static ExportWriter create(ExportFormat format, List<String> columns, OutputStream out,
+                               ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(columns, out);
+            case NDJSON -> new Ndjson(columns, out, objectMapper);
+        };
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(Object[] values) throws IOException;
+
+    abstract void flush() throws IOException;
+
+    void finish() throws IOException {
+        flush();
+    }
+
+    // Row handlers run inside JDBC callbacks, which cannot throw IOException
+    void writeRowUnchecked(Object[] values) {
+        try {
+            writeRow(values);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Csv extends ExportWriter {
+        private final Writer writer;
+
+        Csv(List<String> columns, OutputStream out) {
+            super(columns);
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    writer.write(',');
+                if (values[i] != null)
+                    writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(Object value) {
+            String text = value.toString();
+            if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                // Keep spreadsheet apps from evaluating free text as a formula
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+
+    private static final class Ndjson extends ExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(List<String> columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        void writeHeader() {
+            // Every line carries its own field names
+        }
+
+        @Override
+        void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (generator.getOutputContext().getEntryCount() > 0)
+                generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package citedocs.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.Entity.IdempotencyKeyEntity;
+import citedocs.Exception.ConflictException;
+import citedocs.Repository.IdempotencyKeyRepository;
+
+/**
+ * Makes POST endpoints safe to retry with an Idempotency-Key header.
+ *
+ * The first attempt claims the key by inserting a row in idempotency_keys
+ * in its own transaction, then runs the action and stores the serialized
+ * response on that row in the action's transaction, so the two commit or
+ * roll back together. A retry with the same key replays the stored JSON
+ * without running the action again; a retry while the first attempt is
+ * still running gets a 409. Completed responses are also kept in a bounded
+ * LRU cache so most replays on the same node skip the database. Keys expire
+ * after the configured TTL and are purged in the background.
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private record StoredResponse(String fingerprint, String body, LocalDateTime expiresAt) {}
+
+    // Either this attempt now owns the key, or an earlier one already finished
+    private record Claim(LocalDateTime claimedAt, StoredResponse completed) {}
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Map<String, StoredResponse> cache;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${citedocs.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${citedocs.idempotency.in-progress-timeout-seconds:120}") long inProgressTimeoutSeconds,
+                              @Value("${citedocs.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs the action once per (scope, key). Without a key the action just
+     * runs. The request body is fingerprinted so a key reused for a
+     * different request is rejected instead of replaying the wrong response.
+     *
+     * @param key    value of the Idempotency-Key header, may be null
+     * @param scope  endpoint and caller the key belongs to
+     * @param body   what the client sent, used for the fingerprint
+     * @param action the work to do; runs inside a transaction
+     */
+    public ResponseEntity<Object> execute(String key, String scope, Object body, Supplier<?> action) {
+        if (!StringUtils.hasText(key)) {
+            return ResponseEntity.ok(action.get());
+        }
+
+        String keyHash = sha256(scope + "\n" + key.trim());
+        String fingerprint = sha256(toJson(body));
+
+        StoredResponse cached = cached(keyHash);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+
+        Claim claim = claim(keyHash, fingerprint);
+        if (claim.completed() != null) {
+            return replay(claim.completed(), fingerprint);
+        }
+        LocalDateTime claimedAt = claim.claimedAt();
+
+        Object[] result = new Object[1];
+        try {
+            String responseBody = transactionTemplate.execute(status -> {
+                result[0] = action.get();
+                String json = toJson(result[0]);
+                repository.complete(keyHash, json, IdempotencyKeyEntity.Status.COMPLETED);
+                return json;
+            });
+            remember(keyHash, new StoredResponse(fingerprint, responseBody, claimedAt.plus(ttl)));
+        } catch (RuntimeException ex) {
+            // Nothing was committed; let the client retry with the same key
+            requiresNew.executeWithoutResult(status -> repository.deleteClaim(keyHash, claimedAt));
+            throw ex;
+        }
+
+        return ResponseEntity.ok(result[0]);
+    }
+
+    // Deletes expired keys a batch at a time so the purge never holds long locks
+    @Scheduled(fixedDelayString = "${citedocs.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = requiresNew.execute(status -> repository.deleteExpired(now, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+
+        synchronized (cache) {
+            cache.values().removeIf(stored -> stored.expiresAt().isBefore(now));
+        }
+
+        if (total > 0) {
+            log.debug("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    /**
+     * Inserts the claim row. If the key is already taken, a completed
+     * response is returned for replay and a running attempt is a conflict.
+     * Expired keys and claims abandoned by a crashed attempt are taken over.
+     */
+    private Claim claim(String keyHash, String fingerprint) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            try {
+                requiresNew.executeWithoutResult(status ->
+                        repository.insertClaim(keyHash, fingerprint, now, now.plus(ttl)));
+                return new Claim(now, null);
+            } catch (DataIntegrityViolationException ex) {
+                IdempotencyKeyEntity existing = requiresNew.execute(status ->
+                        repository.findById(keyHash).orElse(null));
+                if (existing == null) {
+                    continue;
+                }
+
+                boolean expired = existing.getExpiresAt().isBefore(now);
+                if (!expired && existing.getStatus() == IdempotencyKeyEntity.Status.COMPLETED) {
+                    StoredResponse stored = new StoredResponse(existing.getFingerprint(),
+                            existing.getResponseBody(), existing.getExpiresAt());
+                    remember(keyHash, stored);
+                    return new Claim(null, stored);
+                }
+
+                boolean abandoned = existing.getStatus() == IdempotencyKeyEntity.Status.IN_PROGRESS
+                        && existing.getCreatedAt().plus(inProgressTimeout).isBefore(now);
+                if (!expired && !abandoned) {
+                    throw new ConflictException("A request with this Idempotency-Key is still being processed");
+                }
+
+                requiresNew.executeWithoutResult(status ->
+                        repository.deleteClaim(keyHash, existing.getCreatedAt()));
+            }
+        }
+        throw new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private StoredResponse cached(String keyHash) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(keyHash);
+            if (stored != null && stored.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(keyHash);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(String keyHash, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(keyHash, stored);
+        }
+    }
+
+    private ResponseEntity<Object> replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new ConflictException("This Idempotency-Key was already used for a different request");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent response", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
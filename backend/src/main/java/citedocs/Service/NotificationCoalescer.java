@@ -0,0 +1,187 @@
+package citedocs.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationReadMarkEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.NotificationReadMarkRepository;
+import citedocs.Repository.NotificationRepository;
+
+/**
+ * Merges notifications of the same kind for the same recipient into one
+ * digest row while its window is open, e.g. "37 new requests for
+ * Transcript of Records" instead of 37 rows. Applied by
+ * {@link NotificationWriter} in its write transaction.
+ *
+ * The first notification of a window is written as usual. Later ones, up
+ * to window-seconds after it, update that row in place: it becomes a
+ * REQUEST_DIGEST and its count grows, keeping its id and position in the
+ * list. Every request a digest counts is recorded in
+ * notification_digest_requests. A digest stops taking merges once any of
+ * its recipients has read it, through its flag or their read mark, so later
+ * notifications start a new, unread row instead of growing one already read.
+ */
+@Component
+public class NotificationCoalescer {
+
+    /**
+     * Rows to insert, new digests with the notifications they replace (whose
+     * requests are recorded once the digest has an id), and existing digests
+     * updated in place.
+     */
+    public record Result(List<NotificationEntity> inserts,
+                         Map<NotificationEntity, List<NotificationEntity>> newDigests,
+                         List<NotificationEntity> updated,
+                         int merged) {}
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadMarkRepository readMarkRepository;
+    private final RegistrarRoster registrarRoster;
+    private final long windowSeconds;
+
+    public NotificationCoalescer(NotificationRepository notificationRepository,
+                                 NotificationReadMarkRepository readMarkRepository,
+                                 RegistrarRoster registrarRoster,
+                                 @Value("${citedocs.notifications.digest.window-seconds:600}") long windowSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.readMarkRepository = readMarkRepository;
+        this.registrarRoster = registrarRoster;
+        this.windowSeconds = windowSeconds;
+    }
+
+    public Result coalesce(List<NotificationEntity> batch) {
+        if (windowSeconds <= 0) {
+            return new Result(batch, Map.of(), List.of(), 0);
+        }
+
+        List<NotificationEntity> inserts = new ArrayList<>();
+        Map<List<Object>, List<NotificationEntity>> groups = new LinkedHashMap<>();
+        for (NotificationEntity notification : batch) {
+            String digestKey = digestKey(notification);
+            if (digestKey == null) {
+                inserts.add(notification);
+                continue;
+            }
+            notification.setDigestKey(digestKey);
+            groups.computeIfAbsent(Arrays.asList(digestKey, notification.getUserId(), notification.getRole()),
+                    key -> new ArrayList<>()).add(notification);
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusSeconds(windowSeconds);
+        Map<NotificationEntity, List<NotificationEntity>> newDigests = new LinkedHashMap<>();
+        List<NotificationEntity> updated = new ArrayList<>();
+        int merged = 0;
+        for (List<NotificationEntity> group : groups.values()) {
+            NotificationEntity first = group.get(0);
+            List<Integer> requestIds = new ArrayList<>();
+            group.forEach(notification -> requestIds.add(notification.getRequestId()));
+
+            NotificationEntity open = notificationRepository.findOpenDigest(first.getDigestKey(),
+                            first.getUserId(), first.getRole(), since, PageRequest.of(0, 1))
+                    .stream().findFirst().filter(candidate -> !isRead(candidate)).orElse(null);
+
+            if (open != null) {
+                if (open.getTemplate() != NotificationTemplate.REQUEST_DIGEST) {
+                    requestIds.add(0, open.getRequestId());
+                }
+                toDigest(open, countOf(open) + group.size(), first);
+                notificationRepository.insertDigestRequests(open.getNotificationId(), requestIds);
+                // The merged notifications are now part of the digest
+                group.forEach(notification -> notification.setNotificationId(open.getNotificationId()));
+                updated.add(open);
+                merged += group.size();
+            } else if (group.size() == 1) {
+                inserts.add(first);
+            } else {
+                NotificationEntity digest = new NotificationEntity();
+                digest.setUserId(first.getUserId());
+                digest.setRole(first.getRole());
+                digest.setRequestId(first.getRequestId());
+                digest.setIsRead(false);
+                digest.setDigestKey(first.getDigestKey());
+                toDigest(digest, group.size(), first);
+                inserts.add(digest);
+                newDigests.put(digest, group);
+                merged += group.size() - 1;
+            }
+        }
+        return new Result(inserts, newDigests, updated, merged);
+    }
+
+    /**
+     * Records the requests of digests created by coalesce, once inserted.
+     */
+    public void recordRequests(Result result) {
+        result.newDigests().forEach((digest, group) -> {
+            List<Integer> requestIds = new ArrayList<>();
+            for (NotificationEntity notification : group) {
+                requestIds.add(notification.getRequestId());
+                notification.setNotificationId(digest.getNotificationId());
+            }
+            notificationRepository.insertDigestRequests(digest.getNotificationId(), requestIds);
+        });
+    }
+
+    // Read by its recipient, or by anyone with the role of a broadcast
+    private boolean isRead(NotificationEntity notification) {
+        if (notification.getIsRead()) {
+            return true;
+        }
+        List<NotificationReadMarkEntity> marks;
+        if (notification.getRole() == null) {
+            marks = readMarkRepository.findAllById(List.of(notification.getUserId()));
+        } else if (notification.getRole() == UserEntity.Role.REGISTRAR) {
+            marks = readMarkRepository.findAllById(registrarRoster.registrarIds());
+        } else {
+            marks = readMarkRepository.findByUserRole(notification.getRole());
+        }
+        int id = notification.getNotificationId();
+        return marks.stream()
+                .anyMatch(mark -> notification.getRole() == null
+                        ? id <= mark.getReadThroughId()
+                        : mark.hasReadBroadcast(id));
+    }
+
+    // Only new-request notifications are coalesced, per document
+    private static String digestKey(NotificationEntity notification) {
+        if (notification.getTemplate() != NotificationTemplate.REQUEST_SUBMITTED) {
+            return null;
+        }
+        String key = NotificationTemplate.REQUEST_SUBMITTED.name() + ":" + documentName(notification);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static void toDigest(NotificationEntity digest, int count, NotificationEntity sample) {
+        digest.setMessage("");
+        digest.setTemplate(NotificationTemplate.REQUEST_DIGEST);
+        digest.setParams(NotificationTemplate.params(String.valueOf(count), documentName(sample)));
+    }
+
+    private static int countOf(NotificationEntity notification) {
+        if (notification.getTemplate() != NotificationTemplate.REQUEST_DIGEST) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(NotificationTemplate.param(NotificationTemplate.unpack(notification.getParams()), 0));
+        } catch (NumberFormatException ex) {
+            return 1;
+        }
+    }
+
+    private static String documentName(NotificationEntity notification) {
+        return NotificationTemplate.param(NotificationTemplate.unpack(notification.getParams()), 2);
+    }
+}
@@ -0,0 +1,353 @@
+package citedocs.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.NotificationRepository;
+
+/**
+ * Fans new notifications out to open Server-Sent Events connections on
+ * this node.
+ *
+ * Each connection has a bounded buffer that is drained on the stream
+ * executor, so a slow client never blocks the thread that published. A
+ * connection whose buffer overflows is closed; the browser reconnects with
+ * Last-Event-ID (the last notification id it saw) and the missed
+ * notifications are replayed from the database. When more than replay-limit
+ * were missed, a "reset" event tells the client to reload its list instead.
+ * Role broadcasts go to every open connection of a user with that role.
+ *
+ * Heartbeats are queued like events and written by the same drain, so the
+ * scheduler thread never waits on a socket. A connection stuck in one write
+ * for longer than stall-timeout-ms is dropped at the next heartbeat.
+ * Digests updated in place are sent as "update" events, without an event
+ * id, so they do not move the client's resume position. A digest only
+ * changes within the digest window after it was created, so on resume the
+ * digests created within one window before the resume point are re-sent
+ * as updates: any update the client missed is among them.
+ */
+@Component
+public class NotificationHub {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String RESET_EVENT = "reset";
+    static final String UPDATE_EVENT = "update";
+
+    // A buffered event; updates re-send a notification the client already has
+    private record Event(NotificationEntity notification, boolean update) {}
+
+    private final NotificationRepository notificationRepository;
+    private final RegistrarRoster registrarRoster;
+    private final ThreadPoolTaskExecutor executor;
+    private final int bufferSize;
+    private final int replayLimit;
+    private final long timeoutMs;
+    private final long stallTimeoutNanos;
+    private final long digestWindowSeconds;
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public NotificationHub(NotificationRepository notificationRepository,
+                           RegistrarRoster registrarRoster,
+                           @Qualifier("notificationStreamExecutor") ThreadPoolTaskExecutor executor,
+                           @Value("${citedocs.notifications.stream.buffer-size:64}") int bufferSize,
+                           @Value("${citedocs.notifications.stream.replay-limit:100}") int replayLimit,
+                           @Value("${citedocs.notifications.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${citedocs.notifications.stream.stall-timeout-ms:60000}") long stallTimeoutMs,
+                           @Value("${citedocs.notifications.digest.window-seconds:600}") long digestWindowSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.registrarRoster = registrarRoster;
+        this.executor = executor;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.replayLimit = Math.max(1, replayLimit);
+        this.timeoutMs = timeoutMs;
+        this.stallTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs);
+        this.digestWindowSeconds = digestWindowSeconds;
+    }
+
+    /**
+     * Opens a stream for a user. With a lastEventId, notifications created
+     * after it and digests that may have changed since are sent first.
+     */
+    public SseEmitter subscribe(int userId, Integer lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> remove(subscriber));
+
+        // Registered before the replay query so nothing committed in between
+        // is missed; the drain skips ids the replay already sent
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        try {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            subscriber.close();
+            return emitter;
+        }
+        subscriber.release();
+        return emitter;
+    }
+
+    /**
+     * Publishes notifications once the current transaction commits, or right
+     * away outside a transaction. Notifications without an id are skipped.
+     */
+    public void publishAfterCommit(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> publish(notifications, false));
+    }
+
+    /**
+     * Publishes notifications changed in place (digests) once the current
+     * transaction commits, as "update" events.
+     */
+    public void publishUpdatesAfterCommit(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> publish(notifications, true));
+    }
+
+    private void publish(List<NotificationEntity> notifications, boolean update) {
+        for (NotificationEntity notification : notifications) {
+            if (notification.getNotificationId() == 0) {
+                continue;
+            }
+            Event event = new Event(notification, update);
+            if (notification.getRole() != null) {
+                publishBroadcast(event);
+                continue;
+            }
+            Set<Subscriber> targets = subscribers.get(notification.getUserId());
+            if (targets != null) {
+                targets.forEach(subscriber -> subscriber.offer(event));
+            }
+        }
+    }
+
+    private void publishBroadcast(Event event) {
+        subscribers.forEach((userId, targets) -> {
+            if (registrarRoster.hasRole(userId, event.notification().getRole())) {
+                targets.forEach(subscriber -> subscriber.offer(event));
+            }
+        });
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects dropped ones.
+     * Only queues the keep-alive; the stream executor writes it.
+     */
+    @Scheduled(fixedDelayString = "${citedocs.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.heartbeat(now)));
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void replay(Subscriber subscriber, int lastEventId) throws IOException {
+        UserEntity.Role role = registrarRoster.roleOf(subscriber.userId);
+        List<NotificationEntity> changed = changedDigests(subscriber.userId, role, lastEventId);
+        List<NotificationEntity> missed = notificationRepository.findStreamBacklog(
+                subscriber.userId, role, lastEventId, PageRequest.of(0, replayLimit + 1));
+
+        if (changed == null || changed.size() + missed.size() > replayLimit) {
+            subscriber.write(SseEmitter.event().name(RESET_EVENT).data(""));
+            subscriber.lastSentId = missed.isEmpty()
+                    ? lastEventId
+                    : missed.get(missed.size() - 1).getNotificationId();
+            return;
+        }
+        for (NotificationEntity notification : changed) {
+            subscriber.sendUpdate(notification);
+        }
+        for (NotificationEntity notification : missed) {
+            subscriber.send(notification);
+        }
+    }
+
+    // Digests at or below lastEventId that may have been updated after the
+    // client saw it; null if the resume point is no longer known
+    private List<NotificationEntity> changedDigests(int userId, UserEntity.Role role, int lastEventId) {
+        if (digestWindowSeconds <= 0 || lastEventId <= 0) {
+            return List.of();
+        }
+        LocalDateTime resumedFrom = notificationRepository.findCreatedAt(lastEventId).orElse(null);
+        if (resumedFrom == null) {
+            return null;
+        }
+        return notificationRepository.findStreamRowsSince(userId, role, NotificationTemplate.REQUEST_DIGEST,
+                resumedFrom.minusSeconds(digestWindowSeconds), lastEventId, PageRequest.of(0, replayLimit + 1));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final int userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+
+        // Held by whoever is writing to the emitter; starts held by subscribe()
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private volatile boolean closed;
+        private volatile int lastSentId;
+        // System.nanoTime() when the write in progress started, 0 between writes
+        private volatile long writingSince;
+
+        private Subscriber(int userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Too far behind; the client catches up from the database on reconnect
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void release() {
+            draining.set(false);
+            if (hasWork()) {
+                scheduleDrain();
+            }
+        }
+
+        void heartbeat(long now) {
+            if (closed) {
+                return;
+            }
+            long since = writingSince;
+            if (since != 0 && now - since > stallTimeoutNanos) {
+                detach();
+                return;
+            }
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private boolean hasWork() {
+            return !buffer.isEmpty() || heartbeatDue.get();
+        }
+
+        private void scheduleDrain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException ex) {
+                // Executor is saturated; the next publish or heartbeat retries
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    Event next;
+                    while (!closed && (next = buffer.poll()) != null) {
+                        if (next.update()) {
+                            sendUpdate(next.notification());
+                        } else {
+                            send(next.notification());
+                        }
+                    }
+                    if (!closed && heartbeatDue.getAndSet(false)) {
+                        write(SseEmitter.event().comment("keep-alive"));
+                    }
+                    draining.set(false);
+                } while (!closed && hasWork() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException ex) {
+                close();
+            }
+        }
+
+        private void send(NotificationEntity notification) throws IOException {
+            int id = notification.getNotificationId();
+            if (id <= lastSentId) {
+                return;
+            }
+            write(SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(NOTIFICATION_EVENT)
+                    .data(notification, MediaType.APPLICATION_JSON));
+            lastSentId = id;
+        }
+
+        private void sendUpdate(NotificationEntity notification) throws IOException {
+            write(SseEmitter.event()
+                    .name(UPDATE_EVENT)
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            writingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writingSince = 0;
+            }
+        }
+
+        private void close() {
+            if (detach()) {
+                emitter.complete();
+            }
+        }
+
+        // Stops sending to this connection. A writer stuck on the socket
+        // holds the emitter's lock, so a stalled one is not completed here;
+        // its write fails or the emitter times out on its own.
+        private boolean detach() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            return true;
+        }
+    }
+}
@@ -1,45 +1,159 @@
 package citedocs.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import citedocs.DTO.CursorPage;
+import citedocs.DTO.KeysetCursor;
+import citedocs.DTO.NotificationWriterStatsDTO;
+import citedocs.DTO.UnreadCountDTO;
 import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationReadMarkEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import citedocs.Exception.ConflictException;
 import citedocs.Exception.ResourceNotFoundException;
+import citedocs.Repository.NotificationReadMarkRepository;
 import citedocs.Repository.NotificationRepository;
 
 @Service
 @Transactional
 public class NotificationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<NotificationEntity> NEWEST_FIRST =
+            Comparator.comparing(NotificationEntity::getCreatedAt)
+                    .thenComparing(NotificationEntity::getNotificationId)
+                    .reversed();
+
     private final NotificationRepository notificationRepository;
+    private final NotificationReadMarkRepository readMarkRepository;
+    private final NotificationHub notificationHub;
+    private final NotificationWriter notificationWriter;
+    private final UnreadCountCache unreadCountCache;
+    private final RegistrarRoster registrarRoster;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationReadMarkRepository readMarkRepository,
+                               NotificationHub notificationHub,
+                               NotificationWriter notificationWriter,
+                               UnreadCountCache unreadCountCache,
+                               RegistrarRoster registrarRoster) {
         this.notificationRepository = notificationRepository;
+        this.readMarkRepository = readMarkRepository;
+        this.notificationHub = notificationHub;
+        this.notificationWriter = notificationWriter;
+        this.unreadCountCache = unreadCountCache;
+        this.registrarRoster = registrarRoster;
     }
 
     public NotificationEntity create(NotificationEntity notification) {
-        return notificationRepository.save(notification);
+        NotificationEntity saved = notificationRepository.save(notification);
+        notificationWriter.announce(List.of(saved));
+        return saved;
     }
 
     /**
      * Convenience helper called by other services to create a notification.
+     * It is written by {@link NotificationWriter} after the caller's
+     * transaction commits; its id is populated once it has been written.
      *
      * @param userId recipient user id (int)
      * @param requestId related request id (Long) - converted to int for NotificationEntity
      * @param message message body
-     * @return saved notification
+     * @return the queued notification
      */
     public NotificationEntity sendNotification(int userId, Long requestId, String message) {
+        NotificationEntity notification = buildNotification(userId, requestId, message);
+        notificationWriter.enqueueAfterCommit(List.of(notification));
+        return notification;
+    }
+
+    /**
+     * Queues several notifications for {@link NotificationWriter}, which
+     * batches them with others once the caller's transaction commits and
+     * streams them to connected recipients. Ids are populated once written.
+     */
+    public void sendNotifications(List<NotificationEntity> notifications) {
+        notificationWriter.enqueueAfterCommit(notifications);
+    }
+
+    /**
+     * Writes notifications in the caller's transaction instead of queueing
+     * them, so they commit or roll back with it. For senders whose work is
+     * retried as a whole on failure, such as the outbox handlers.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void writeNotifications(List<NotificationEntity> notifications) {
+        notificationWriter.writeInTransaction(notifications);
+    }
+
+    public NotificationWriterStatsDTO writerStats() {
+        return notificationWriter.stats();
+    }
+
+    @Transactional(readOnly = true)
+    public UnreadCountDTO countUnread(int userId) {
+        return new UnreadCountDTO(userId, unreadCountCache.unreadCount(userId));
+    }
+
+    /**
+     * Opens a notification stream for a user, resuming after lastEventId
+     * when given.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter openStream(int userId, Integer lastEventId) {
+        return notificationHub.subscribe(userId, lastEventId);
+    }
+
+    /**
+     * Builds an unsaved, unread notification.
+     */
+    public NotificationEntity buildNotification(int userId, Long requestId, String message) {
         NotificationEntity notif = new NotificationEntity();
         notif.setUserId(userId);
         // convert safely, if requestId is null use 0
         notif.setRequestId(requestId != null ? Math.toIntExact(requestId) : 0);
         notif.setMessage(message);
         notif.setIsRead(false);
-        return notificationRepository.save(notif);
+        return notif;
+    }
+
+    /**
+     * Builds an unsaved, unread notification from a template. Only the
+     * template and its parameters are stored; the message is rendered when
+     * read.
+     */
+    public NotificationEntity buildNotification(int userId, Long requestId,
+                                                NotificationTemplate template, String... params) {
+        NotificationEntity notif = buildNotification(userId, requestId, (String) null);
+        notif.setTemplate(template);
+        notif.setParams(NotificationTemplate.params(params));
+        return notif;
+    }
+
+    /**
+     * Builds an unsaved broadcast to every user with the role. It is stored
+     * once; each recipient's read state lives in their read mark.
+     */
+    public NotificationEntity buildBroadcast(UserEntity.Role role, Long requestId,
+                                             NotificationTemplate template, String... params) {
+        NotificationEntity notif = buildNotification(0, requestId, template, params);
+        notif.setRole(role);
+        return notif;
     }
 
     @Transactional(readOnly = true)
@@ -48,19 +162,63 @@ public class NotificationService {
     }
 
     /**
-     * List notifications for a user (most recent first).
+     * List notifications for a user, with the broadcasts to their role
+     * (most recent first).
      */
     @Transactional(readOnly = true)
     public List<NotificationEntity> findByUserId(int userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        List<NotificationEntity> broadcasts = notificationRepository.findBroadcastPage(
+                registrarRoster.roleOf(userId), null, null, Pageable.unpaged());
+        return applyReadMark(userId, merge(
+                notificationRepository.findByUserIdOrderByCreatedAtDescNotificationIdDesc(userId), broadcasts));
     }
 
     /**
-     * List unread notifications for a user (most recent first).
+     * List unread notifications for a user, with the unread broadcasts to
+     * their role (most recent first).
      */
     @Transactional(readOnly = true)
     public List<NotificationEntity> findUnreadByUserId(int userId) {
-        return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+        List<NotificationEntity> broadcasts = notificationRepository.findUnreadBroadcastPage(
+                registrarRoster.roleOf(userId), userId, readBroadcastIds(userId), null, null, Pageable.unpaged());
+        return merge(notificationRepository.findUnreadByUserId(userId), broadcasts);
+    }
+
+    /**
+     * Keyset-paginated notifications for a user, newest first, ordered by
+     * (createdAt, notificationId). before is the nextCursor of the previous
+     * page; each page is one index range scan over the user's notifications
+     * and one over their role's broadcasts, merged, however deep the client
+     * pages.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationEntity> findPageByUserId(int userId, boolean unreadOnly,
+                                                           String before, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        KeysetCursor cursor = KeysetCursor.parse(before);
+        LocalDateTime beforeCreatedAt = cursor != null ? cursor.getTimestamp() : null;
+        Integer beforeId = cursor != null ? cursor.getIntId() : null;
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        UserEntity.Role role = registrarRoster.roleOf(userId);
+        List<NotificationEntity> rows = unreadOnly
+                ? merge(notificationRepository.findUnreadPageByUserId(userId, beforeCreatedAt, beforeId, page),
+                        notificationRepository.findUnreadBroadcastPage(role, userId, readBroadcastIds(userId),
+                                beforeCreatedAt, beforeId, page))
+                : applyReadMark(userId, merge(
+                        notificationRepository.findPageByUserId(userId, beforeCreatedAt, beforeId, page),
+                        notificationRepository.findBroadcastPage(role, beforeCreatedAt, beforeId, page)));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            NotificationEntity last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), (long) last.getNotificationId()).toString();
+        }
+        return new CursorPage<>(rows, nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -69,18 +227,51 @@ public class NotificationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", id));
     }
 
+    /**
+     * Requests a notification is about: every request counted by a digest,
+     * or the notification's own request.
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findRequestIds(int id) {
+        NotificationEntity notification = findById(id);
+        if (notification.getTemplate() == NotificationTemplate.REQUEST_DIGEST) {
+            return notificationRepository.findDigestRequestIds(id);
+        }
+        return List.of(notification.getRequestId());
+    }
+
     public NotificationEntity update(int id, NotificationEntity payload) {
         NotificationEntity existing = findById(id);
+        if (existing.getRole() != null || payload.getRole() != null) {
+            unreadCountCache.invalidateAllAfterCommit();
+        } else {
+            unreadCountCache.invalidateAfterCommit(existing.getUserId(), payload.getUserId());
+        }
         existing.setUserId(payload.getUserId());
+        existing.setRole(payload.getRole());
         existing.setRequestId(payload.getRequestId());
-        existing.setMessage(payload.getMessage());
+        existing.setMessage(payload.getTemplate() == null ? payload.getMessage() : "");
+        existing.setTemplate(payload.getTemplate());
+        existing.setParams(payload.getParams());
         existing.setIsRead(payload.getIsRead());
         return notificationRepository.save(existing);
     }
 
     public void delete(int id) {
         NotificationEntity existing = findById(id);
+        // Claims the unread flag first, so a concurrent markAsRead and this
+        // delete cannot both count the row
+        boolean unread = existing.getRole() == null && markReadIfUnread(existing);
+        if (existing.getDigestKey() != null) {
+            notificationRepository.deleteDigestRequests(id);
+        }
         notificationRepository.delete(existing);
+        if (existing.getRole() != null) {
+            // Unread for some recipients and not others
+            unreadCountCache.invalidateAllAfterCommit();
+        } else if (unread) {
+            unreadCountCache.adjustAfterCommit(existing.getUserId(), -1);
+        }
     }
 
     /**
@@ -90,11 +281,132 @@ public class NotificationService {
      * @return updated notification
      */
     public NotificationEntity markAsRead(int id) {
+        return markAsRead(id, null);
+    }
+
+    /**
+     * Mark a notification as read for a reader. Broadcasts are marked in the
+     * reader's read set, so readerId is required for them; the shared row is
+     * left untouched.
+     */
+    public NotificationEntity markAsRead(int id, Integer readerId) {
+        // Flip the flag before loading, so the row read below already has it
+        int marked = notificationRepository.markReadIfUnread(id);
         NotificationEntity existing = findById(id);
-        if (!existing.getIsRead()) {
-            existing.setIsRead(true);
-            return notificationRepository.save(existing);
+        if (existing.getRole() != null) {
+            if (readerId == null) {
+                throw new ConflictException("A reader is required to mark broadcast notification " + id + " as read");
+            }
+            markBroadcastRead(existing, readerId);
+            return existing;
+        }
+        if (marked == 1 && isAboveReadMark(existing)) {
+            unreadCountCache.adjustAfterCommit(existing.getUserId(), -1);
         }
         return existing;
     }
+
+    /**
+     * Marks every notification of the user up to upTo as read by moving the
+     * user's read watermark, in a single-row upsert however many rows it
+     * covers. upTo is the newest notification the client has shown: ids are
+     * taken at insert, not at commit, so a lower id may still be committing
+     * and must not be passed over unseen. Notifications above it keep their
+     * own read flag.
+     */
+    public void markAllAsRead(int userId, int upTo) {
+        readMarkRepository.advance(userId, upTo, LocalDateTime.now());
+        unreadCountCache.invalidateAfterCommit(userId);
+    }
+
+    private void markBroadcastRead(NotificationEntity broadcast, int readerId) {
+        if (!registrarRoster.hasRole(readerId, broadcast.getRole())) {
+            throw new ResourceNotFoundException("Notification", "id", broadcast.getNotificationId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Makes sure the reader has a read mark row to lock
+        readMarkRepository.advance(readerId, 0, now);
+        NotificationReadMarkEntity mark = readMarkRepository.findForUpdate(readerId)
+                .orElseThrow(() -> new ResourceNotFoundException("NotificationReadMark", "userId", readerId));
+        if (mark.markBroadcastRead(broadcast.getNotificationId())) {
+            mark.setUpdatedAt(now);
+            unreadCountCache.adjustAfterCommit(readerId, -1);
+        }
+    }
+
+    private List<Integer> readBroadcastIds(int userId) {
+        return readBroadcastIds(readMarkRepository.findById(userId)
+                .map(NotificationReadMarkEntity::readBroadcastIdsAboveMark).orElse(null));
+    }
+
+    // The read set as a NOT IN list; a lone 0 (never an id) stands for the empty set
+    static List<Integer> readBroadcastIds(int[] ids) {
+        if (ids == null || ids.length == 0) {
+            return List.of(0);
+        }
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    // Merges a user's rows with their role's broadcasts, newest first
+    private static List<NotificationEntity> merge(List<NotificationEntity> personal,
+                                                  List<NotificationEntity> broadcasts) {
+        if (broadcasts.isEmpty()) {
+            return personal;
+        }
+        List<NotificationEntity> merged = new ArrayList<>(personal.size() + broadcasts.size());
+        merged.addAll(personal);
+        merged.addAll(broadcasts);
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+
+    private int readThroughId(int userId) {
+        return readMarkRepository.findReadThroughId(userId).orElse(0);
+    }
+
+    // Rows under the user's watermark were never counted as unread
+    private boolean isAboveReadMark(NotificationEntity notification) {
+        return notification.getNotificationId() > readThroughId(notification.getUserId());
+    }
+
+    // True only for the caller that actually flipped an unread, counted row
+    private boolean markReadIfUnread(NotificationEntity notification) {
+        return notificationRepository.markReadIfUnread(notification.getNotificationId()) == 1
+                && isAboveReadMark(notification);
+    }
+
+    // Reports rows under the user's watermark, and broadcasts in their read
+    // set, as read. Rows whose flag changes are replaced by detached copies,
+    // so this per-reader view is never flushed back to the shared rows,
+    // whatever transaction the caller runs in
+    private List<NotificationEntity> applyReadMark(int userId, List<NotificationEntity> notifications) {
+        Optional<NotificationReadMarkEntity> mark = readMarkRepository.findById(userId);
+        int readThroughId = mark.map(NotificationReadMarkEntity::getReadThroughId).orElse(0);
+        List<NotificationEntity> result = new ArrayList<>(notifications.size());
+        for (NotificationEntity notification : notifications) {
+            boolean read;
+            if (notification.getRole() != null) {
+                read = mark.isPresent() && mark.get().hasReadBroadcast(notification.getNotificationId());
+            } else {
+                read = notification.getIsRead() || notification.getNotificationId() <= readThroughId;
+            }
+            result.add(read == notification.getIsRead() ? notification : detachedCopy(notification, read));
+        }
+        return result;
+    }
+
+    private static NotificationEntity detachedCopy(NotificationEntity notification, boolean isRead) {
+        NotificationEntity copy = new NotificationEntity();
+        copy.setNotificationId(notification.getNotificationId());
+        copy.setUserId(notification.getUserId());
+        copy.setRole(notification.getRole());
+        copy.setRequestId(notification.getRequestId());
+        copy.setTemplate(notification.getTemplate());
+        copy.setParams(notification.getParams());
+        copy.setMessage(notification.getTemplate() == null ? notification.getMessage() : "");
+        copy.setDigestKey(notification.getDigestKey());
+        copy.setCreatedAt(notification.getCreatedAt());
+        copy.setIsRead(isRead);
+        return copy;
+    }
 }
@@ -0,0 +1,380 @@
+package citedocs.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.DTO.NotificationWriterStatsDTO;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.NotificationRepository;
+
+/**
+ * Write-behind for notifications.
+ *
+ * Notifications are queued once the sender's transaction commits, and a
+ * single drainer thread writes them as multi-row JDBC batches when
+ * batch-size have accumulated or flush-interval-ms has passed since the
+ * first one, whichever comes first. Senders no longer pay for the insert
+ * inside their own transaction. Each batch goes through
+ * {@link NotificationCoalescer} first, so bursts of the same kind of
+ * notification become one digest row.
+ *
+ * The queue is bounded. A sender that finds it full waits up to
+ * enqueue-timeout-ms and then writes its notifications itself, so a
+ * backlog slows senders down instead of dropping notifications. A batch
+ * whose write fails is retried with backoff until it succeeds; it is never
+ * dropped while the application runs. On shutdown the queue is drained
+ * before the context closes; notifications still queued when the process
+ * dies are lost, so senders that cannot afford that (the outbox handlers)
+ * use {@link #writeInTransaction} instead.
+ */
+@Component
+public class NotificationWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationWriter.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MAX_RETRY_DELAY_MS = 5000;
+
+    // Wakes the drainer to write what is queued without waiting for a full batch
+    private static final NotificationEntity FLUSH = new NotificationEntity();
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationHub notificationHub;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationCoalescer notificationCoalescer;
+    private final TransactionTemplate requiresNew;
+    private final BlockingQueue<NotificationEntity> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+
+    // Enqueued but not yet written; flush() waits for this to reach zero
+    private final AtomicLong pending = new AtomicLong();
+    private final Object writtenSignal = new Object();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushMicrosTotal = new AtomicLong();
+    private final AtomicLong flushMicrosMax = new AtomicLong();
+    private volatile long flushMicrosLast;
+
+    private volatile boolean running;
+    private volatile Thread drainer;
+
+    public NotificationWriter(NotificationRepository notificationRepository,
+                              NotificationHub notificationHub,
+                              UnreadCountCache unreadCountCache,
+                              NotificationCoalescer notificationCoalescer,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${citedocs.notifications.writer.queue-capacity:10000}") int queueCapacity,
+                              @Value("${citedocs.notifications.writer.batch-size:200}") int batchSize,
+                              @Value("${citedocs.notifications.writer.flush-interval-ms:250}") long flushIntervalMs,
+                              @Value("${citedocs.notifications.writer.enqueue-timeout-ms:100}") long enqueueTimeoutMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationHub = notificationHub;
+        this.unreadCountCache = unreadCountCache;
+        this.notificationCoalescer = notificationCoalescer;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.queue = new LinkedBlockingQueue<>(this.queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.enqueueTimeoutMs = Math.max(0, enqueueTimeoutMs);
+    }
+
+    /**
+     * Queues notifications once the current transaction commits, or right
+     * away outside a transaction. Ids are populated when they are written.
+     */
+    public void enqueueAfterCommit(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> enqueue(notifications));
+    }
+
+    /**
+     * Writes notifications in the caller's transaction, coalesced and batched
+     * like queued ones, so they commit or roll back with it. A failure
+     * propagates to the caller instead of being retried here.
+     */
+    public void writeInTransaction(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        int merged = insert(notifications);
+        AfterCommit.run(() -> {
+            written.addAndGet(notifications.size() - merged);
+            coalesced.addAndGet(merged);
+        });
+    }
+
+    /**
+     * Blocks until everything queued so far has been written, or the timeout
+     * passes.
+     */
+    public void flush(long timeoutMs) throws InterruptedException {
+        if (pending.get() == 0) {
+            return;
+        }
+        queue.offer(FLUSH);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (writtenSignal) {
+            long remaining;
+            while (pending.get() > 0 && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                writtenSignal.wait(remaining);
+            }
+        }
+    }
+
+    public NotificationWriterStatsDTO stats() {
+        long batchCount = batches.get();
+        return new NotificationWriterStatsDTO(
+                Math.toIntExact(pending.get()),
+                queueCapacity,
+                written.get(),
+                batchCount,
+                callerWrites.get(),
+                failed.get(),
+                coalesced.get(),
+                flushMicrosLast / 1000.0,
+                batchCount > 0 ? flushMicrosTotal.get() / 1000.0 / batchCount : 0,
+                flushMicrosMax.get() / 1000.0);
+    }
+
+    /**
+     * Streams new notifications and counts the unread ones once the current
+     * transaction commits. Called for every write, queued or not.
+     */
+    void announce(List<NotificationEntity> notifications) {
+        Map<Integer, Integer> unread = new HashMap<>();
+        Map<UserEntity.Role, Integer> broadcasts = new EnumMap<>(UserEntity.Role.class);
+        for (NotificationEntity notification : notifications) {
+            if (notification.getRole() != null) {
+                broadcasts.merge(notification.getRole(), 1, Integer::sum);
+            } else if (!notification.getIsRead()) {
+                unread.merge(notification.getUserId(), 1, Integer::sum);
+            }
+        }
+        unreadCountCache.adjustAfterCommit(unread);
+        broadcasts.forEach(unreadCountCache::adjustRoleAfterCommit);
+        notificationHub.publishAfterCommit(notifications);
+    }
+
+    private void enqueue(List<NotificationEntity> notifications) {
+        if (!running) {
+            callerWrites.addAndGet(notifications.size());
+            writeUntilWritten(notifications);
+            return;
+        }
+
+        List<NotificationEntity> overflow = new ArrayList<>();
+        for (NotificationEntity notification : notifications) {
+            pending.incrementAndGet();
+            if (!offer(notification)) {
+                pending.decrementAndGet();
+                overflow.add(notification);
+            }
+        }
+
+        if (!overflow.isEmpty()) {
+            // Queue is full: write on the caller's thread rather than drop
+            callerWrites.addAndGet(overflow.size());
+            if (!write(overflow)) {
+                requeue(overflow);
+            }
+        }
+    }
+
+    // The database is what is behind; wait for room in the queue and let the
+    // drainer keep retrying
+    private void requeue(List<NotificationEntity> notifications) {
+        for (NotificationEntity notification : notifications) {
+            pending.incrementAndGet();
+            try {
+                queue.put(notification);
+            } catch (InterruptedException ex) {
+                pending.decrementAndGet();
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while requeueing; {} notifications were not written", notifications.size());
+                return;
+            }
+        }
+    }
+
+    private boolean offer(NotificationEntity notification) {
+        try {
+            return queue.offer(notification, enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            List<NotificationEntity> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!batch.isEmpty()) {
+                writeUntilWritten(batch);
+                pending.addAndGet(-batch.size());
+            }
+            synchronized (writtenSignal) {
+                writtenSignal.notifyAll();
+            }
+        }
+    }
+
+    private List<NotificationEntity> nextBatch() throws InterruptedException {
+        List<NotificationEntity> batch = new ArrayList<>(batchSize);
+        NotificationEntity first = running ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : queue.poll();
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        // Wait for a full batch, at most flush-interval-ms after the first row
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        NotificationEntity next = first;
+        while (running && next != FLUSH && batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        queue.drainTo(batch, batchSize - batch.size());
+        batch.removeIf(notification -> notification == FLUSH);
+        return batch;
+    }
+
+    // Retries with backoff while the application runs; only a shutdown
+    // with the database still failing leaves the batch unwritten
+    private void writeUntilWritten(List<NotificationEntity> batch) {
+        long delayMs = flushIntervalMs;
+        while (!write(batch)) {
+            if (!running) {
+                log.error("Shutting down with {} notifications that could not be written", batch.size());
+                return;
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted with {} notifications that could not be written", batch.size());
+                return;
+            }
+            delayMs = Math.min(delayMs * 2, MAX_RETRY_DELAY_MS);
+        }
+    }
+
+    // Coalesces and inserts in the current transaction; returns how many
+    // notifications were merged into digests. Announced from inside the
+    // transaction so it fires on its commit
+    private int insert(List<NotificationEntity> batch) {
+        NotificationCoalescer.Result result = notificationCoalescer.coalesce(batch);
+        notificationRepository.insertAll(result.inserts());
+        notificationCoalescer.recordRequests(result);
+        announce(result.inserts());
+        notificationHub.publishUpdatesAfterCommit(result.updated());
+        return result.merged();
+    }
+
+    // Returns false if the batch is still unwritten after MAX_ATTEMPTS
+    private boolean write(List<NotificationEntity> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        long started = System.nanoTime();
+        int merged;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                merged = requiresNew.execute(status -> insert(batch));
+                break;
+            } catch (RuntimeException ex) {
+                failed.addAndGet(batch.size());
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.error("Writing {} notifications failed {} times", batch.size(), attempt, ex);
+                    return false;
+                }
+                log.warn("Notification write failed, retrying ({} of {}): {}", attempt, MAX_ATTEMPTS, ex.getMessage());
+            }
+        }
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+        flushMicrosLast = micros;
+        flushMicrosTotal.addAndGet(micros);
+        flushMicrosMax.accumulateAndGet(micros, Math::max);
+        batches.incrementAndGet();
+        written.addAndGet(batch.size() - merged);
+        coalesced.addAndGet(merged);
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drain, "notification-writer");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = drainer;
+        if (thread == null) {
+            return;
+        }
+        // Wake the drainer; it writes what is left and exits
+        queue.offer(FLUSH);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        drainer = null;
+
+        // Anything a sender queued while the drainer was exiting
+        List<NotificationEntity> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.removeIf(notification -> notification == FLUSH);
+        writeUntilWritten(rest);
+        pending.addAndGet(-rest.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
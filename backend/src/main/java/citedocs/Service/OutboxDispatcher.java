@@ -0,0 +1,169 @@
+package citedocs.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Repository.OutboxEventRepository;
+
+/**
+ * Applies outbox events after the recording transaction commits.
+ *
+ * Events are dispatched immediately after commit and picked up again by a
+ * periodic poll if that did not happen (executor saturated, node restart,
+ * earlier failure). Each event is claimed with a conditional
+ * PENDING -> PROCESSED update in the same transaction that applies its side
+ * effects, so an event id is applied exactly once even when several workers
+ * or nodes race for it. Failures roll back the claim and are retried with
+ * exponential backoff until the attempt limit is reached.
+ *
+ * PROCESSED rows are kept for the retention period and then purged; FAILED
+ * rows stay until someone has looked at them.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RequestEventHandler requestEventHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxAttempts;
+    private final int pollBatchSize;
+    private final Duration processedRetention;
+
+    // Events queued or running on this node, so the poller does not resubmit them
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            RequestEventHandler requestEventHandler,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("outboxExecutor") ThreadPoolTaskExecutor executor,
+                            @Value("${citedocs.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${citedocs.outbox.poll-batch-size:100}") int pollBatchSize,
+                            @Value("${citedocs.outbox.processed-retention-hours:168}") long processedRetentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.requestEventHandler = requestEventHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.pollBatchSize = pollBatchSize;
+        this.processedRetention = Duration.ofHours(processedRetentionHours);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventRecorded(OutboxService.EventRecorded recorded) {
+        submit(recorded.eventId());
+    }
+
+    @Scheduled(fixedDelayString = "${citedocs.outbox.poll-interval-ms:5000}")
+    public void pollDueEvents() {
+        List<String> due = outboxEventRepository.findDueEventIds(
+                OutboxEventEntity.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, pollBatchSize));
+        due.forEach(this::submit);
+    }
+
+    // Deletes processed events past retention a batch at a time so the purge never holds long locks
+    @Scheduled(fixedDelayString = "${citedocs.outbox.purge-interval-ms:3600000}")
+    public int purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(processedRetention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteProcessedBefore(cutoff, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+
+        if (total > 0) {
+            log.debug("Purged {} processed outbox events", total);
+        }
+        return total;
+    }
+
+    private void submit(String eventId) {
+        if (!inFlight.add(eventId)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    dispatch(eventId);
+                } finally {
+                    inFlight.remove(eventId);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            // Executor is saturated; the next poll will pick the event up
+            inFlight.remove(eventId);
+        }
+    }
+
+    private void dispatch(String eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OutboxEventEntity event = outboxEventRepository.findById(eventId).orElse(null);
+                if (event == null || event.getStatus() != OutboxEventEntity.Status.PENDING) {
+                    return;
+                }
+
+                int claimed = outboxEventRepository.transition(eventId,
+                        OutboxEventEntity.Status.PENDING, OutboxEventEntity.Status.PROCESSED, LocalDateTime.now());
+                if (claimed == 0) {
+                    return; // applied by another worker
+                }
+
+                requestEventHandler.apply(event);
+            });
+        } catch (RuntimeException ex) {
+            recordFailure(eventId, ex);
+        }
+    }
+
+    private void recordFailure(String eventId, RuntimeException cause) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.findById(eventId).ifPresent(event -> {
+                    int attempts = event.getAttempts() + 1;
+                    event.setAttempts(attempts);
+                    event.setLastError(truncate(String.valueOf(cause.getMessage()), 1000));
+
+                    if (attempts >= maxAttempts) {
+                        event.setStatus(OutboxEventEntity.Status.FAILED);
+                        log.error("Outbox event {} ({}) failed after {} attempts",
+                                eventId, event.getEventType(), attempts, cause);
+                    } else {
+                        long backoff = Math.min(1L << Math.min(attempts, 16), MAX_BACKOFF_SECONDS);
+                        event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+                        log.warn("Outbox event {} ({}) failed, retrying in {}s: {}",
+                                eventId, event.getEventType(), backoff, cause.getMessage());
+                    }
+                    outboxEventRepository.save(event);
+                }));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
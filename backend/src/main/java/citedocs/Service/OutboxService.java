@@ -0,0 +1,66 @@
+package citedocs.Service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Repository.OutboxEventRepository;
+
+/**
+ * Records side effects as outbox events inside the caller's transaction.
+ * The event row commits or rolls back together with the change that caused
+ * it; {@link OutboxDispatcher} applies it once the transaction has committed.
+ */
+@Service
+public class OutboxService {
+
+    /**
+     * Published when an event is recorded, so the dispatcher can pick it up
+     * right after commit instead of waiting for the next poll.
+     */
+    public record EventRecorded(String eventId) {}
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEventEntity record(OutboxEventEntity.Type type, Object payload) {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setEventType(type);
+        event.setPayload(toJson(payload));
+
+        OutboxEventEntity saved = outboxEventRepository.save(event);
+        eventPublisher.publishEvent(new EventRecorded(saved.getEventId()));
+        return saved;
+    }
+
+    public <T> T readPayload(OutboxEventEntity event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getEventId(), ex);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Outbox payload cannot be serialized", ex);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package citedocs.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.UserRepository;
+
+/**
+ * In-memory list of registrar user ids, used to resolve who receives
+ * registrar broadcasts without querying the users table on every read.
+ * Other users' roles are looked up by primary key when needed.
+ *
+ * User writes in {@link UserService} and {@link AuthService} invalidate the
+ * roster once their transaction commits. The TTL bounds staleness for
+ * changes made on other nodes.
+ */
+@Component
+public class RegistrarRoster {
+
+    private record Snapshot(List<Integer> registrarIds, long loadedAt) {}
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    private volatile Snapshot snapshot;
+
+    // Bumped on every invalidation so a load that raced with it is discarded
+    private final AtomicLong generation = new AtomicLong();
+
+    public RegistrarRoster(UserRepository userRepository,
+                           @Value("${citedocs.registrars.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public List<Integer> registrarIds() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt() < ttlMillis) {
+            return current.registrarIds();
+        }
+
+        long loadGeneration = generation.get();
+        List<Integer> ids = userRepository.findByRole(UserEntity.Role.REGISTRAR).stream()
+                .map(UserEntity::getUserId)
+                .toList();
+
+        Snapshot loaded = new Snapshot(ids, System.currentTimeMillis());
+        if (generation.get() == loadGeneration) {
+            snapshot = loaded;
+        }
+        return ids;
+    }
+
+    /**
+     * The role whose broadcasts a user receives, or null for an id that is
+     * not a user (deleted, or never existed), who receives none.
+     */
+    public UserEntity.Role roleOf(int userId) {
+        if (registrarIds().contains(userId)) {
+            return UserEntity.Role.REGISTRAR;
+        }
+        return userRepository.findRoleById(userId).orElse(null);
+    }
+
+    /**
+     * Whether the user receives broadcasts to the role; answered from memory
+     * for registrar broadcasts.
+     */
+    public boolean hasRole(int userId, UserEntity.Role role) {
+        if (role == UserEntity.Role.REGISTRAR) {
+            return registrarIds().contains(userId);
+        }
+        return role != null && roleOf(userId) == role;
+    }
+
+    /**
+     * Drops the roster after the current transaction commits, or right away
+     * when called outside a transaction.
+     */
+    public void invalidate() {
+        AfterCommit.run(this::clear);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+}
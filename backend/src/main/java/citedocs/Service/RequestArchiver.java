@@ -0,0 +1,117 @@
+package citedocs.Service;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Repository.RequestArchiveRepository;
+import citedocs.Repository.RequestArchiveRepositoryCustom.Candidate;
+
+/**
+ * Moves COMPLETED and REJECTED requests that have not changed for
+ * citedocs.archive.retain-days, with their status logs, payments and claim
+ * slips, into the year-keyed archive tables.
+ *
+ * Each chunk of citedocs.archive.batch-size requests is locked, copied and
+ * deleted in its own short transaction, so the job never holds locks on
+ * more than one chunk and can stop at any point without leaving a request
+ * half moved. The live tables keep only recent and open requests; read
+ * endpoints reach the archive with includeArchived=true.
+ */
+@Component
+public class RequestArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestArchiver.class);
+
+    private final RequestArchiveRepository archiveRepository;
+    private final RequestStatistics requestStatistics;
+    private final DocumentCatalog documentCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final int retainDays;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RequestArchiver(RequestArchiveRepository archiveRepository,
+                           RequestStatistics requestStatistics,
+                           DocumentCatalog documentCatalog,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${citedocs.archive.retain-days:180}") int retainDays,
+                           @Value("${citedocs.archive.batch-size:500}") int batchSize) {
+        this.archiveRepository = archiveRepository;
+        this.requestStatistics = requestStatistics;
+        this.documentCatalog = documentCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retainDays = retainDays;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${citedocs.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        archiveClosedRequests();
+    }
+
+    /**
+     * Archives every eligible request, a chunk at a time. Returns how many
+     * requests were moved; 0 if another run on this node is in progress.
+     */
+    public int archiveClosedRequests() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        try {
+            LocalDateTime closedBefore = LocalDateTime.now().minusDays(retainDays);
+
+            Integer oldestYear = archiveRepository.findOldestArchivableYear(closedBefore);
+            if (oldestYear == null) {
+                return 0;
+            }
+            // Partition DDL commits implicitly on MySQL, so it runs before and
+            // outside the chunk transactions
+            archiveRepository.preparePartitions(oldestYear, Year.now().getValue());
+
+            int total = 0;
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveChunk(closedBefore));
+                total += moved;
+            } while (moved == batchSize);
+
+            if (total > 0) {
+                log.info("Archived {} closed requests last changed before {}", total, closedBefore);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime closedBefore) {
+        List<Candidate> candidates = archiveRepository.lockArchivable(closedBefore, batchSize);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        int moved = archiveRepository.moveToArchive(candidates.stream().map(Candidate::requestId).toList());
+
+        // Dashboard counts cover live requests only
+        Map<Long, DocumentsEntity> documents = documentCatalog.snapshot().byId();
+        for (Candidate candidate : candidates) {
+            DocumentsEntity document = documents.get(candidate.documentId());
+            requestStatistics.recordArchived(candidate.userId(), candidate.status(),
+                    document != null ? document.getName() : null);
+        }
+        return moved;
+    }
+}
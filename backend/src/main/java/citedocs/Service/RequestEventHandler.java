@@ -0,0 +1,165 @@
+package citedocs.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import citedocs.DTO.RequestCreatedEvent;
+import citedocs.DTO.StatusChangedEvent;
+import citedocs.Entity.ClaimSlipEntity;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Entity.RequestStatusLogEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.ClaimSlipRepository;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.UserRepository;
+
+/**
+ * Side effects of request changes, applied by {@link OutboxDispatcher} in
+ * the transaction that claims the outbox event. Notifications are inserted
+ * in that transaction too, so a failed insert rolls the event back and the
+ * dispatcher retries it instead of a notification being lost.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class RequestEventHandler {
+
+    private final RequestStatusLogRepository requestStatusLogRepository;
+    private final ClaimSlipRepository claimSlipRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final ClaimNumberAllocator claimNumberAllocator;
+
+    public RequestEventHandler(RequestStatusLogRepository requestStatusLogRepository,
+                               ClaimSlipRepository claimSlipRepository,
+                               UserRepository userRepository,
+                               NotificationService notificationService,
+                               OutboxService outboxService,
+                               ClaimNumberAllocator claimNumberAllocator) {
+        this.requestStatusLogRepository = requestStatusLogRepository;
+        this.claimSlipRepository = claimSlipRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.claimNumberAllocator = claimNumberAllocator;
+    }
+
+    public void apply(OutboxEventEntity event) {
+        switch (event.getEventType()) {
+            case REQUEST_CREATED ->
+                    onRequestCreated(outboxService.readPayload(event, RequestCreatedEvent.class));
+            case REQUEST_STATUS_CHANGED ->
+                    onStatusChanged(outboxService.readPayload(event, StatusChangedEvent.class));
+        }
+    }
+
+    // NEW REQUEST (Notify Registrars)
+    private void onRequestCreated(RequestCreatedEvent event) {
+
+        // Fetch student info for the message parameters
+        String studentName = "A student";
+        String studentSid = null;
+
+        if (event.getUserId() != null) {
+            Optional<UserEntity> maybeUser = userRepository.findById(event.getUserId().intValue());
+            if (maybeUser.isPresent()) {
+                UserEntity user = maybeUser.get();
+                studentName = user.getName() != null ? user.getName() : studentName;
+                studentSid = user.getSid();
+            }
+        }
+
+        // Notify all registrars: one broadcast row, whatever the size of the staff
+        String docName = event.getDocumentName() != null ? event.getDocumentName() : "a document";
+
+        notificationService.writeNotifications(List.of(notificationService.buildBroadcast(
+                UserEntity.Role.REGISTRAR,
+                event.getRequestId(),
+                NotificationTemplate.REQUEST_SUBMITTED,
+                studentName, studentSid, docName
+        )));
+    }
+
+    // STATUS CHANGED (Log, Claim Slip, Notify Student)
+    private void onStatusChanged(StatusChangedEvent event) {
+        RequestsEntity.Status newStatus = RequestsEntity.Status.fromString(event.getNewStatus());
+        List<StatusChangedEvent.Change> changes = event.getChanges();
+
+        // STATUS LOG
+        List<RequestStatusLogEntity> logs = new ArrayList<>();
+        for (StatusChangedEvent.Change change : changes) {
+            logs.add(buildStatusLog(change, event));
+        }
+        requestStatusLogRepository.insertAll(logs);
+
+        // GENERATE CLAIM SLIP IF STATUS IS APPROVED
+        if (newStatus == RequestsEntity.Status.APPROVED) {
+            // A request that already has a claim slip keeps it (re-approvals,
+            // retries, redelivered events) and takes no new number; the upsert
+            // on request_id covers a slip issued concurrently
+            List<Long> requestIds = changes.stream().map(StatusChangedEvent.Change::getRequestId).toList();
+            Set<Long> issued = new HashSet<>(claimSlipRepository.findRequestIdsWithSlip(requestIds));
+            List<ClaimSlipEntity> claimSlips = new ArrayList<>();
+            for (StatusChangedEvent.Change change : changes) {
+                if (issued.add(change.getRequestId())) {
+                    claimSlips.add(buildClaimSlip(change, event.getChangedBy()));
+                }
+            }
+            claimSlipRepository.upsertAll(claimSlips);
+        }
+
+        // SEND NOTIFICATION TO STUDENT
+        List<NotificationEntity> notifications = new ArrayList<>();
+        for (StatusChangedEvent.Change change : changes) {
+            if (change.getUserId() != null) {
+                notifications.add(notificationService.buildNotification(
+                        change.getUserId().intValue(),
+                        change.getRequestId(),
+                        NotificationTemplate.REQUEST_STATUS,
+                        event.getNewStatus().toUpperCase(), event.getRemarks()
+                ));
+            }
+        }
+        notificationService.writeNotifications(notifications);
+    }
+
+    private RequestStatusLogEntity buildStatusLog(StatusChangedEvent.Change change, StatusChangedEvent event) {
+        RequestStatusLogEntity log = new RequestStatusLogEntity();
+        log.setRequestId(change.getRequestId());
+        log.setOldStatus(change.getOldStatus());
+        log.setNewStatus(event.getNewStatus());
+        // Use registrar's user ID (the one updating the status), not the student's
+        log.setChangedBy(event.getChangedBy() != null ? event.getChangedBy() : 0);
+        log.setRemarks(event.getRemarks());
+        return log;
+    }
+
+    private ClaimSlipEntity buildClaimSlip(StatusChangedEvent.Change change, Integer registrarUserId) {
+        ClaimSlipEntity claimSlip = new ClaimSlipEntity();
+        claimSlip.setRequestId(change.getRequestId());
+
+        // Generate claim number: REQ-YYYY-XXX format, from the yearly sequence
+        claimSlip.setClaimNumber(claimNumberAllocator.nextClaimNumber());
+
+        // Set date ready: use request's date_ready or fallback to today
+        LocalDate claimDate = (change.getDateReady() != null) 
+            ? change.getDateReady().toLocalDate() 
+            : LocalDate.now();
+        claimSlip.setDateReady(claimDate);
+
+        // Set issued by to the registrar who approved it
+        claimSlip.setIssuedBy(registrarUserId != null ? registrarUserId : 0);
+        return claimSlip;
+    }
+}
@@ -0,0 +1,208 @@
+package citedocs.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import citedocs.DTO.RequestCountRow;
+import citedocs.DTO.RequestStatsDTO;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.RequestsRepository;
+
+/**
+ * In-memory request counts by status and by document, globally and per user.
+ *
+ * {@link RequestsService} reports every create, status change, update and
+ * delete, and {@link RequestArchiver} every archived request; the delta
+ * is applied once the transaction commits, so rolled back writes are
+ * never counted. The counters are rebuilt from a GROUP BY query at startup
+ * and periodically, which also corrects drift from writes made on other
+ * nodes or directly in the database.
+ */
+@Component
+public class RequestStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatistics.class);
+
+    private record Delta(Long userId, RequestsEntity.Status status, String documentName, long amount) {}
+
+    private static final class Counters {
+        final Map<RequestsEntity.Status, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> byDocument = new ConcurrentHashMap<>();
+
+        void add(RequestsEntity.Status status, String documentName, long amount) {
+            if (status != null)
+                byStatus.computeIfAbsent(status, s -> new LongAdder()).add(amount);
+            if (documentName != null)
+                byDocument.computeIfAbsent(documentName, d -> new LongAdder()).add(amount);
+        }
+    }
+
+    private static final class State {
+        final Counters global = new Counters();
+        final Map<Long, Counters> byUser = new ConcurrentHashMap<>();
+
+        void apply(Delta delta) {
+            global.add(delta.status(), delta.documentName(), delta.amount());
+            if (delta.userId() != null)
+                byUser.computeIfAbsent(delta.userId(), u -> new Counters())
+                        .add(delta.status(), delta.documentName(), delta.amount());
+        }
+    }
+
+    private final RequestsRepository requestsRepository;
+
+    private volatile State state;
+
+    // Deltas apply under the read lock; a rebuild takes the write lock only to
+    // start capturing deltas and to swap in the rebuilt state, replaying
+    // whatever committed while the GROUP BY query was running.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<Delta> replayLog;
+
+    public RequestStatistics(RequestsRepository requestsRepository) {
+        this.requestsRepository = requestsRepository;
+    }
+
+    public void recordCreated(RequestsEntity request) {
+        afterCommit(List.of(toDelta(request, 1)));
+    }
+
+    public void recordDeleted(RequestsEntity request) {
+        afterCommit(List.of(toDelta(request, -1)));
+    }
+
+    // Archived requests leave the live table, like a delete
+    public void recordArchived(Long userId, RequestsEntity.Status status, String documentName) {
+        afterCommit(List.of(new Delta(userId, status, documentName, -1)));
+    }
+
+    // Covers generic updates, which may change owner, status or document
+    public void recordReplaced(Long oldUserId, RequestsEntity.Status oldStatus, String oldDocumentName,
+                               RequestsEntity updated) {
+        afterCommit(List.of(new Delta(oldUserId, oldStatus, oldDocumentName, -1), toDelta(updated, 1)));
+    }
+
+    public void recordStatusChanged(Long userId, RequestsEntity.Status oldStatus, RequestsEntity.Status newStatus) {
+        // Document counts are unaffected by a status change
+        afterCommit(List.of(new Delta(userId, oldStatus, null, -1), new Delta(userId, newStatus, null, 1)));
+    }
+
+    public RequestStatsDTO getStats(Long userId) {
+        State current = state;
+        if (current == null) {
+            rebuild();
+            current = state;
+        }
+
+        Counters counters = userId == null ? current.global : current.byUser.get(userId);
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (RequestsEntity.Status status : RequestsEntity.Status.values()) {
+            long count = counters != null ? sum(counters.byStatus.get(status)) : 0;
+            byStatus.put(status.toString(), count);
+            total += count;
+        }
+
+        Map<String, Long> byDocument = new TreeMap<>();
+        if (counters != null) {
+            counters.byDocument.forEach((name, adder) -> {
+                long count = adder.sum();
+                if (count > 0)
+                    byDocument.put(name, count);
+            });
+        }
+
+        return new RequestStatsDTO(userId, total, byStatus, byDocument);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${citedocs.stats.reconcile-interval-ms:900000}",
+               fixedDelayString = "${citedocs.stats.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            replayLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            for (RequestCountRow row : requestsRepository.countByUserStatusAndDocument()) {
+                rebuilt.apply(new Delta(row.getUserId(), row.getStatus(), row.getDocumentName(), row.getCount()));
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replayLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not rebuild request statistics", ex);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // A write that committed just before the query started may be
+            // replayed twice here; the next reconciliation corrects it.
+            replayLog.forEach(rebuilt::apply);
+            replayLog = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(List<Delta> deltas) {
+        AfterCommit.run(() -> apply(deltas));
+    }
+
+    private void apply(List<Delta> deltas) {
+        lock.readLock().lock();
+        try {
+            State current = state;
+            if (current != null)
+                deltas.forEach(current::apply);
+            if (replayLog != null) {
+                synchronized (replayLog) {
+                    replayLog.addAll(deltas);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Delta toDelta(RequestsEntity request, int amount) {
+        String documentName = request.getDocument() != null ? request.getDocument().getName() : null;
+        return new Delta(request.getUserId(), request.getStatus(), documentName, amount);
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0;
+    }
+}
@@ -1,15 +1,19 @@
 package citedocs.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import citedocs.Entity.ArchivedStatusLogEntity;
 import citedocs.Entity.RequestStatusLogEntity;
 import citedocs.Entity.UserEntity;
 import citedocs.Entity.UserEntity.Role;
 import citedocs.Exception.ResourceNotFoundException;
+import citedocs.Repository.RequestArchiveRepository;
 import citedocs.Repository.RequestStatusLogRepository;
 import citedocs.Repository.UserRepository;
 
@@ -19,10 +23,13 @@ public class RequestStatusLogService {
 
     private final RequestStatusLogRepository requestStatusLogRepository;
     private final UserRepository userRepository;
+    private final RequestArchiveRepository requestArchiveRepository;
 
-    public RequestStatusLogService(RequestStatusLogRepository requestStatusLogRepository, UserRepository userRepository) {
+    public RequestStatusLogService(RequestStatusLogRepository requestStatusLogRepository, UserRepository userRepository,
+                                   RequestArchiveRepository requestArchiveRepository) {
         this.requestStatusLogRepository = requestStatusLogRepository;
         this.userRepository = userRepository;
+        this.requestArchiveRepository = requestArchiveRepository;
     }
 
     public RequestStatusLogEntity create(RequestStatusLogEntity log) {
@@ -41,6 +48,21 @@ public class RequestStatusLogService {
         return enrichLogs(logs);
     }
 
+    // Live and archived history, newest first
+    @Transactional(readOnly = true)
+    public List<RequestStatusLogEntity> findAllIncludingArchived(Long userId) {
+        List<RequestStatusLogEntity> logs = new ArrayList<>(userId != null
+                ? requestStatusLogRepository.findByUserId(userId)
+                : requestStatusLogRepository.findAll());
+        List<ArchivedStatusLogEntity> archived = userId != null
+                ? requestArchiveRepository.findStatusLogsByUserId(userId)
+                : requestArchiveRepository.findAllStatusLogs();
+        archived.forEach(log -> logs.add(log.toStatusLog()));
+        logs.sort(Comparator.comparing(RequestStatusLogEntity::getChangedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return enrichLogs(logs);
+    }
+
     private List<RequestStatusLogEntity> enrichLogs(List<RequestStatusLogEntity> logs) {
         return logs.stream().map(this::enrichLog).toList();
     }
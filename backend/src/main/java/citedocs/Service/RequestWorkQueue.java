@@ -0,0 +1,248 @@
+package citedocs.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.RequestsRepository;
+
+/**
+ * In-memory priority index of the requests registrars still have to act on
+ * (PENDING and PROCESSING), most urgent first.
+ *
+ * Urgency is {@link RequestsEntity#claimPriority}: the time left until the
+ * request is due, minus half the time it has been waiting, plus a day for
+ * requests someone has already started. Each request's key is fixed until
+ * its status changes, so the index never needs re-sorting. The same key is
+ * stored in requests.claim_priority, so claim-next hands requests out in
+ * the order this queue shows them.
+ *
+ * {@link RequestsService} reports creates, status changes, updates and
+ * deletes, applied after commit; the index is rebuilt from the database at
+ * startup and periodically to pick up changes made on other nodes.
+ */
+@Component
+public class RequestWorkQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestWorkQueue.class);
+
+    static final Set<RequestsEntity.Status> ACTIONABLE =
+            EnumSet.of(RequestsEntity.Status.PENDING, RequestsEntity.Status.PROCESSING);
+
+    /** Position in the queue; lower keys come first, ties go to the older id. */
+    private record Key(long urgency, long requestId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byUrgency = Long.compare(urgency, other.urgency);
+            return byUrgency != 0 ? byUrgency : Long.compare(requestId, other.requestId);
+        }
+    }
+
+    private record Item(Long requestId, RequestsEntity.Status status, LocalDate dateNeeded,
+                        LocalDateTime createdAt, Key key) {}
+
+    private static final class Index {
+        final ConcurrentSkipListSet<Key> ordered = new ConcurrentSkipListSet<>();
+        final Map<Long, Item> byId = new ConcurrentHashMap<>();
+
+        // Callers hold a per-id lock via compute, so ordered and byId agree
+        void put(Long requestId, RequestsEntity.Status status, LocalDate dateNeeded, LocalDateTime createdAt) {
+            byId.compute(requestId, (id, previous) -> {
+                if (previous != null)
+                    ordered.remove(previous.key());
+                if (status == null || !ACTIONABLE.contains(status))
+                    return null;
+                Key key = new Key(urgency(status, dateNeeded, createdAt), id);
+                ordered.add(key);
+                return new Item(id, status, dateNeeded, createdAt, key);
+            });
+        }
+
+        // Status change for an indexed request; no-op if it is not indexed
+        void changeStatus(Long requestId, RequestsEntity.Status status) {
+            byId.computeIfPresent(requestId, (id, previous) -> {
+                ordered.remove(previous.key());
+                if (!ACTIONABLE.contains(status))
+                    return null;
+                Key key = new Key(urgency(status, previous.dateNeeded(), previous.createdAt()), id);
+                ordered.add(key);
+                return new Item(id, status, previous.dateNeeded(), previous.createdAt(), key);
+            });
+        }
+
+        void remove(Long requestId) {
+            byId.computeIfPresent(requestId, (id, previous) -> {
+                ordered.remove(previous.key());
+                return null;
+            });
+        }
+    }
+
+    private final RequestsRepository requestsRepository;
+
+    private volatile Index index = new Index();
+
+    // Same scheme as RequestStatistics: changes apply under the read lock and
+    // are captured while a rebuild runs, then replayed onto the new index
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<Change> replayLog;
+
+    public RequestWorkQueue(RequestsRepository requestsRepository) {
+        this.requestsRepository = requestsRepository;
+    }
+
+    /**
+     * Ids of the most urgent actionable requests, in order. Walks the head
+     * of the skip list, so the cost depends on limit, not on queue size.
+     */
+    public List<Long> peek(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Key> it = index.ordered.iterator();
+        while (ids.size() < limit && it.hasNext()) {
+            ids.add(it.next().requestId());
+        }
+        return ids;
+    }
+
+    public int size() {
+        return index.byId.size();
+    }
+
+    public void recordSaved(RequestsEntity request) {
+        Long requestId = request.getRequestId();
+        RequestsEntity.Status status = request.getStatus();
+        LocalDate dateNeeded = request.getDateNeeded();
+        LocalDateTime createdAt = request.getCreatedAt();
+        AfterCommit.run(() -> apply(target -> target.put(requestId, status, dateNeeded, createdAt)));
+    }
+
+    public void recordStatusChanged(Long requestId, RequestsEntity.Status oldStatus, RequestsEntity.Status newStatus) {
+        AfterCommit.run(() -> {
+            // An open request missing from the index was created on another
+            // node and arrives with the next rebuild; only a reopened one is
+            // read here, since the index has never had its dates
+            if (ACTIONABLE.contains(oldStatus) || !ACTIONABLE.contains(newStatus)) {
+                apply(target -> target.changeStatus(requestId, newStatus));
+                return;
+            }
+
+            for (Object[] row : requestsRepository.findQueueRowsByIdIn(List.of(requestId))) {
+                LocalDate dateNeeded = (LocalDate) row[2];
+                LocalDateTime createdAt = (LocalDateTime) row[3];
+                apply(target -> target.put(requestId, newStatus, dateNeeded, createdAt));
+            }
+        });
+    }
+
+    public void recordDeleted(Long requestId) {
+        AfterCommit.run(() -> apply(target -> target.remove(requestId)));
+    }
+
+    /**
+     * Drops ids the caller found to be no longer actionable, e.g. changed
+     * on another node since the last rebuild.
+     */
+    public void evict(Collection<Long> requestIds) {
+        apply(target -> requestIds.forEach(target::remove));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${citedocs.queue.reconcile-interval-ms:300000}",
+               fixedDelayString = "${citedocs.queue.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            replayLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        List<Object[]> stale = new ArrayList<>();
+        try {
+            for (Object[] row : requestsRepository.findQueueRows(ACTIONABLE)) {
+                rebuilt.put((Long) row[0], (RequestsEntity.Status) row[1], (LocalDate) row[2], (LocalDateTime) row[3]);
+                Item item = rebuilt.byId.get((Long) row[0]);
+                if (item != null && !Long.valueOf(item.key().urgency()).equals(row[4])) {
+                    stale.add(new Object[] { item.key().urgency(), row[0], row[1] });
+                }
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replayLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not rebuild the request work queue", ex);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            replayLog.forEach(change -> change.applyTo(rebuilt));
+            replayLog = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!stale.isEmpty()) {
+            // Rows written before claim_priority existed, or by another path
+            try {
+                requestsRepository.updateClaimPriorities(stale);
+                log.info("Backfilled claim_priority for {} open requests", stale.size());
+            } catch (RuntimeException ex) {
+                log.warn("Could not backfill claim_priority", ex);
+            }
+        }
+    }
+
+    private interface Change {
+        void applyTo(Index target);
+    }
+
+    private void apply(Change change) {
+        lock.readLock().lock();
+        try {
+            change.applyTo(index);
+            if (replayLog != null) {
+                synchronized (replayLog) {
+                    replayLog.add(change);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long urgency(RequestsEntity.Status status, LocalDate dateNeeded, LocalDateTime createdAt) {
+        return RequestsEntity.claimPriority(status, dateNeeded, createdAt);
+    }
+}
@@ -1,55 +1,101 @@
 package citedocs.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import citedocs.DTO.BatchStatusResultDTO;
+import citedocs.DTO.CursorPage;
+import citedocs.DTO.KeysetCursor;
+import citedocs.DTO.RequestCreatedEvent;
+import citedocs.DTO.RequestDetailDTO;
+import citedocs.DTO.RequestChangesDTO;
+import citedocs.DTO.RequestClaimDTO;
+import citedocs.DTO.RequestFilter;
+import citedocs.DTO.RequestStatsDTO;
+import citedocs.DTO.RequestStatusSnapshot;
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.DTO.StatusChangedEvent;
 import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestTombstoneEntity;
 import citedocs.Entity.RequestsEntity;
+import citedocs.Controller.BatchStatusUpdateRequest;
 import citedocs.Controller.StatusUpdateRequest;
-import java.time.LocalDateTime;
 import java.time.LocalDate;
-import java.time.Year;
-import citedocs.Entity.RequestStatusLogEntity;
-import citedocs.Entity.ClaimSlipEntity;
+import java.time.LocalDateTime;
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Exception.ConflictException;
 import citedocs.Exception.ResourceNotFoundException;
-import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestArchiveRepository;
+import citedocs.Repository.RequestTombstoneRepository;
 import citedocs.Repository.RequestsRepository;
-import citedocs.Repository.RequestStatusLogRepository;
 import citedocs.Repository.UserRepository;
 import citedocs.Repository.PaymentRepository;
-import citedocs.Repository.ClaimSlipRepository;
-import citedocs.Entity.UserEntity;
-import citedocs.Service.NotificationService;
 
 @Service
 @Transactional
 public class RequestsService {
 
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_CHANGES_LIMIT = 200;
+    private static final int MAX_CHANGES_LIMIT = 500;
+    private static final int DEFAULT_QUEUE_SIZE = 20;
+    private static final int MAX_QUEUE_SIZE = 100;
+    // Claim candidates read per round trip; losing a race moves to the next one
+    private static final int CLAIM_WINDOW = 16;
+
+    // List order of the paged endpoint, for merging live and archived rows
+    private static final Comparator<RequestSummaryDTO> NEWEST_FIRST =
+            Comparator.comparing(RequestSummaryDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(RequestSummaryDTO::getRequestId, Comparator.reverseOrder());
+
     private final RequestsRepository requestsRepository;
-    private final DocumentsRepository documentsRepository;
-    private final RequestStatusLogRepository requestStatusLogRepository;
+    private final DocumentCatalog documentCatalog;
     private final UserRepository userRepository;
     private final PaymentRepository paymentRepository;
-    private final ClaimSlipRepository claimSlipRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final RequestStatistics requestStatistics;
+    private final RequestTombstoneRepository requestTombstoneRepository;
+    private final RequestArchiveRepository requestArchiveRepository;
+    private final RequestWorkQueue requestWorkQueue;
+    private final Duration changesSettleLag;
+    private final Duration claimLease;
 
     public RequestsService(RequestsRepository requestsRepository,
-                           DocumentsRepository documentsRepository,
-                           RequestStatusLogRepository requestStatusLogRepository,
+                           DocumentCatalog documentCatalog,
                            UserRepository userRepository,
                            PaymentRepository paymentRepository,
-                           ClaimSlipRepository claimSlipRepository,
-                           NotificationService notificationService) {
+                           OutboxService outboxService,
+                           RequestStatistics requestStatistics,
+                           RequestTombstoneRepository requestTombstoneRepository,
+                           RequestArchiveRepository requestArchiveRepository,
+                           RequestWorkQueue requestWorkQueue,
+                           @Value("${citedocs.requests.changes-settle-lag-ms:5000}") long changesSettleLagMs,
+                           @Value("${citedocs.claims.lease-minutes:15}") long claimLeaseMinutes) {
         this.requestsRepository = requestsRepository;
-        this.documentsRepository = documentsRepository;
-        this.requestStatusLogRepository = requestStatusLogRepository;
+        this.documentCatalog = documentCatalog;
         this.userRepository = userRepository;
         this.paymentRepository = paymentRepository;
-        this.claimSlipRepository = claimSlipRepository;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.requestStatistics = requestStatistics;
+        this.requestTombstoneRepository = requestTombstoneRepository;
+        this.requestArchiveRepository = requestArchiveRepository;
+        this.requestWorkQueue = requestWorkQueue;
+        this.changesSettleLag = Duration.ofMillis(changesSettleLagMs);
+        this.claimLease = Duration.ofMinutes(claimLeaseMinutes);
     }
 
     // CREATE REQUEST (Notify Registrar)
@@ -58,51 +104,205 @@ public class RequestsService {
         request.setDocument(resolveDocument(request.getDocument()));
         RequestsEntity saved = requestsRepository.save(request);
 
-        // Fetch student info for message
-        String studentName = "A student";
-        String studentSid = null;
+        // Registrar notifications are sent by the outbox dispatcher after commit
+        String docName = saved.getDocument() != null ? saved.getDocument().getName() : null;
+        outboxService.record(OutboxEventEntity.Type.REQUEST_CREATED,
+                new RequestCreatedEvent(saved.getRequestId(), saved.getUserId(), docName));
+        requestStatistics.recordCreated(saved);
+        requestWorkQueue.recordSaved(saved);
+
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RequestSummaryDTO> findAll() {
+        return findAll(false);
+    }
+
+    // Archived requests are appended after the live ones when asked for
+    @Transactional(readOnly = true)
+    public List<RequestSummaryDTO> findAll(boolean includeArchived) {
+        List<RequestSummaryDTO> rows = attachProofs(requestsRepository.findAllSummaries());
+        if (!includeArchived) {
+            return rows;
+        }
+
+        List<RequestSummaryDTO> all = new ArrayList<>(rows);
+        all.addAll(attachArchivedProofs(requestArchiveRepository.findAllSummaries()));
+        return all;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RequestSummaryDTO> findByUserId(Long userId) {
+        return findByUserId(userId, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RequestSummaryDTO> findByUserId(Long userId, boolean includeArchived) {
+        List<RequestSummaryDTO> rows = attachProofs(requestsRepository.findSummariesByUserId(userId));
+        if (!includeArchived) {
+            return rows;
+        }
+
+        List<RequestSummaryDTO> all = new ArrayList<>(rows);
+        all.addAll(attachArchivedProofs(requestArchiveRepository.findSummariesByUserId(userId)));
+        return all;
+    }
+
+    /**
+     * Keyset-paginated, filtered listing ordered by (createdAt, requestId)
+     * descending. Each page is a bounded index range scan, so its cost does
+     * not depend on how deep the client has paged or how large the table is.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RequestSummaryDTO> findPage(RequestFilter filter) {
+        RequestsEntity.Status status = null;
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            status = RequestsEntity.Status.fromString(filter.getStatus());
+            if (status == null)
+                throw new IllegalArgumentException("Invalid status: " + filter.getStatus());
+        }
+
+        int limit = filter.getLimit() != null ? filter.getLimit() : DEFAULT_PAGE_SIZE;
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        KeysetCursor after = KeysetCursor.parse(filter.getAfter());
+
+        // Fetch one extra row to learn whether another page exists
+        List<RequestSummaryDTO> rows = attachProofs(requestsRepository.findPage(
+                status,
+                filter.getDocumentId(),
+                filter.getUserId(),
+                filter.getDateNeededFrom(),
+                filter.getDateNeededTo(),
+                after != null ? after.getTimestamp() : null,
+                after != null ? after.getId() : null,
+                limit + 1));
+
+        if (filter.isIncludeArchived()) {
+            // Both sources are read in the same keyset order; merging their
+            // first limit + 1 rows gives the first limit + 1 of the union
+            List<RequestSummaryDTO> archived = attachArchivedProofs(requestArchiveRepository.findPage(
+                    status,
+                    filter.getDocumentId(),
+                    filter.getUserId(),
+                    filter.getDateNeededFrom(),
+                    filter.getDateNeededTo(),
+                    after != null ? after.getTimestamp() : null,
+                    after != null ? after.getId() : null,
+                    limit + 1));
+            List<RequestSummaryDTO> merged = new ArrayList<>(rows);
+            merged.addAll(archived);
+            merged.sort(NEWEST_FIRST);
+            rows = merged.size() > limit + 1 ? merged.subList(0, limit + 1) : merged;
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            RequestSummaryDTO last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getRequestId()).toString();
+        }
+
+        return new CursorPage<>(rows, nextCursor);
+    }
 
-        if (saved.getUserId() != null) {
-            Optional<UserEntity> maybeUser = userRepository.findById(saved.getUserId().intValue());
-            if (maybeUser.isPresent()) {
-                UserEntity user = maybeUser.get();
-                studentName = user.getName() != null ? user.getName() : studentName;
-                studentSid = user.getSid();
+    /**
+     * Delta sync: requests created, changed or deleted after the watermark,
+     * merged from the requests table and the delete tombstones in
+     * (timestamp, id) order.
+     *
+     * Timestamps are taken before commit, so a slow transaction can land
+     * behind a watermark that was already handed out. The returned watermark
+     * therefore never moves past now minus the settle lag; rows inside that
+     * window are sent again on the next call, and clients apply them as
+     * upserts. Without "since" only the current watermark is returned; take
+     * it before loading the full list.
+     */
+    @Transactional(readOnly = true)
+    public RequestChangesDTO findChanges(String since, Long userId, Integer limit) {
+        KeysetCursor settled = new KeysetCursor(LocalDateTime.now().minus(changesSettleLag), 0L);
+        KeysetCursor after = KeysetCursor.parse(since);
+        if (after == null) {
+            return new RequestChangesDTO(List.of(), List.of(), settled.toString(), false);
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_CHANGES_LIMIT;
+        pageSize = Math.max(1, Math.min(pageSize, MAX_CHANGES_LIMIT));
+
+        List<RequestSummaryDTO> rows = requestsRepository.findChangedAfter(
+                after.getTimestamp(), after.getId(), userId, PageRequest.of(0, pageSize + 1));
+        List<RequestTombstoneEntity> tombstones = requestTombstoneRepository.findDeletedAfter(
+                after.getTimestamp(), after.getId(), userId, PageRequest.of(0, pageSize + 1));
+
+        List<RequestSummaryDTO> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        KeysetCursor last = after;
+        int r = 0;
+        int t = 0;
+        while (changed.size() + deleted.size() < pageSize && (r < rows.size() || t < tombstones.size())) {
+            KeysetCursor rowKey = r < rows.size()
+                    ? new KeysetCursor(rows.get(r).getUpdatedAt(), rows.get(r).getRequestId()) : null;
+            KeysetCursor tombstoneKey = t < tombstones.size()
+                    ? new KeysetCursor(tombstones.get(t).getDeletedAt(), tombstones.get(t).getRequestId()) : null;
+
+            if (tombstoneKey == null || (rowKey != null && rowKey.compareTo(tombstoneKey) < 0)) {
+                changed.add(rows.get(r++));
+                last = rowKey;
+            } else {
+                deleted.add(tombstones.get(t++).getRequestId());
+                last = tombstoneKey;
             }
         }
 
-        // Notify all registrars
-        List<UserEntity> registrars = userRepository.findByRole(UserEntity.Role.REGISTRAR);
-        String docName = saved.getDocument() != null ? saved.getDocument().getName() : "a document";
-
-        String message = String.format(
-                "New request submitted by %s%s for %s.",
-                studentName,
-                (studentSid != null ? " (SID: " + studentSid + ")" : ""),
-                docName
-        );
-
-        for (UserEntity reg : registrars) {
-            notificationService.sendNotification(
-                    reg.getUserId(),                  // ⭐ FIXED getUserId()
-                    saved.getRequestId(),
-                    message
-            );
+        boolean hasMore = r < rows.size() || t < tombstones.size();
+        KeysetCursor watermark = last;
+        if (last.compareTo(settled) > 0) {
+            // Hold the watermark back; the unsettled tail is sent again next time
+            watermark = after.compareTo(settled) > 0 ? after : settled;
+            hasMore = false;
         }
 
-        return saved;
+        return new RequestChangesDTO(attachProofs(changed), deleted, watermark.toString(), hasMore);
     }
 
+    /**
+     * Single request as a {@link RequestDetailDTO}: one projection query for
+     * the request, student and document, plus one for the payment proof.
+     */
     @Transactional(readOnly = true)
-    public List<RequestsEntity> findAll() {
-        List<RequestsEntity> requests = requestsRepository.findAll();
-        return enrichRequests(requests);
+    public RequestDetailDTO findDetailById(Long id) {
+        return findDetailById(id, false);
     }
 
+    // With includeArchived, a request no longer in the live table is looked up in the archive
     @Transactional(readOnly = true)
-    public List<RequestsEntity> findByUserId(Long userId) {
-        List<RequestsEntity> requests = requestsRepository.findByUserId(userId);
-        return enrichRequests(requests);
+    public RequestDetailDTO findDetailById(Long id, boolean includeArchived) {
+        RequestSummaryDTO row = requestsRepository.findSummaryById(id).orElse(null);
+        if (row != null) {
+            attachProofs(List.of(row));
+        } else if (includeArchived) {
+            row = requestArchiveRepository.findSummaryById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Request", "id", id));
+            attachArchivedProofs(List.of(row));
+        } else {
+            throw new ResourceNotFoundException("Request", "id", id);
+        }
+
+        return new RequestDetailDTO(
+                row.getRequestId(),
+                row.getUserId(),
+                row.getUserName(),
+                row.getStudentId(),
+                row.getDocumentName(),
+                null,
+                row.getCopies(),
+                row.getDateNeeded(),
+                row.getDateReady(),
+                row.getStatus().toString(),
+                row.getProofOfPayment(),
+                row.getCreatedAt(),
+                row.getUpdatedAt());
     }
 
     @Transactional(readOnly = true)
@@ -114,6 +314,10 @@ public class RequestsService {
 
     public RequestsEntity update(Long id, RequestsEntity payload) {
         RequestsEntity existing = findById(id);
+        Long oldUserId = existing.getUserId();
+        RequestsEntity.Status oldStatus = existing.getStatus();
+        String oldDocumentName = existing.getDocument() != null ? existing.getDocument().getName() : null;
+
         existing.setUserId(payload.getUserId());
         existing.setStatus(payload.getStatus());
         existing.setCopies(payload.getCopies());
@@ -125,133 +329,275 @@ public class RequestsService {
         if (payload.getDocument() != null)
             existing.setDocument(resolveDocument(payload.getDocument()));
 
-        return requestsRepository.save(existing);
+        RequestsEntity saved = requestsRepository.save(existing);
+        requestStatistics.recordReplaced(oldUserId, oldStatus, oldDocumentName, saved);
+        requestWorkQueue.recordSaved(saved);
+        return saved;
     }
 
     public void delete(Long id) {
         RequestsEntity existing = findById(id);
         requestsRepository.delete(existing);
+        requestTombstoneRepository.save(new RequestTombstoneEntity(existing.getRequestId(), existing.getUserId()));
+        requestStatistics.recordDeleted(existing);
+        requestWorkQueue.recordDeleted(existing.getRequestId());
     }
 
-    // UPDATE STATUS (Notify Student)
-    public RequestsEntity updateStatus(Long id, StatusUpdateRequest payload, Integer registrarUserId) {
+    /**
+     * The most urgent actionable requests, in {@link RequestWorkQueue}
+     * order. The order comes from memory; only the rows shown are read, with
+     * one projection query plus one for payment proofs. Rows that turn out
+     * to be closed already (changed on another node) are dropped from the
+     * queue.
+     */
+    @Transactional(readOnly = true)
+    public List<RequestSummaryDTO> findWorkQueue(Integer limit) {
+        int size = limit != null ? limit : DEFAULT_QUEUE_SIZE;
+        size = Math.max(1, Math.min(size, MAX_QUEUE_SIZE));
+
+        List<Long> ids = requestWorkQueue.peek(size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        RequestsEntity existing = findById(id);
+        Map<Long, RequestSummaryDTO> rowsById = new HashMap<>();
+        for (RequestSummaryDTO row : requestsRepository.findSummariesByIdIn(ids)) {
+            rowsById.put(row.getRequestId(), row);
+        }
+
+        List<RequestSummaryDTO> queue = new ArrayList<>(ids.size());
+        List<Long> stale = new ArrayList<>();
+        for (Long id : ids) {
+            RequestSummaryDTO row = rowsById.get(id);
+            if (row != null && RequestWorkQueue.ACTIONABLE.contains(row.getStatus())) {
+                queue.add(row);
+            } else {
+                stale.add(id);
+            }
+        }
+        if (!stale.isEmpty()) {
+            requestWorkQueue.evict(stale);
+        }
+
+        return attachProofs(queue);
+    }
+
+    /**
+     * Assigns the most urgent unclaimed open request to the registrar for
+     * the lease period. Candidates are read a window at a time in
+     * claim_priority order without locking; each is taken with a conditional
+     * UPDATE that only succeeds while the request is still open and
+     * unclaimed. A registrar who loses a race moves on to the next candidate,
+     * so concurrent claims get different requests and only come back empty
+     * once nothing is left to claim.
+     */
+    public Optional<RequestClaimDTO> claimNext(Integer registrarUserId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(claimLease);
+
+        Long afterPriority = Long.MIN_VALUE;
+        Long afterId = 0L;
+        List<Object[]> candidates;
+        do {
+            candidates = requestsRepository.findClaimCandidates(
+                    now, afterPriority, afterId, PageRequest.of(0, CLAIM_WINDOW));
+            for (Object[] candidate : candidates) {
+                Long id = (Long) candidate[0];
+                if (requestsRepository.assignIfClaimable(id, registrarUserId, leaseExpiresAt, now) == 1) {
+                    RequestSummaryDTO row = requestsRepository.findSummaryById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Request", "id", id));
+                    attachProofs(List.of(row));
+                    return Optional.of(new RequestClaimDTO(row, registrarUserId, leaseExpiresAt));
+                }
+                afterId = id;
+                afterPriority = (Long) candidate[1];
+            }
+        } while (candidates.size() == CLAIM_WINDOW);
+        return Optional.empty();
+    }
+
+    // Gives a claimed request back before its lease runs out
+    public void releaseClaim(Long id, Integer registrarUserId) {
+        if (requestsRepository.release(id, registrarUserId) == 0) {
+            if (!requestsRepository.existsById(id))
+                throw new ResourceNotFoundException("Request", "id", id);
+            throw new ConflictException("Request " + id + " is not claimed by you.");
+        }
+    }
+
+    // Served from memory; no transaction or connection needed
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RequestStatsDTO getStats(Long userId) {
+        return requestStatistics.getStats(userId);
+    }
+
+    /**
+     * UPDATE STATUS (Notify Student)
+     *
+     * Lean write path: reads only the status columns, then applies the change
+     * with a compare-and-set UPDATE conditioned on the status it read. If
+     * another registrar changed the request in between, no row matches and a
+     * {@link ConflictException} (409) is raised instead of overwriting.
+     */
+    public RequestStatusSnapshot updateStatus(Long id, StatusUpdateRequest payload, Integer registrarUserId) {
+
+        RequestStatusSnapshot current = requestsRepository.findStatusSnapshot(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Request", "id", id));
+        RequestsEntity.Status oldStatus = current.getStatus();
+        RequestsEntity.Status newStatus = parseStatus(payload.getStatus());
+
+        checkStatusTransition(oldStatus, newStatus);
+        LocalDateTime dateReady = nextDateReady(oldStatus, newStatus, current.getDateReady(), payload);
+
+        Long claimPriority = RequestsEntity.claimPriority(newStatus, current.getDateNeeded(), current.getCreatedAt());
+
+        int updated = requestsRepository.compareAndSetStatus(
+                id, oldStatus, newStatus, dateReady, claimPriority, LocalDateTime.now());
+        if (updated == 0) {
+            throw new ConflictException("Request " + id + " was changed by someone else; reload and try again.");
+        }
+
+        RequestStatusSnapshot result = new RequestStatusSnapshot(
+                id, current.getUserId(), newStatus, dateReady, current.getDateNeeded(), current.getCreatedAt());
+
+        // Status log, claim slip and student notification are applied by the
+        // outbox dispatcher after commit
+        StatusChangedEvent event = new StatusChangedEvent(newStatus.toString(), payload.getRemarks(), registrarUserId);
+        event.getChanges().add(new StatusChangedEvent.Change(id, result.getUserId(), oldStatus.toString(), dateReady));
+        outboxService.record(OutboxEventEntity.Type.REQUEST_STATUS_CHANGED, event);
+        requestStatistics.recordStatusChanged(result.getUserId(), oldStatus, newStatus);
+        requestWorkQueue.recordStatusChanged(id, oldStatus, newStatus);
+
+        return result;
+    }
+
+    /**
+     * Applies one status transition to many requests in a single transaction,
+     * following the same rules as {@link #updateStatus}. Requests are read and
+     * row-locked with one query and the side effects of the whole batch are
+     * recorded as a single outbox event. Rows that cannot transition are
+     * reported in the result and do not abort the rest of the batch.
+     */
+    public List<BatchStatusResultDTO> updateStatusBatch(BatchStatusUpdateRequest payload, Integer registrarUserId) {
+        RequestsEntity.Status newStatus = parseStatus(payload.getStatus());
+
+        List<Long> ids = payload.getRequestIds() == null
+                ? List.of()
+                : payload.getRequestIds().stream().filter(id -> id != null).distinct().toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, RequestsEntity> requestsById = new HashMap<>();
+        for (RequestsEntity request : requestsRepository.findAllByIdForUpdate(ids)) {
+            requestsById.put(request.getRequestId(), request);
+        }
+
+        List<BatchStatusResultDTO> results = new ArrayList<>();
+        StatusChangedEvent event = new StatusChangedEvent(newStatus.toString(), payload.getRemarks(), registrarUserId);
+
+        for (Long id : ids) {
+            RequestsEntity existing = requestsById.get(id);
+            if (existing == null) {
+                results.add(BatchStatusResultDTO.failed(id,
+                        new ResourceNotFoundException("Request", "id", id).getMessage()));
+                continue;
+            }
+
+            RequestsEntity.Status oldStatus = existing.getStatus();
+            try {
+                applyStatusTransition(existing, newStatus, payload);
+            } catch (IllegalArgumentException ex) {
+                results.add(BatchStatusResultDTO.failed(id, ex.getMessage()));
+                continue;
+            }
+
+            event.getChanges().add(toChange(existing, oldStatus));
+            requestStatistics.recordStatusChanged(existing.getUserId(), oldStatus, newStatus);
+            requestWorkQueue.recordStatusChanged(id, oldStatus, newStatus);
+            results.add(BatchStatusResultDTO.succeeded(id, newStatus));
+        }
+
+        if (!event.getChanges().isEmpty()) {
+            // Status changes are flushed as batched UPDATEs by dirty checking
+            requestsRepository.flush();
+            outboxService.record(OutboxEventEntity.Type.REQUEST_STATUS_CHANGED, event);
+        }
+
+        return results;
+    }
+
+    private StatusChangedEvent.Change toChange(RequestsEntity request, RequestsEntity.Status oldStatus) {
+        return new StatusChangedEvent.Change(
+                request.getRequestId(),
+                request.getUserId(),
+                oldStatus != null ? oldStatus.toString() : null,
+                request.getDateReady());
+    }
+
+    private RequestsEntity.Status parseStatus(String status) {
+        RequestsEntity.Status parsed = RequestsEntity.Status.fromString(status);
+        if (parsed == null)
+            throw new IllegalArgumentException("Invalid status: " + status);
+        return parsed;
+    }
+
+    /**
+     * Validates and applies a status change to the entity in memory,
+     * including the one-time date_ready assignment on first approval.
+     */
+    private void applyStatusTransition(RequestsEntity existing, RequestsEntity.Status newStatus,
+                                       StatusUpdateRequest payload) {
         RequestsEntity.Status oldStatus = existing.getStatus();
+        checkStatusTransition(oldStatus, newStatus);
 
-        RequestsEntity.Status newStatus = RequestsEntity.Status.fromString(payload.getStatus());
-        if (newStatus == null)
-            throw new IllegalArgumentException("Invalid status: " + payload.getStatus());
+        existing.setDateReady(nextDateReady(oldStatus, newStatus, existing.getDateReady(), payload));
+        existing.setStatus(newStatus);
+    }
 
+    private void checkStatusTransition(RequestsEntity.Status oldStatus, RequestsEntity.Status newStatus) {
         // Check if status is already the same
         if (oldStatus == newStatus) {
             throw new IllegalArgumentException("Request is already " + newStatus);
         }
+    }
 
-        existing.setStatus(newStatus);
-
+    private LocalDateTime nextDateReady(RequestsEntity.Status oldStatus, RequestsEntity.Status newStatus,
+                                        LocalDateTime currentDateReady, StatusUpdateRequest payload) {
         // --------------------------------------------------------
         // APPROVED LOGIC: Set date_ready ONCE when first approved
         // --------------------------------------------------------
         boolean isFirstTimeApproved = (oldStatus != RequestsEntity.Status.APPROVED 
                                         && newStatus == RequestsEntity.Status.APPROVED);
 
-        if (isFirstTimeApproved && existing.getDateReady() == null) {
-            // Only set date_ready if it's the first time being approved AND it's not already set
-            LocalDate parsedDateReady = null;
-            
-            if (payload.getDateReady() != null && !payload.getDateReady().trim().isEmpty()) {
-                try {
-                    String dateStr = payload.getDateReady().trim();
-                    // Handle ISO format with time (e.g., "2025-12-11T00:00:00" or "2025-12-11")
-                    if (dateStr.contains("T")) {
-                        dateStr = dateStr.split("T")[0];
-                    }
-                    // Try parsing as LocalDate (YYYY-MM-DD format)
-                    parsedDateReady = LocalDate.parse(dateStr);
-                } catch (Exception e) {
-                    // If parsing fails, will use today's date as fallback
-                }
-            }
-            
-            // Set date_ready: use parsed date or fallback to today
-            // Use noon (12:00:00) instead of midnight to avoid timezone conversion issues
-            if (parsedDateReady != null) {
-                existing.setDateReady(parsedDateReady.atTime(12, 0, 0));
-            } else {
-                existing.setDateReady(LocalDate.now().atTime(12, 0, 0));
-            }
-        }
-        // If not first time approved, don't touch date_ready
-
-        RequestsEntity updated = requestsRepository.save(existing);
-
-        // STATUS LOG
-        RequestStatusLogEntity log = new RequestStatusLogEntity();
-        log.setRequestId(id);
-        log.setOldStatus(oldStatus != null ? oldStatus.toString() : null);
-        log.setNewStatus(newStatus.toString());
-        // Use registrar's user ID (the one updating the status), not the student's
-        log.setChangedBy(registrarUserId != null ? registrarUserId : 0);
-        log.setRemarks(payload.getRemarks());
-
-        requestStatusLogRepository.save(log);
-
-        // GENERATE CLAIM SLIP IF STATUS IS APPROVED
-        if (newStatus == RequestsEntity.Status.APPROVED) {
-            // Check if claim slip already exists
-            Optional<ClaimSlipEntity> existingClaim = claimSlipRepository.findByRequestId(id);
-
-            if (existingClaim.isEmpty()) {
-                // Create claim slip only once when first approved
-                ClaimSlipEntity claimSlip = new ClaimSlipEntity();
-                claimSlip.setRequestId(id);
-                
-                // Generate claim number: REQ-YYYY-XXX format
-                int year = Year.now().getValue();
-                // Use request ID as sequence number, padded to 3 digits
-                String claimNumber = String.format("REQ-%d-%03d", year, id.intValue());
-                claimSlip.setClaimNumber(claimNumber);
-                
-                // Set date ready: use request's date_ready or fallback to today
-                LocalDate claimDate = (updated.getDateReady() != null) 
-                    ? updated.getDateReady().toLocalDate() 
-                    : LocalDate.now();
-                claimSlip.setDateReady(claimDate);
-                
-                // Set issued by to the registrar who approved it
-                claimSlip.setIssuedBy(registrarUserId != null ? registrarUserId : 0);
-                
-                claimSlipRepository.save(claimSlip);
-            }
-            // If claim slip already exists, don't modify it
+        if (!isFirstTimeApproved || currentDateReady != null) {
+            // If not first time approved, don't touch date_ready
+            return currentDateReady;
         }
 
-        // SEND NOTIFICATION TO STUDENT
-        if (existing.getUserId() != null) {
-            int studentUserId = existing.getUserId().intValue();
-            String requestIdStr = String.format("REQ-%d", existing.getRequestId());
-            String statusStr = newStatus.toString().toUpperCase();
-            
-            String notifMessage = String.format(
-                    "Your document request (%s) is now %s.",
-                    requestIdStr,
-                    statusStr
-            );
-            
-            // Add remarks if provided
-            if (payload.getRemarks() != null && !payload.getRemarks().trim().isEmpty()) {
-                notifMessage += " Remarks: " + payload.getRemarks().trim();
+        // Only set date_ready if it's the first time being approved AND it's not already set
+        LocalDate parsedDateReady = null;
+        
+        if (payload.getDateReady() != null && !payload.getDateReady().trim().isEmpty()) {
+            try {
+                String dateStr = payload.getDateReady().trim();
+                // Handle ISO format with time (e.g., "2025-12-11T00:00:00" or "2025-12-11")
+                if (dateStr.contains("T")) {
+                    dateStr = dateStr.split("T")[0];
+                }
+                // Try parsing as LocalDate (YYYY-MM-DD format)
+                parsedDateReady = LocalDate.parse(dateStr);
+            } catch (Exception e) {
+                // If parsing fails, will use today's date as fallback
             }
-
-            notificationService.sendNotification(
-                    studentUserId,
-                    existing.getRequestId(),
-                    notifMessage
-            );
         }
-
-        return enrichRequest(updated);
+        
+        // Set date_ready: use parsed date or fallback to today
+        // Use noon (12:00:00) instead of midnight to avoid timezone conversion issues
+        if (parsedDateReady != null) {
+            return parsedDateReady.atTime(12, 0, 0);
+        }
+        return LocalDate.now().atTime(12, 0, 0);
     }
 
     private DocumentsEntity resolveDocument(DocumentsEntity documentPayload) {
@@ -260,7 +606,8 @@ public class RequestsService {
 
         Long documentId = documentPayload.getDocumentId();
 
-        return documentsRepository.findById(documentId)
+        // Detached copy from the in-memory catalog; only its id is written
+        return documentCatalog.copyOf(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
     }
 
@@ -285,7 +632,44 @@ public class RequestsService {
         return request;
     }
 
-    private List<RequestsEntity> enrichRequests(List<RequestsEntity> requests) {
-        return requests.stream().map(this::enrichRequest).toList();
+    /**
+     * Fills in proofOfPayment for list rows with one batched query, whatever
+     * the size of the list. When a request has several uploads the most
+     * recent one wins.
+     */
+    private List<RequestSummaryDTO> attachProofs(List<RequestSummaryDTO> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        return applyProofs(rows, paymentRepository.findProofsByRequestIdIn(requestIdsOf(rows)));
+    }
+
+    // Same as attachProofs, reading the archived payments
+    private List<RequestSummaryDTO> attachArchivedProofs(List<RequestSummaryDTO> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        return applyProofs(rows, requestArchiveRepository.findProofsByRequestIdIn(requestIdsOf(rows)));
+    }
+
+    private static Set<Long> requestIdsOf(List<RequestSummaryDTO> rows) {
+        return rows.stream()
+                .map(RequestSummaryDTO::getRequestId)
+                .collect(Collectors.toSet());
+    }
+
+    private static List<RequestSummaryDTO> applyProofs(List<RequestSummaryDTO> rows, List<Object[]> proofs) {
+        Map<Long, String> proofsByRequestId = new HashMap<>();
+        for (Object[] proof : proofs) {
+            proofsByRequestId.put((Long) proof[0], (String) proof[1]);
+        }
+
+        for (RequestSummaryDTO row : rows) {
+            row.setProofOfPayment(proofsByRequestId.get(row.getRequestId()));
+        }
+
+        return rows;
     }
 }
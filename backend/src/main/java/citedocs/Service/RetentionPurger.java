@@ -0,0 +1,196 @@
+package citedocs.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.DTO.RetentionRunDTO;
+import citedocs.Entity.RetentionMarkEntity;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Repository.NotificationRepositoryCustom;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestStatusLogRepositoryCustom;
+import citedocs.Repository.RetentionMarkRepository;
+
+/**
+ * Nightly retention for tables that otherwise only grow.
+ *
+ * Deletes read notifications older than
+ * citedocs.retention.notification-days (read by flag or by the user's read
+ * mark), along with role broadcasts of that age, which have no single read
+ * state. Optionally moves status logs older than
+ * citedocs.retention.status-log-archive-days into request_status_log_archive,
+ * where includeArchived=true reads still find them.
+ *
+ * Both walk the primary key in ranges of chunk-size ids, each deleted in
+ * its own short transaction, and pause pause-ms between chunks so locks and
+ * undo stay small and replicas keep up. A walk stops at the first range that
+ * starts after the cutoff; the occasional older row behind it is picked up
+ * by a later run.
+ *
+ * Old notifications that are still unread stay behind at the bottom of the
+ * table, so the notification walk resumes where the last one stopped, kept
+ * in retention_marks, instead of stepping over them every night. Once every
+ * full-walk-days it starts from the bottom again, for rows read since.
+ * Status logs are all moved once old enough, so that walk starts from the
+ * oldest row. Archiving ignores logs already copied, so runs on several
+ * nodes at once do not fail on each other's rows.
+ */
+@Component
+public class RetentionPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionPurger.class);
+
+    static final String NOTIFICATIONS_MARK = "notifications";
+
+    private final NotificationRepository notificationRepository;
+    private final RequestStatusLogRepository requestStatusLogRepository;
+    private final RetentionMarkRepository retentionMarkRepository;
+    private final UnreadCountCache unreadCountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int notificationDays;
+    private final int statusLogArchiveDays;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int fullWalkDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Rows removed and chunks used by one walk
+    private static final class Tally {
+        private long rows;
+        private int chunks;
+    }
+
+    public RetentionPurger(NotificationRepository notificationRepository,
+                           RequestStatusLogRepository requestStatusLogRepository,
+                           RetentionMarkRepository retentionMarkRepository,
+                           UnreadCountCache unreadCountCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${citedocs.retention.notification-days:90}") int notificationDays,
+                           @Value("${citedocs.retention.status-log-archive-days:0}") int statusLogArchiveDays,
+                           @Value("${citedocs.retention.chunk-size:1000}") int chunkSize,
+                           @Value("${citedocs.retention.pause-ms:50}") long pauseMs,
+                           @Value("${citedocs.retention.full-walk-days:30}") int fullWalkDays) {
+        this.notificationRepository = notificationRepository;
+        this.requestStatusLogRepository = requestStatusLogRepository;
+        this.retentionMarkRepository = retentionMarkRepository;
+        this.unreadCountCache = unreadCountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationDays = notificationDays;
+        this.statusLogArchiveDays = statusLogArchiveDays;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.fullWalkDays = fullWalkDays;
+    }
+
+    @Scheduled(cron = "${citedocs.retention.cron:0 0 3 * * *}")
+    public void purgeScheduled() {
+        purge();
+    }
+
+    /**
+     * Runs one purge. Returns what it removed, or null if another run on this
+     * node is in progress.
+     */
+    public RetentionRunDTO purge() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long started = System.nanoTime();
+            Tally notifications = new Tally();
+            if (notificationDays > 0) {
+                purgeNotifications(startedAt, startedAt.minusDays(notificationDays), notifications);
+                if (notifications.rows > 0) {
+                    // Broadcasts may have been unread for some users
+                    unreadCountCache.invalidateAllAfterCommit();
+                }
+            }
+
+            Tally statusLogs = new Tally();
+            if (statusLogArchiveDays > 0) {
+                archiveStatusLogs(startedAt.minusDays(statusLogArchiveDays), statusLogs);
+            }
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            int chunks = notifications.chunks + statusLogs.chunks;
+            log.info("Retention purge deleted {} notifications and archived {} status logs in {} chunks, {} ms",
+                    notifications.rows, statusLogs.rows, chunks, elapsedMs);
+            return new RetentionRunDTO(startedAt, notifications.rows, statusLogs.rows, chunks, elapsedMs);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void purgeNotifications(LocalDateTime startedAt, LocalDateTime cutoff, Tally tally) {
+        RetentionMarkEntity mark = retentionMarkRepository.findById(NOTIFICATIONS_MARK).orElse(null);
+        boolean fullWalk = mark == null || mark.getSweptAt() == null
+                || mark.getSweptAt().isBefore(startedAt.minusDays(fullWalkDays));
+        int startId = fullWalk ? 0 : (int) Math.min(mark.getNextId(), Integer.MAX_VALUE);
+
+        NotificationRepositoryCustom.Head head = notificationRepository.findHead(startId);
+        while (head != null && isBefore(head.createdAt(), cutoff)) {
+            int fromId = head.notificationId();
+            int toId = fromId + chunkSize;
+            Integer deleted = transactionTemplate.execute(status -> {
+                retentionMarkRepository.advance(NOTIFICATIONS_MARK, toId);
+                return notificationRepository.deleteReadBefore(fromId, toId, cutoff);
+            });
+            tally.rows += deleted != null ? deleted : 0;
+            tally.chunks++;
+            if (!pause()) {
+                // Interrupted; the next run walks from the bottom again
+                return;
+            }
+            head = notificationRepository.findHead(toId);
+        }
+        if (fullWalk) {
+            transactionTemplate.executeWithoutResult(
+                    status -> retentionMarkRepository.markSwept(NOTIFICATIONS_MARK, startedAt));
+        }
+    }
+
+    private void archiveStatusLogs(LocalDateTime cutoff, Tally tally) {
+        RequestStatusLogRepositoryCustom.Head head = requestStatusLogRepository.findHead(0);
+        while (head != null && isBefore(head.changedAt(), cutoff)) {
+            long fromId = head.logId();
+            long toId = fromId + chunkSize;
+            Integer moved = transactionTemplate.execute(
+                    status -> requestStatusLogRepository.archiveBefore(fromId, toId, cutoff));
+            tally.rows += moved != null ? moved : 0;
+            tally.chunks++;
+            if (!pause()) {
+                break;
+            }
+            head = requestStatusLogRepository.findHead(toId);
+        }
+    }
+
+    // Rows without a timestamp do not stop the walk; the deletes skip them
+    private static boolean isBefore(LocalDateTime at, LocalDateTime cutoff) {
+        return at == null || at.isBefore(cutoff);
+    }
+
+    private boolean pause() {
+        if (pauseMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
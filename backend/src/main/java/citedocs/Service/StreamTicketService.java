@@ -0,0 +1,106 @@
+package citedocs.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import citedocs.DTO.StreamTicketDTO;
+import citedocs.Entity.StreamTicketEntity;
+import citedocs.Repository.StreamTicketRepository;
+
+/**
+ * Issues and redeems notification stream tickets, so the long-lived JWT
+ * never appears in a URL (and with it in proxy and access logs). A ticket
+ * is random, valid for a few seconds and works once; tickets live in the
+ * database so any node can redeem one issued by another.
+ */
+@Component
+public class StreamTicketService {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamTicketService.class);
+    private static final int TICKET_BYTES = 32;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final StreamTicketRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public StreamTicketService(StreamTicketRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${citedocs.notifications.stream.ticket-ttl-seconds:30}") long ttlSeconds) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public StreamTicketDTO issue(int userId) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+
+        requiresNew.executeWithoutResult(status ->
+                repository.save(new StreamTicketEntity(sha256(ticket), userId, expiresAt)));
+        return new StreamTicketDTO(ticket, expiresAt);
+    }
+
+    /**
+     * Returns the user a ticket was issued to and uses it up; empty for an
+     * unknown, expired or already redeemed ticket.
+     */
+    public Optional<Integer> redeem(String ticket) {
+        if (!StringUtils.hasText(ticket)) {
+            return Optional.empty();
+        }
+        String ticketHash = sha256(ticket);
+        return requiresNew.execute(status -> {
+            Optional<StreamTicketEntity> stored = repository.findById(ticketHash);
+            if (stored.isEmpty() || repository.redeem(ticketHash, LocalDateTime.now()) == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(stored.get().getUserId());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${citedocs.notifications.stream.ticket-purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = requiresNew.execute(status -> repository.deleteExpired(now, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+
+        if (total > 0) {
+            log.debug("Purged {} expired stream tickets", total);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package citedocs.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import citedocs.Entity.NotificationReadMarkEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.NotificationReadMarkRepository;
+import citedocs.Repository.NotificationRepository;
+
+/**
+ * Per-user unread notification counts for the bell, kept in a bounded LRU.
+ *
+ * Notification writes in {@link NotificationService} adjust cached counts
+ * once their transaction commits; users that are not cached are left alone
+ * and counted with a COUNT(*) on the (user_id, is_read, created_at) index,
+ * above their read watermark, plus the broadcasts to their role they have
+ * not read, on their next read. A load that raced with a
+ * write is not cached, and the TTL bounds staleness for writes made on
+ * other nodes.
+ */
+@Component
+public class UnreadCountCache {
+
+    private static final class Entry {
+        private int count;
+        private final long loadedAt;
+
+        private Entry(int count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadMarkRepository readMarkRepository;
+    private final RegistrarRoster registrarRoster;
+    private final long ttlMillis;
+    private final Map<Integer, Entry> counts;
+
+    // Bumped on every write so a load that raced with it is discarded
+    private final AtomicLong generation = new AtomicLong();
+
+    public UnreadCountCache(NotificationRepository notificationRepository,
+                            NotificationReadMarkRepository readMarkRepository,
+                            RegistrarRoster registrarRoster,
+                            @Value("${citedocs.notifications.unread-cache-size:10000}") int cacheSize,
+                            @Value("${citedocs.notifications.unread-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.readMarkRepository = readMarkRepository;
+        this.registrarRoster = registrarRoster;
+        this.ttlMillis = ttlSeconds * 1000;
+        int maxEntries = Math.max(1, cacheSize);
+        this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public int unreadCount(int userId) {
+        synchronized (counts) {
+            Entry entry = counts.get(userId);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttlMillis) {
+                return entry.count;
+            }
+        }
+
+        long loadGeneration = generation.get();
+        List<Integer> readIds = NotificationService.readBroadcastIds(readMarkRepository.findById(userId)
+                .map(NotificationReadMarkEntity::readBroadcastIdsAboveMark).orElse(null));
+        UserEntity.Role role = registrarRoster.roleOf(userId);
+        long unread = notificationRepository.countUnread(userId)
+                + (role != null ? notificationRepository.countUnreadBroadcasts(role, userId, readIds) : 0);
+        int count = Math.toIntExact(unread);
+
+        synchronized (counts) {
+            if (generation.get() == loadGeneration) {
+                counts.put(userId, new Entry(count, System.currentTimeMillis()));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Applies per-user changes to the cached counts after the current
+     * transaction commits, or right away outside a transaction.
+     */
+    public void adjustAfterCommit(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            synchronized (counts) {
+                deltas.forEach((userId, delta) -> {
+                    Entry entry = counts.get(userId);
+                    if (entry == null) {
+                        return;
+                    }
+                    entry.count += delta;
+                    if (entry.count < 0) {
+                        counts.remove(userId);
+                    }
+                });
+            }
+        });
+    }
+
+    public void adjustAfterCommit(int userId, int delta) {
+        adjustAfterCommit(Map.of(userId, delta));
+    }
+
+    /**
+     * Applies a change to the cached count of every user with the role, for
+     * broadcasts, after the current transaction commits.
+     */
+    public void adjustRoleAfterCommit(UserEntity.Role role, int delta) {
+        AfterCommit.run(() -> {
+            Set<Integer> registrars = new HashSet<>(registrarRoster.registrarIds());
+            boolean toRegistrars = role == UserEntity.Role.REGISTRAR;
+            generation.incrementAndGet();
+            synchronized (counts) {
+                counts.entrySet().removeIf(cached -> {
+                    if (registrars.contains(cached.getKey()) != toRegistrars) {
+                        return false;
+                    }
+                    if (!toRegistrars) {
+                        // Other roles are not kept in memory; recount on the next read
+                        return true;
+                    }
+                    cached.getValue().count += delta;
+                    return cached.getValue().count < 0;
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops cached counts after the current transaction commits, for writes
+     * whose effect on the count is not known.
+     */
+    public void invalidateAfterCommit(int... userIds) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            synchronized (counts) {
+                for (int userId : userIds) {
+                    counts.remove(userId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops every cached count after the current transaction commits, for
+     * edits to broadcasts.
+     */
+    public void invalidateAllAfterCommit() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            synchronized (counts) {
+                counts.clear();
+            }
+        });
+    }
+}
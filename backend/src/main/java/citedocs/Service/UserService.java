@@ -14,9 +14,11 @@ import citedocs.Repository.UserRepository;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RegistrarRoster registrarRoster;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, RegistrarRoster registrarRoster) {
         this.userRepository = userRepository;
+        this.registrarRoster = registrarRoster;
     }
 
     // ========================
@@ -48,6 +50,7 @@ public class UserService {
     // CREATE USER (called by AuthService)
     // ========================
     public UserEntity create(UserEntity user) {
+        registrarRoster.invalidate();
         return userRepository.save(user);
     }
 
@@ -64,6 +67,7 @@ public class UserService {
         existing.setSid(payload.getSid());
         existing.setAid(payload.getAid());
 
+        registrarRoster.invalidate();
         return userRepository.save(existing);
     }
 
@@ -72,6 +76,7 @@ public class UserService {
     // ========================
     public void delete(int id) {
         UserEntity existing = findById(id);
+        registrarRoster.invalidate();
         userRepository.delete(existing);
     }
 }
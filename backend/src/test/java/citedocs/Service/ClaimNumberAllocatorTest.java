@@ -0,0 +1,209 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.DTO.StatusChangedEvent;
+import citedocs.Entity.ClaimSlipEntity;
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.ClaimNumberSequenceRepository;
+import citedocs.Repository.ClaimSlipRepository;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class ClaimNumberAllocatorTest {
+
+    // Years no other test issues numbers for
+    private static final int MIGRATION_YEAR = 2090;
+    private static final int NEXT_YEAR = 2091;
+    private static final int CONCURRENT_YEAR = 2092;
+
+    @Autowired
+    private ClaimNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private ClaimSlipRepository claimSlipRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClaimNumberAllocator claimNumberAllocator;
+
+    @Autowired
+    private RequestEventHandler requestEventHandler;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private RequestStatusLogRepository requestStatusLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        claimSlipRepository.deleteAll();
+        sequenceRepository.deleteAllById(List.of(MIGRATION_YEAR, NEXT_YEAR, CONCURRENT_YEAR));
+    }
+
+    @Test
+    void continuesAboveLegacyNumbersOnlyInTheirYear() {
+        // numbers issued before the sequence existed were the request id
+        claimSlipRepository.save(slip(99L, "REQ-" + MIGRATION_YEAR + "-099"));
+        claimSlipRepository.save(slip(1250L, "REQ-" + MIGRATION_YEAR + "-1250"));
+        claimSlipRepository.save(slip(1300L, "REQ-" + (MIGRATION_YEAR - 1) + "-1300"));
+
+        ClaimNumberAllocator allocator = allocator(10);
+        assertEquals("REQ-" + MIGRATION_YEAR + "-1251", allocator.nextClaimNumber(MIGRATION_YEAR));
+        assertEquals("REQ-" + MIGRATION_YEAR + "-1252", allocator.nextClaimNumber(MIGRATION_YEAR));
+
+        // the following year starts over instead of inheriting the offset
+        assertEquals("REQ-" + NEXT_YEAR + "-001", allocator.nextClaimNumber(NEXT_YEAR));
+        assertEquals("REQ-" + NEXT_YEAR + "-002", allocator.nextClaimNumber(NEXT_YEAR));
+        assertEquals("REQ-" + MIGRATION_YEAR + "-1253", allocator.nextClaimNumber(MIGRATION_YEAR));
+        assertEquals(11, sequenceRepository.findById(NEXT_YEAR).orElseThrow().getNextValue());
+    }
+
+    @Test
+    void nodesReserveDisjointBlocksConcurrently() throws Exception {
+        List<ClaimNumberAllocator> nodes = List.of(allocator(3), allocator(3), allocator(3));
+        int threadsPerNode = 2;
+        int numbersPerThread = 25;
+
+        ConcurrentLinkedQueue<String> issued = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(nodes.size() * threadsPerNode);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ClaimNumberAllocator node : nodes) {
+                for (int t = 0; t < threadsPerNode; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < numbersPerThread; i++) {
+                            issued.add(node.nextClaimNumber(CONCURRENT_YEAR));
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int total = nodes.size() * threadsPerNode * numbersPerThread;
+        Set<String> distinct = new HashSet<>(issued);
+        assertEquals(total, distinct.size());
+        // every block was reserved exactly once, so at most one partial block per node is left
+        long reserved = sequenceRepository.findById(CONCURRENT_YEAR).orElseThrow().getNextValue() - 1;
+        assertTrue(reserved >= total && reserved <= total + nodes.size() * 3);
+    }
+
+    @Test
+    void upsertRejectsClaimNumberHeldByAnotherRequest() {
+        claimSlipRepository.save(slip(1L, "REQ-" + MIGRATION_YEAR + "-001"));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThrows(DuplicateKeyException.class, () -> transaction.executeWithoutResult(status ->
+                claimSlipRepository.upsertAll(List.of(slip(2L, "REQ-" + MIGRATION_YEAR + "-001")))));
+
+        // the same request again is still a no-op
+        transaction.executeWithoutResult(status ->
+                claimSlipRepository.upsertAll(List.of(slip(1L, "REQ-" + MIGRATION_YEAR + "-002"))));
+        assertEquals("REQ-" + MIGRATION_YEAR + "-001",
+                claimSlipRepository.findByRequestId(1L).orElseThrow().getClaimNumber());
+        assertTrue(claimSlipRepository.findByRequestId(2L).isEmpty());
+    }
+
+    @Test
+    void approvingAgainKeepsTheSlipAndTakesNoNumber() throws Exception {
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(9501L);
+        request.setDocument(documentsRepository.findAll().get(0));
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now());
+        Long requestId = requestsRepository.save(request).getRequestId();
+        try {
+            approve(requestId);
+            String claimNumber = claimSlipRepository.findByRequestId(requestId).orElseThrow().getClaimNumber();
+            long reserved = sequenceRepository.findById(Year.now().getValue()).orElseThrow().getNextValue();
+
+            // re-approval, or the same event delivered again
+            approve(requestId);
+            approve(requestId);
+
+            assertEquals(1, claimSlipRepository.findByRequestIdIn(List.of(requestId)).size());
+            assertEquals(claimNumber, claimSlipRepository.findByRequestId(requestId).orElseThrow().getClaimNumber());
+            assertEquals(reserved, sequenceRepository.findById(Year.now().getValue()).orElseThrow().getNextValue());
+            assertEquals(sequenceNumber(claimNumber) + 1, sequenceNumber(claimNumberAllocator.nextClaimNumber()));
+        } finally {
+            requestStatusLogRepository.deleteAll();
+            notificationRepository.deleteAll();
+            requestsRepository.deleteById(requestId);
+        }
+    }
+
+    private void approve(Long requestId) throws Exception {
+        StatusChangedEvent payload = new StatusChangedEvent("APPROVED", null, 1);
+        payload.getChanges().add(new StatusChangedEvent.Change(requestId, 9501L, "PENDING", null));
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setEventType(OutboxEventEntity.Type.REQUEST_STATUS_CHANGED);
+        event.setPayload(objectMapper.writeValueAsString(payload));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> requestEventHandler.apply(event));
+    }
+
+    private static long sequenceNumber(String claimNumber) {
+        return Long.parseLong(claimNumber.substring(claimNumber.lastIndexOf('-') + 1));
+    }
+
+    private ClaimNumberAllocator allocator(int blockSize) {
+        return new ClaimNumberAllocator(sequenceRepository, claimSlipRepository, transactionManager, blockSize);
+    }
+
+    private ClaimSlipEntity slip(Long requestId, String claimNumber) {
+        ClaimSlipEntity slip = new ClaimSlipEntity();
+        slip.setRequestId(requestId);
+        slip.setClaimNumber(claimNumber);
+        slip.setDateReady(LocalDate.now());
+        slip.setIssuedBy(0);
+        return slip;
+    }
+}
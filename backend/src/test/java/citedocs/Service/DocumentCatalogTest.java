@@ -0,0 +1,81 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import citedocs.StatementCounter;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class DocumentCatalogTest {
+
+    @Autowired
+    private DocumentsService documentsService;
+
+    @Autowired
+    private DocumentCatalog documentCatalog;
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+    }
+
+    @Test
+    void catalogIsServedFromMemoryAndSwappedOnWrite() {
+        DocumentCatalog.Snapshot before = documentsService.findAll();
+
+        StatementCounter.reset();
+        assertSame(before, documentsService.findAll());
+        assertEquals(0, StatementCounter.count());
+
+        DocumentsEntity added = new DocumentsEntity();
+        added.setName("Certificate of Graduation");
+        added.setDescription("Issued to graduates");
+        added = documentsService.create(added);
+
+        DocumentCatalog.Snapshot after = documentsService.findAll();
+        assertEquals(before.version() + 1, after.version());
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.byId().containsKey(added.getDocumentId()));
+
+        documentsService.delete(added.getDocumentId());
+        assertEquals(before.etag(), documentsService.findAll().etag());
+    }
+
+    @Test
+    void requestCreationResolvesDocumentWithoutQuery() {
+        DocumentsEntity document = documentsService.findAll().documents().get(0);
+        DocumentsEntity reference = new DocumentsEntity();
+        reference.setDocumentId(document.getDocumentId());
+
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(reference);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now().plusDays(7));
+
+        StatementCounter.reset();
+        RequestsEntity saved = requestsService.create(request);
+
+        // request insert and outbox insert only
+        assertEquals(2, StatementCounter.count());
+        assertEquals(document.getName(), saved.getDocument().getName());
+    }
+}
@@ -0,0 +1,113 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestStatusLogEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private RequestStatusLogRepository requestStatusLogRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        requestStatusLogRepository.deleteAll();
+        requestsRepository.deleteAll();
+    }
+
+    @Test
+    void exportsRequestsAsCsvAndNdjson() throws IOException {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        for (int i = 0; i < 3; i++) {
+            RequestsEntity request = new RequestsEntity();
+            request.setUserId(1L);
+            request.setDocument(document);
+            request.setCopies(i + 1);
+            request.setDateNeeded(LocalDate.now().plusDays(7));
+            requestsRepository.save(request);
+        }
+
+        String csv = new String(drain(exportService.exportRequests("csv", null, null, false)), StandardCharsets.UTF_8);
+        List<String> lines = csv.lines().toList();
+        assertEquals(4, lines.size());
+        assertEquals(String.join(",", ExportService.REQUEST_COLUMNS), lines.get(0));
+        assertTrue(lines.get(3).contains("," + document.getName() + ",PENDING,3,"));
+
+        String ndjson = new String(drain(exportService.exportRequests("ndjson", null, null, false)), StandardCharsets.UTF_8);
+        List<String> records = ndjson.lines().toList();
+        assertEquals(3, records.size());
+        JsonNode first = objectMapper.readTree(records.get(0));
+        assertEquals(1, first.get("copies").asInt());
+        assertEquals("PENDING", first.get("status").asText());
+
+        // Date filters are inclusive and exclude everything outside the range
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        String empty = new String(drain(exportService.exportRequests("csv", tomorrow, tomorrow, false)), StandardCharsets.UTF_8);
+        assertEquals(1, empty.lines().count());
+    }
+
+    @Test
+    void exportsStatusLogsGzipped() throws IOException {
+        RequestStatusLogEntity log = new RequestStatusLogEntity();
+        log.setRequestId(7L);
+        log.setOldStatus("PENDING");
+        log.setNewStatus("REJECTED");
+        log.setRemarks("=SUM(A1), \"blurry\" proof");
+        log.setChangedBy(1);
+        requestStatusLogRepository.insertAll(List.of(log));
+
+        ResponseEntity<StreamingResponseBody> response =
+                exportService.exportStatusLogs("csv", LocalDate.now(), LocalDate.now(), true);
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+
+        byte[] zipped = drain(response);
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(zipped)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        List<String> lines = csv.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains(",PENDING,REJECTED,\"'=SUM(A1), \"\"blurry\"\" proof\",1,"));
+    }
+
+    private byte[] drain(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,170 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Exception.ConflictException;
+import citedocs.Repository.IdempotencyKeyRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsService documentsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void retryReplaysStoredResponseWithoutCreatingAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<Object> first = idempotencyService.execute("key-1", "test#1", newRequest(),
+                () -> { runs.incrementAndGet(); return requestsService.create(newRequest()); });
+        ResponseEntity<Object> retry = idempotencyService.execute("key-1", "test#1", newRequest(),
+                () -> { runs.incrementAndGet(); return requestsService.create(newRequest()); });
+
+        assertEquals(1, runs.get());
+        assertEquals(1, requestsRepository.count());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        Long requestId = ((RequestsEntity) first.getBody()).getRequestId();
+        assertEquals(true, ((String) retry.getBody()).contains("\"requestId\":" + requestId));
+    }
+
+    @Test
+    void otherNodeReplaysFromTable() {
+        idempotencyService.execute("key-2", "test#1", newRequest(), () -> requestsService.create(newRequest()));
+
+        // A fresh instance has an empty cache, like another node
+        IdempotencyService otherNode = new IdempotencyService(idempotencyKeyRepository, objectMapper,
+                transactionManager, 24, 120, 100);
+        AtomicInteger runs = new AtomicInteger();
+        ResponseEntity<Object> retry = otherNode.execute("key-2", "test#1", newRequest(),
+                () -> { runs.incrementAndGet(); return requestsService.create(newRequest()); });
+
+        assertEquals(0, runs.get());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, requestsRepository.count());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        idempotencyService.execute("key-3", "test#1", newRequest(), () -> requestsService.create(newRequest()));
+
+        RequestsEntity different = newRequest();
+        different.setCopies(5);
+        assertThrows(ConflictException.class, () -> idempotencyService.execute("key-3", "test#1", different,
+                () -> requestsService.create(different)));
+    }
+
+    @Test
+    void failedAttemptReleasesKeyAndRollsBack() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-4", "test#1", newRequest(),
+                () -> {
+                    requestsService.create(newRequest());
+                    throw new IllegalStateException("disk full");
+                }));
+        assertEquals(0, requestsRepository.count());
+        assertEquals(0, idempotencyKeyRepository.count());
+
+        idempotencyService.execute("key-4", "test#1", newRequest(), () -> requestsService.create(newRequest()));
+        assertEquals(1, requestsRepository.count());
+    }
+
+    @Test
+    void keyStillInProgressIsAConflict() throws NoSuchAlgorithmException {
+        // Simulate the first attempt still running on another node
+        LocalDateTime now = LocalDateTime.now();
+        String keyHash = sha256Of("test#1\nkey-6");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                idempotencyKeyRepository.insertClaim(keyHash, "x", now, now.plusHours(1)));
+
+        assertThrows(ConflictException.class, () -> idempotencyService.execute("key-6", "test#1", newRequest(),
+                () -> requestsService.create(newRequest())));
+        assertEquals(0, requestsRepository.count());
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            idempotencyKeyRepository.insertClaim("expired", "x", now.minusDays(2), now.minusDays(1));
+            idempotencyKeyRepository.insertClaim("live", "x", now, now.plusDays(1));
+        });
+
+        idempotencyService.purgeExpired();
+
+        assertEquals(1, idempotencyKeyRepository.count());
+        assertEquals(true, idempotencyKeyRepository.existsById("live"));
+    }
+
+    @Test
+    void requestsWithoutKeyAlwaysRun() {
+        idempotencyService.execute(null, "test#1", newRequest(), () -> requestsService.create(newRequest()));
+        idempotencyService.execute(null, "test#1", newRequest(), () -> requestsService.create(newRequest()));
+
+        assertEquals(2, requestsRepository.count());
+        assertEquals(0, idempotencyKeyRepository.count());
+    }
+
+    private RequestsEntity newRequest() {
+        DocumentsEntity document = new DocumentsEntity();
+        document.setDocumentId(documentsService.findAll().documents().get(0).getDocumentId());
+
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.of(2030, 1, 15));
+        return request;
+    }
+
+    private static String sha256Of(String value) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,315 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.StatementCounter;
+import citedocs.Controller.NotificationController;
+import citedocs.DTO.CursorPage;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import citedocs.Exception.BadRequestException;
+import citedocs.Exception.ConflictException;
+import citedocs.Exception.GlobalExceptionHandler;
+import citedocs.Repository.NotificationReadMarkRepository;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Repository.UserRepository;
+
+@SpringBootTest
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationReadMarkRepository readMarkRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrarRoster registrarRoster;
+
+    @Autowired
+    private NotificationController notificationController;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        readMarkRepository.deleteAll();
+        userRepository.deleteAll();
+        registrarRoster.invalidate();
+    }
+
+    @Test
+    void keysetPagesReturnEveryNotificationOnceNewestFirst() throws Exception {
+        int userId = 9201;
+        // One batch shares a single created_at, so the id has to break ties
+        List<NotificationEntity> sent = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            sent.add(notificationService.buildNotification(userId, (long) i, "Message " + i));
+        }
+        notificationService.sendNotifications(sent);
+        notificationService.sendNotification(userId + 1, 99L, "Someone else's");
+        notificationWriter.flush(5000);
+        notificationService.markAsRead(sent.get(6).getNotificationId());
+        notificationService.markAsRead(sent.get(3).getNotificationId());
+
+        List<Integer> all = collect(userId, false);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = sent.size() - 1; i >= 0; i--) {
+            expected.add(sent.get(i).getNotificationId());
+        }
+        assertEquals(expected, all);
+
+        expected.remove(Integer.valueOf(sent.get(6).getNotificationId()));
+        expected.remove(Integer.valueOf(sent.get(3).getNotificationId()));
+        assertEquals(expected, collect(userId, true));
+    }
+
+    @Test
+    void readAllMovesTheWatermarkInOneStatement() throws Exception {
+        int userId = 9202;
+        List<NotificationEntity> sent = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sent.add(notificationService.buildNotification(userId, (long) i, "Message " + i));
+        }
+        notificationService.sendNotifications(sent);
+        notificationWriter.flush(5000);
+        assertEquals(4, notificationService.countUnread(userId).getUnread());
+
+        StatementCounter.reset();
+        notificationService.markAllAsRead(userId, sent.get(2).getNotificationId());
+        assertEquals(1, StatementCounter.count());
+
+        assertEquals(1, notificationService.countUnread(userId).getUnread());
+        assertEquals(List.of(sent.get(3).getNotificationId()),
+                notificationService.findUnreadByUserId(userId).stream().map(NotificationEntity::getNotificationId).toList());
+        assertEquals(List.of(false, true, true, true),
+                notificationService.findByUserId(userId).stream().map(NotificationEntity::getIsRead).toList());
+
+        // Already read through the watermark: the cached count must not drop again
+        notificationService.markAsRead(sent.get(1).getNotificationId());
+        assertEquals(1, notificationService.countUnread(userId).getUnread());
+
+        NotificationEntity later = notificationService.sendNotification(userId, 9L, "Later");
+        notificationWriter.flush(5000);
+        assertEquals(2, notificationService.countUnread(userId).getUnread());
+
+        notificationService.markAllAsRead(userId, later.getNotificationId());
+        assertEquals(0, notificationService.countUnread(userId).getUnread());
+
+        // The watermark never moves back
+        notificationService.markAllAsRead(userId, sent.get(0).getNotificationId());
+        assertEquals(0, notificationService.countUnread(userId).getUnread());
+    }
+
+    @Test
+    void readAllDoesNotPassOverNotificationsStillCommitting() throws Exception {
+        int userId = 9211;
+        NotificationEntity shown = notificationService.buildNotification(userId, 1L, "Shown");
+        notificationService.sendNotifications(List.of(shown));
+        notificationWriter.flush(5000);
+
+        // takes its id now and commits only after the read-all
+        NotificationEntity pending = notificationService.buildNotification(userId, 2L, "Still committing");
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = pool.submit(() -> {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    notificationService.writeNotifications(List.of(pending));
+                    inserted.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            inserted.await();
+
+            // a higher id, for someone else, commits first
+            NotificationEntity other = notificationService.buildNotification(userId + 1, 3L, "Someone else's");
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    notificationService.writeNotifications(List.of(other)));
+            assertTrue(other.getNotificationId() > pending.getNotificationId());
+
+            notificationService.markAllAsRead(userId, shown.getNotificationId());
+            release.countDown();
+            writer.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1, notificationService.countUnread(userId).getUnread());
+        assertEquals(List.of(pending.getNotificationId()),
+                notificationService.findUnreadByUserId(userId).stream().map(NotificationEntity::getNotificationId).toList());
+    }
+
+    @Test
+    void readMarksAreNotWrittenBackToTheRows() throws Exception {
+        int userId = 9210;
+        List<NotificationEntity> sent = List.of(
+                notificationService.buildNotification(userId, 1L, "Older"),
+                notificationService.buildNotification(userId, 2L, "Newer"));
+        notificationService.sendNotifications(sent);
+        notificationWriter.flush(5000);
+        notificationService.markAllAsRead(userId, sent.get(0).getNotificationId());
+
+        // joined by a writable transaction, so nothing stops a flush of dirty rows
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertEquals(List.of(false, true),
+                        notificationService.findByUserId(userId).stream().map(NotificationEntity::getIsRead).toList()));
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = false", Integer.class, userId));
+    }
+
+    @Test
+    void broadcastIsStoredOnceAndReadPerRegistrar() throws Exception {
+        int first = userService.create(new UserEntity(
+                "Registrar One", "broadcast-one@cit.edu", "secret",
+                UserEntity.Role.REGISTRAR, null, "AID-21")).getUserId();
+        int second = userService.create(new UserEntity(
+                "Registrar Two", "broadcast-two@cit.edu", "secret",
+                UserEntity.Role.REGISTRAR, null, "AID-22")).getUserId();
+        int student = 9203;
+
+        notificationService.sendNotification(first, 1L, "Personal");
+        notificationWriter.flush(5000);
+        NotificationEntity broadcast = notificationService.buildBroadcast(
+                UserEntity.Role.REGISTRAR, 2L, NotificationTemplate.REQUEST_SUBMITTED, "Ana", null, "TOR");
+        notificationService.sendNotifications(List.of(broadcast));
+        notificationWriter.flush(5000);
+
+        assertEquals(2, notificationRepository.count());
+        assertEquals(2, notificationService.countUnread(first).getUnread());
+        assertEquals(1, notificationService.countUnread(second).getUnread());
+        assertEquals(0, notificationService.countUnread(student).getUnread());
+
+        int broadcastId = broadcast.getNotificationId();
+        assertThrows(ConflictException.class, () -> notificationService.markAsRead(broadcastId));
+        notificationService.markAsRead(broadcastId, first);
+        notificationService.markAsRead(broadcastId, first);
+
+        assertEquals(1, notificationService.countUnread(first).getUnread());
+        assertEquals(1, notificationService.countUnread(second).getUnread());
+        assertEquals(List.of(true, false),
+                notificationService.findByUserId(first).stream().map(NotificationEntity::getIsRead).toList());
+        assertEquals(List.of(false),
+                notificationService.findByUserId(second).stream().map(NotificationEntity::getIsRead).toList());
+        assertEquals(List.of("Personal"),
+                notificationService.findUnreadByUserId(first).stream().map(NotificationEntity::getMessage).toList());
+        assertEquals(List.of(broadcastId),
+                notificationService.findUnreadByUserId(second).stream().map(NotificationEntity::getNotificationId).toList());
+
+        // Pages interleave the user's rows with the role's broadcasts
+        List<Integer> pages = new ArrayList<>();
+        String before = null;
+        do {
+            CursorPage<NotificationEntity> page = notificationService.findPageByUserId(first, false, before, 1);
+            page.getItems().forEach(n -> pages.add(n.getNotificationId()));
+            before = page.getNextCursor();
+        } while (before != null);
+        assertEquals(List.of(broadcastId, broadcastId - 1), pages);
+
+        // The shared row itself is never flagged
+        assertEquals(false, notificationRepository.findById(broadcastId).orElseThrow().getIsRead());
+    }
+
+    @Test
+    void templatedNotificationsStoreParamsAndRenderOnRead() throws Exception {
+        int userId = 9204;
+        notificationService.sendNotifications(List.of(
+                notificationService.buildNotification(userId, 41L, NotificationTemplate.REQUEST_STATUS,
+                        "APPROVED", "  Bring a valid ID.  "),
+                notificationService.buildNotification(userId, 42L, NotificationTemplate.REQUEST_STATUS,
+                        "REJECTED", null)));
+        notificationWriter.flush(5000);
+
+        List<NotificationEntity> stored = notificationRepository.findByUserIdOrderByCreatedAtDescNotificationIdDesc(userId);
+        assertEquals(List.of("REJECTED\u001F", "APPROVED\u001FBring a valid ID."),
+                stored.stream().map(NotificationEntity::getParams).toList());
+        // the sentence itself is not stored
+        assertEquals(List.of("", ""), jdbcTemplate.queryForList(
+                "SELECT message FROM notifications WHERE user_id = ?", String.class, userId));
+        assertEquals(List.of(
+                        "Your document request (REQ-42) is now REJECTED.",
+                        "Your document request (REQ-41) is now APPROVED. Remarks: Bring a valid ID."),
+                notificationService.findByUserId(userId).stream().map(NotificationEntity::getMessage).toList());
+    }
+
+    @Test
+    void outOfRangeCursorIsABadRequest() throws Exception {
+        int userId = 9209;
+        String tooLarge = "2025-01-01T00:00," + (Integer.MAX_VALUE + 1L);
+        assertThrows(BadRequestException.class,
+                () -> notificationService.findPageByUserId(userId, false, tooLarge, 10));
+        assertThrows(BadRequestException.class,
+                () -> notificationService.findPageByUserId(userId, true, "2025-01-01T00:00,-1", 10));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(notificationController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        mockMvc.perform(get("/notifications/user/" + userId).param("before", tooLarge))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/notifications/user/" + userId).param("before", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Integer> collect(int userId, boolean unreadOnly) {
+        List<Integer> ids = new ArrayList<>();
+        String before = null;
+        do {
+            CursorPage<NotificationEntity> page = notificationService.findPageByUserId(userId, unreadOnly, before, 3);
+            page.getItems().forEach(n -> ids.add(n.getNotificationId()));
+            before = page.getNextCursor();
+        } while (before != null);
+
+        CursorPage<NotificationEntity> past = notificationService.findPageByUserId(
+                userId, unreadOnly, "2000-01-01T00:00,1", 3);
+        assertEquals(0, past.getItems().size());
+        assertNull(past.getNextCursor());
+        return ids;
+    }
+}
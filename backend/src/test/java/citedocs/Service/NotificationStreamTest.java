@@ -0,0 +1,198 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.Controller.NotificationController;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Security.JwtAuthenticationFilter;
+import citedocs.Security.JwtUtil;
+
+@SpringBootTest
+class NotificationStreamTest {
+
+    private static final int USER_ID = 9001;
+
+    @Autowired
+    private NotificationController notificationController;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(notificationController)
+                .addFilters(new JwtAuthenticationFilter(jwtUtil))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void streamsNotificationsOnceTheirTransactionCommits() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/notifications/stream")
+                        .param("ticket", issueTicket()))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        List<NotificationEntity> sent = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            sent.add(notificationService.buildNotification(USER_ID, 1L, "Your request is now APPROVED."));
+            sent.add(notificationService.buildNotification(USER_ID + 1, 1L, "Someone else's"));
+            notificationService.sendNotifications(sent);
+            // nothing is streamed before commit
+            assertFalse(new String(response.getContentAsByteArray()).contains("event:notification"));
+        });
+
+        String body = awaitContent(response, "Your request is now APPROVED.");
+        assertTrue(body.contains("id:" + sent.get(0).getNotificationId() + "\nevent:notification"), body);
+        assertFalse(body.contains("Someone else's"));
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        List<NotificationEntity> missed = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            missed.add(notificationService.buildNotification(USER_ID, (long) i, "Update " + i));
+        }
+        notificationService.sendNotifications(missed);
+        notificationWriter.flush(5000);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/notifications/stream")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(USER_ID)))
+                        .header("Last-Event-ID", String.valueOf(missed.get(0).getNotificationId())))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        String body = awaitContent(response, "Update 3");
+        assertFalse(body.contains("Update 1"));
+        assertTrue(body.indexOf("Update 2") < body.indexOf("Update 3"));
+    }
+
+    @Test
+    void resumeResendsDigestsThatMayHaveChanged() throws Exception {
+        NotificationEntity first = submitted(1);
+        notificationService.sendNotifications(List.of(first));
+        notificationWriter.flush(5000);
+        NotificationEntity seen = notificationService.buildNotification(USER_ID, 9L, "Last one seen");
+        notificationService.sendNotifications(List.of(seen));
+        notificationWriter.flush(5000);
+
+        // merged into the first row while the client was away
+        notificationService.sendNotifications(List.of(submitted(2), submitted(3)));
+        notificationWriter.flush(5000);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/notifications/stream")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(USER_ID)))
+                        .header("Last-Event-ID", String.valueOf(seen.getNotificationId())))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        String body = awaitContent(response, "3 new requests for TOR.");
+        assertTrue(body.contains("event:update"), body);
+        assertFalse(body.contains("Last one seen"));
+    }
+
+    @Test
+    void rejectsStreamWithoutToken() throws Exception {
+        mockMvc.perform(get("/notifications/stream"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/notifications/stream-ticket"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void streamTicketWorksOnceAndJwtIsNotAcceptedInTheUrl() throws Exception {
+        String ticket = issueTicket();
+        mockMvc.perform(get("/notifications/stream").param("ticket", ticket))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/notifications/stream").param("ticket", ticket))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/notifications/stream").param("ticket", "not-a-ticket"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/notifications/stream")
+                        .param("token", jwtUtil.generateToken(String.valueOf(USER_ID))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void heartbeatIsWrittenByTheStreamExecutor() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/notifications/stream")
+                        .param("ticket", issueTicket()))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        notificationHub.heartbeat();
+        awaitContent(response, ":keep-alive");
+    }
+
+    private NotificationEntity submitted(long requestId) {
+        return notificationService.buildNotification(USER_ID, requestId,
+                NotificationTemplate.REQUEST_SUBMITTED, "Ana", null, "TOR");
+    }
+
+    private String issueTicket() throws Exception {
+        String body = mockMvc.perform(post("/notifications/stream-ticket")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(USER_ID))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("ticket").asText();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        assertTrue(body.contains(expected), body);
+        return body;
+    }
+}
@@ -0,0 +1,235 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import citedocs.Controller.NotificationController;
+import citedocs.DTO.NotificationWriterStatsDTO;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.NotificationReadMarkRepository;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Repository.UserRepository;
+import citedocs.Security.JwtAuthenticationFilter;
+import citedocs.Security.JwtUtil;
+
+@SpringBootTest
+class NotificationWriterTest {
+
+    private static final int USER_ID = 9301;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReadMarkRepository readMarkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationController notificationController;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrarRoster registrarRoster;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSendersAreWrittenInBatches() throws Exception {
+        NotificationWriterStatsDTO before = notificationWriter.stats();
+        int senders = 8;
+        int perSender = 100;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(senders);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < senders; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perSender; i++) {
+                    notificationService.sendNotification(USER_ID, (long) i, "Queued " + i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        notificationWriter.flush(10000);
+
+        NotificationWriterStatsDTO after = notificationWriter.stats();
+        int total = senders * perSender;
+        assertEquals(total, notificationRepository.countUnread(USER_ID));
+        assertEquals(total, after.getWritten() + after.getCallerWrites()
+                - before.getWritten() - before.getCallerWrites());
+        assertTrue(after.getBatches() - before.getBatches() < total / 10,
+                "expected multi-row batches, got " + (after.getBatches() - before.getBatches()));
+        assertEquals(0, after.getQueueDepth());
+    }
+
+    @Test
+    void newRequestsForTheSameDocumentAreCoalescedIntoADigest() throws Exception {
+        int userId = USER_ID + 1;
+        NotificationEntity first = submitted(userId, 1, "TOR");
+        notificationService.sendNotifications(List.of(first));
+        notificationWriter.flush(5000);
+
+        NotificationWriterStatsDTO before = notificationWriter.stats();
+        notificationService.sendNotifications(List.of(
+                submitted(userId, 2, "TOR"), submitted(userId, 3, "TOR"), submitted(userId, 4, "TOR"),
+                submitted(userId, 5, "Diploma")));
+        notificationWriter.flush(5000);
+        List<NotificationEntity> burst = List.of(submitted(userId, 6, "Form 137"), submitted(userId, 7, "Form 137"));
+        notificationService.sendNotifications(burst);
+        notificationWriter.flush(5000);
+
+        List<NotificationEntity> rows = notificationService.findByUserId(userId);
+        assertEquals(List.of("2 new requests for Form 137.", "New request submitted by Ana for Diploma.",
+                        "4 new requests for TOR."),
+                rows.stream().map(NotificationEntity::getMessage).toList());
+        assertEquals(first.getNotificationId(), rows.get(2).getNotificationId());
+        assertEquals(List.of(1, 2, 3, 4), notificationService.findRequestIds(first.getNotificationId()));
+        assertEquals(List.of(6, 7), notificationService.findRequestIds(rows.get(0).getNotificationId()));
+        // Senders see the digest their notification was merged into
+        assertEquals(List.of(rows.get(0).getNotificationId(), rows.get(0).getNotificationId()),
+                burst.stream().map(NotificationEntity::getNotificationId).toList());
+        assertEquals(List.of(5), notificationService.findRequestIds(rows.get(1).getNotificationId()));
+        assertEquals(3, notificationService.countUnread(userId).getUnread());
+        assertEquals(4, notificationWriter.stats().getCoalesced() - before.getCoalesced());
+    }
+
+    @Test
+    void readDigestsStopTakingMerges() throws Exception {
+        int userId = USER_ID + 2;
+        try {
+            notificationService.sendNotifications(List.of(submitted(userId, 1, "TOR")));
+            notificationWriter.flush(5000);
+            notificationService.sendNotifications(List.of(submitted(userId, 2, "TOR")));
+            notificationWriter.flush(5000);
+            int digestId = notificationService.findByUserId(userId).get(0).getNotificationId();
+
+            // read through its own flag
+            notificationService.markAsRead(digestId, userId);
+            notificationService.sendNotifications(List.of(submitted(userId, 3, "TOR")));
+            notificationWriter.flush(5000);
+
+            // read through the watermark
+            notificationService.markAllAsRead(userId, notificationService.findByUserId(userId).get(0).getNotificationId());
+            notificationService.sendNotifications(List.of(submitted(userId, 4, "TOR")));
+            notificationWriter.flush(5000);
+
+            List<NotificationEntity> rows = notificationService.findByUserId(userId);
+            assertEquals(List.of("New request submitted by Ana for TOR.", "New request submitted by Ana for TOR.",
+                            "2 new requests for TOR."),
+                    rows.stream().map(NotificationEntity::getMessage).toList());
+            assertEquals(List.of(1, 2), notificationService.findRequestIds(digestId));
+            assertEquals(1, notificationService.countUnread(userId).getUnread());
+        } finally {
+            readMarkRepository.deleteById(userId);
+        }
+    }
+
+    @Test
+    void rolledBackSendersWriteNothing() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationService.sendNotification(USER_ID, 1L, "Never committed");
+            status.setRollbackOnly();
+        });
+        notificationWriter.flush(5000);
+
+        assertEquals(0, notificationRepository.countUnread(USER_ID));
+    }
+
+    @Test
+    void inTransactionWritesCommitAndRollBackWithTheCaller() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            notificationService.writeNotifications(List.of(
+                    notificationService.buildNotification(USER_ID, 1L, "Rolled back")));
+            status.setRollbackOnly();
+        });
+        assertEquals(0, notificationRepository.countUnread(USER_ID));
+
+        NotificationEntity kept = notificationService.buildNotification(USER_ID, 2L, "Committed");
+        transaction.executeWithoutResult(status -> notificationService.writeNotifications(List.of(kept)));
+
+        // written by the caller's commit, not by the queue
+        assertTrue(kept.getNotificationId() > 0);
+        assertEquals(1, notificationRepository.countUnread(USER_ID));
+        assertThrows(IllegalTransactionStateException.class,
+                () -> notificationService.writeNotifications(List.of(kept)));
+    }
+
+    @Test
+    void writerStatsAreForRegistrarsOnly() throws Exception {
+        UserEntity registrar = userService.create(new UserEntity(
+                "Stats Registrar", "stats-registrar@cit.edu", "secret", UserEntity.Role.REGISTRAR, null, "AID-41"));
+        UserEntity student = userService.create(new UserEntity(
+                "Stats Student", "stats-student@cit.edu", "secret", UserEntity.Role.STUDENT, "SID-41", null));
+        try {
+            MockMvc mockMvc = MockMvcBuilders.standaloneSetup(notificationController)
+                    .addFilters(new JwtAuthenticationFilter(jwtUtil))
+                    .build();
+            mockMvc.perform(get("/notifications/writer-stats"))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get("/notifications/writer-stats")
+                            .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(student.getUserId()))))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get("/notifications/writer-stats")
+                            .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(registrar.getUserId()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.queueCapacity").isNumber());
+        } finally {
+            userRepository.deleteAllById(List.of(registrar.getUserId(), student.getUserId()));
+            registrarRoster.invalidate();
+        }
+    }
+
+    private NotificationEntity submitted(int userId, long requestId, String documentName) {
+        return notificationService.buildNotification(userId, requestId,
+                NotificationTemplate.REQUEST_SUBMITTED, "Ana", null, documentName);
+    }
+}
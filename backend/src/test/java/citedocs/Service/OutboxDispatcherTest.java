@@ -0,0 +1,243 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Repository.OutboxEventRepository;
+
+/**
+ * Drives OutboxDispatcher instances with a scripted handler. Test events are
+ * delivered explicitly and kept out of the application poller's reach by a
+ * next attempt far in the future.
+ */
+@SpringBootTest
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> eventIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllById(eventIds);
+    }
+
+    @Test
+    void failedEventIsRetriedAfterBackoff() {
+        ScriptedHandler handler = new ScriptedHandler(1, 0);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10);
+        String eventId = record();
+
+        OutboxEventEntity failed = deliver(dispatcher, eventId);
+        assertEquals(OutboxEventEntity.Status.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("handler down", failed.getLastError());
+        assertEquals(0, handler.committed.get());
+
+        // first retry waits 2 seconds; the poller only picks the event up once due
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(failed.getNextAttemptAt().isAfter(now.plusSeconds(1)));
+        assertTrue(failed.getNextAttemptAt().isBefore(now.plusSeconds(3)));
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_at = ? WHERE event_id = ?",
+                failed.getNextAttemptAt(), eventId);
+        assertFalse(dueAt(now).contains(eventId));
+        assertTrue(dueAt(now.plusSeconds(3)).contains(eventId));
+
+        deliver(dispatcher, eventId);
+        OutboxEventEntity processed = outboxEventRepository.findById(eventId).orElseThrow();
+        assertEquals(OutboxEventEntity.Status.PROCESSED, processed.getStatus());
+        assertTrue(processed.getProcessedAt() != null);
+        assertEquals(1, handler.committed.get());
+    }
+
+    @Test
+    void eventFailsAfterMaxAttempts() {
+        ScriptedHandler handler = new ScriptedHandler(Integer.MAX_VALUE, 0);
+        OutboxDispatcher dispatcher = dispatcher(handler, 3);
+        String eventId = record();
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            deliver(dispatcher, eventId);
+        }
+        OutboxEventEntity failed = outboxEventRepository.findById(eventId).orElseThrow();
+        assertEquals(OutboxEventEntity.Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertFalse(dueAt(LocalDateTime.now().plusDays(1)).contains(eventId));
+
+        // a FAILED event is not picked up again
+        deliver(dispatcher, eventId);
+        assertEquals(3, handler.attempts.get());
+        assertEquals(3, outboxEventRepository.findById(eventId).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void redeliveredEventIsAppliedOnce() throws Exception {
+        // crash in the middle of apply: the claim rolls back with the side effects
+        ScriptedHandler handler = new ScriptedHandler(1, 0);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10);
+        String crashed = record();
+        deliver(dispatcher, crashed);
+        assertEquals(0, handler.committed.get());
+
+        deliver(dispatcher, crashed);
+        deliver(dispatcher, crashed);
+        deliver(dispatcher(handler, 10), crashed);
+        assertEquals(1, handler.committed.get());
+        assertEquals(OutboxEventEntity.Status.PROCESSED,
+                outboxEventRepository.findById(crashed).orElseThrow().getStatus());
+
+        // two nodes receive the same event at once
+        ScriptedHandler slow = new ScriptedHandler(0, 200);
+        List<OutboxDispatcher> nodes = List.of(dispatcher(slow, 10), dispatcher(slow, 10));
+        String raced = record();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(nodes.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (OutboxDispatcher node : nodes) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    deliver(node, raced);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, slow.committed.get());
+    }
+
+    @Test
+    void purgesProcessedEventsPastRetention() {
+        OutboxDispatcher dispatcher = dispatcher(new ScriptedHandler(0, 0), 10);
+        String old = record();
+        String recent = record();
+        String failed = record();
+        deliver(dispatcher, old);
+        deliver(dispatcher, recent);
+        for (String eventId : List.of(old, failed)) {
+            OutboxEventEntity event = outboxEventRepository.findById(eventId).orElseThrow();
+            event.setProcessedAt(LocalDateTime.now().minusDays(30));
+            if (eventId.equals(failed)) {
+                event.setStatus(OutboxEventEntity.Status.FAILED);
+            }
+            outboxEventRepository.save(event);
+        }
+
+        assertTrue(dispatcher.purgeProcessed() >= 1);
+        assertFalse(outboxEventRepository.existsById(old));
+        assertTrue(outboxEventRepository.existsById(recent));
+        assertTrue(outboxEventRepository.existsById(failed));
+    }
+
+    private OutboxDispatcher dispatcher(ScriptedHandler handler, int maxAttempts) {
+        return new OutboxDispatcher(outboxEventRepository, handler, transactionManager,
+                new InlineExecutor(), maxAttempts, 100, 168);
+    }
+
+    private String record() {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setEventType(OutboxEventEntity.Type.REQUEST_STATUS_CHANGED);
+        event.setPayload("{}");
+        event.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        String eventId = outboxEventRepository.save(event).getEventId();
+        eventIds.add(eventId);
+        return eventId;
+    }
+
+    // Returns the event as the dispatcher left it
+    private OutboxEventEntity deliver(OutboxDispatcher dispatcher, String eventId) {
+        dispatcher.onEventRecorded(new OutboxService.EventRecorded(eventId));
+        OutboxEventEntity event = outboxEventRepository.findById(eventId).orElseThrow();
+        if (event.getStatus() == OutboxEventEntity.Status.PENDING) {
+            // keep the event away from the application's own poller
+            LocalDateTime nextAttemptAt = event.getNextAttemptAt();
+            event.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+            outboxEventRepository.save(event);
+            event.setNextAttemptAt(nextAttemptAt);
+        }
+        return event;
+    }
+
+    private List<String> dueAt(LocalDateTime now) {
+        return outboxEventRepository.findDueEventIds(OutboxEventEntity.Status.PENDING, now, PageRequest.of(0, 1000));
+    }
+
+    /**
+     * Fails the first failures calls, optionally holds the transaction open
+     * for a while, and counts applications that actually committed.
+     */
+    private static class ScriptedHandler extends RequestEventHandler {
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger committed = new AtomicInteger();
+        private final AtomicInteger failuresLeft;
+        private final long holdMillis;
+
+        ScriptedHandler(int failures, long holdMillis) {
+            super(null, null, null, null, null, null);
+            this.failuresLeft = new AtomicInteger(failures);
+            this.holdMillis = holdMillis;
+        }
+
+        @Override
+        public void apply(OutboxEventEntity event) {
+            attempts.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.incrementAndGet();
+                }
+            });
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("handler down");
+            }
+            if (holdMillis > 0) {
+                try {
+                    Thread.sleep(holdMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static class InlineExecutor extends ThreadPoolTaskExecutor {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import citedocs.StatementCounter;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.UserRepository;
+
+@SpringBootTest
+class RegistrarRosterTest {
+
+    @Autowired
+    private RegistrarRoster registrarRoster;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        registrarRoster.invalidate();
+    }
+
+    @Test
+    void rosterIsServedFromMemoryUntilUsersChange() {
+        registrarRoster.registrarIds();
+
+        StatementCounter.reset();
+        List<Integer> cached = registrarRoster.registrarIds();
+        assertEquals(0, StatementCounter.count());
+
+        UserEntity registrar = userService.create(new UserEntity(
+                "Registrar", "roster-registrar@cit.edu", "secret",
+                UserEntity.Role.REGISTRAR, null, "AID-1"));
+        assertFalse(cached.contains(registrar.getUserId()));
+        assertTrue(registrarRoster.registrarIds().contains(registrar.getUserId()));
+
+        userService.delete(registrar.getUserId());
+        assertFalse(registrarRoster.registrarIds().contains(registrar.getUserId()));
+    }
+
+    @Test
+    void unknownUsersHaveNoRole() {
+        UserEntity student = userService.create(new UserEntity(
+                "Student", "roster-student@cit.edu", "secret",
+                UserEntity.Role.STUDENT, "SID-1", null));
+
+        assertEquals(UserEntity.Role.STUDENT, registrarRoster.roleOf(student.getUserId()));
+        assertNull(registrarRoster.roleOf(987654));
+
+        userService.delete(student.getUserId());
+        assertNull(registrarRoster.roleOf(student.getUserId()));
+    }
+}
@@ -0,0 +1,198 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import citedocs.DTO.CursorPage;
+import citedocs.DTO.KeysetCursor;
+import citedocs.DTO.RequestFilter;
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.ClaimSlipEntity;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.PaymentEntity;
+import citedocs.Entity.RequestStatusLogEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Exception.ResourceNotFoundException;
+import citedocs.Repository.ClaimSlipRepository;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.PaymentRepository;
+import citedocs.Repository.RequestArchiveRepository;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestArchiverTest {
+
+    @Autowired
+    private RequestArchiver requestArchiver;
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestStatusLogService requestStatusLogService;
+
+    @Autowired
+    private RequestStatistics requestStatistics;
+
+    @Autowired
+    private DocumentCatalog documentCatalog;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private RequestArchiveRepository requestArchiveRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RequestStatusLogRepository requestStatusLogRepository;
+
+    @Autowired
+    private ClaimSlipRepository claimSlipRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        requestStatusLogRepository.deleteAll();
+        claimSlipRepository.deleteAll();
+        requestsRepository.deleteAll();
+        for (String table : List.of("requests_archive", "request_status_log_archive",
+                                    "payments_archive", "claim_slips_archive", "request_tombstones")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        requestStatistics.rebuild();
+    }
+
+    @Test
+    void movesOldClosedRequestsWithTheirRows() {
+        RequestsEntity old = save(RequestsEntity.Status.COMPLETED, 1L, 400);
+        RequestsEntity recent = save(RequestsEntity.Status.COMPLETED, 1L, 10);
+        RequestsEntity open = save(RequestsEntity.Status.PENDING, 1L, 400);
+        addPaymentLogAndSlip(old.getRequestId());
+        addPaymentLogAndSlip(recent.getRequestId());
+        long totalBefore = requestsService.getStats(null).getTotal();
+        String watermark = new KeysetCursor(LocalDateTime.now().minusMinutes(1), 0L).toString();
+
+        assertEquals(1, requestArchiver.archiveClosedRequests());
+
+        assertEquals(List.of(recent.getRequestId(), open.getRequestId()),
+                requestsRepository.findAll().stream().map(RequestsEntity::getRequestId).sorted().toList());
+        assertEquals(1, requestArchiveRepository.count());
+        assertEquals(1, paymentRepository.count());
+        assertEquals(1, requestStatusLogRepository.count());
+        assertEquals(1, claimSlipRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM claim_slips_archive", Integer.class));
+        assertEquals(totalBefore - 1, requestsService.getStats(null).getTotal());
+        assertEquals(List.of(old.getRequestId()), requestsService.findChanges(watermark, 1L, null).getDeleted());
+
+        // Nothing is left to move
+        assertEquals(0, requestArchiver.archiveClosedRequests());
+    }
+
+    @Test
+    void readEndpointsIncludeArchivedOnRequest() {
+        RequestsEntity old = save(RequestsEntity.Status.REJECTED, 7L, 400);
+        RequestsEntity live = save(RequestsEntity.Status.PENDING, 7L, 1);
+        addPaymentLogAndSlip(old.getRequestId());
+        requestArchiver.archiveClosedRequests();
+
+        assertEquals(1, requestsService.findByUserId(7L).size());
+        List<RequestSummaryDTO> all = requestsService.findByUserId(7L, true);
+        assertEquals(2, all.size());
+        RequestSummaryDTO archived = all.get(1);
+        assertEquals(old.getRequestId(), archived.getRequestId());
+        assertEquals(RequestsEntity.Status.REJECTED, archived.getStatus());
+        assertEquals("proof-" + old.getRequestId() + ".jpg", archived.getProofOfPayment());
+        assertEquals(2, requestsService.findAll(true).size());
+
+        assertThrows(ResourceNotFoundException.class, () -> requestsService.findDetailById(old.getRequestId()));
+        assertEquals("REJECTED", requestsService.findDetailById(old.getRequestId(), true).getStatus());
+
+        RequestFilter filter = new RequestFilter();
+        filter.setUserId(7L);
+        filter.setLimit(1);
+        filter.setIncludeArchived(true);
+        CursorPage<RequestSummaryDTO> first = requestsService.findPage(filter);
+        assertEquals(live.getRequestId(), first.getItems().get(0).getRequestId());
+        filter.setAfter(first.getNextCursor());
+        CursorPage<RequestSummaryDTO> second = requestsService.findPage(filter);
+        assertEquals(old.getRequestId(), second.getItems().get(0).getRequestId());
+
+        assertEquals(0, requestStatusLogService.findByUserId(7L).size());
+        assertEquals(1, requestStatusLogService.findAllIncludingArchived(7L).size());
+    }
+
+    @Test
+    void archivesInChunks() {
+        for (int i = 0; i < 5; i++) {
+            save(RequestsEntity.Status.COMPLETED, 3L, 400);
+        }
+        RequestArchiver smallChunks = new RequestArchiver(requestArchiveRepository, requestStatistics,
+                documentCatalog, transactionManager, 180, 2);
+
+        assertEquals(5, smallChunks.archiveClosedRequests());
+        assertEquals(0, requestsRepository.count());
+        assertEquals(5, requestArchiveRepository.count());
+    }
+
+    private RequestsEntity save(RequestsEntity.Status status, Long userId, int daysAgo) {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(userId);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now());
+        request.setStatus(status);
+        RequestsEntity saved = requestsRepository.save(request);
+
+        LocalDateTime at = LocalDateTime.now().minusDays(daysAgo);
+        jdbcTemplate.update("UPDATE requests SET created_at = ?, updated_at = ? WHERE request_id = ?",
+                at, at, saved.getRequestId());
+        requestStatistics.rebuild();
+        return saved;
+    }
+
+    private void addPaymentLogAndSlip(Long requestId) {
+        PaymentEntity payment = new PaymentEntity();
+        payment.setRequestId(requestId);
+        payment.setProofOfPayment("proof-" + requestId + ".jpg");
+        paymentRepository.save(payment);
+
+        RequestStatusLogEntity log = new RequestStatusLogEntity();
+        log.setRequestId(requestId);
+        log.setOldStatus("PENDING");
+        log.setNewStatus("COMPLETED");
+        log.setChangedBy(1);
+        requestStatusLogRepository.save(log);
+
+        ClaimSlipEntity slip = new ClaimSlipEntity();
+        slip.setRequestId(requestId);
+        slip.setClaimNumber("REQ-TEST-" + requestId);
+        claimSlipRepository.save(slip);
+    }
+}
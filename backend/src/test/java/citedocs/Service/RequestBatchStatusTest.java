@@ -0,0 +1,146 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import citedocs.Controller.BatchStatusUpdateRequest;
+import citedocs.Controller.RequestsController;
+import citedocs.DTO.BatchStatusResultDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestsRepository;
+import citedocs.Repository.UserRepository;
+import citedocs.Security.JwtAuthenticationFilter;
+import citedocs.Security.JwtUtil;
+
+@SpringBootTest
+class RequestBatchStatusTest {
+
+    private static final long MISSING_ID = 987654L;
+
+    @Autowired
+    private RequestsController requestsController;
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RegistrarRoster registrarRoster;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private MockMvc mockMvc;
+    private UserEntity registrar;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(requestsController)
+                .addFilters(new JwtAuthenticationFilter(jwtUtil))
+                .build();
+        registrar = userService.create(new UserEntity(
+                "Batch Registrar", "batch-registrar@cit.edu", "secret",
+                UserEntity.Role.REGISTRAR, null, "AID-31"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+        userRepository.deleteById(registrar.getUserId());
+        registrarRoster.invalidate();
+    }
+
+    @Test
+    void failedItemsDoNotRollBackTheOthers() {
+        Long first = seed(RequestsEntity.Status.PENDING);
+        Long alreadyApproved = seed(RequestsEntity.Status.APPROVED);
+        Long second = seed(RequestsEntity.Status.PROCESSING);
+
+        BatchStatusUpdateRequest payload = new BatchStatusUpdateRequest();
+        payload.setStatus("APPROVED");
+        payload.setRequestIds(Arrays.asList(first, alreadyApproved, MISSING_ID, second, first, null));
+
+        List<BatchStatusResultDTO> results = requestsService.updateStatusBatch(payload, registrar.getUserId());
+
+        // one result per distinct id, in request order
+        assertEquals(List.of(first, alreadyApproved, MISSING_ID, second),
+                results.stream().map(BatchStatusResultDTO::getRequestId).toList());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("APPROVED", results.get(0).getStatus());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().contains("already"));
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(3).isSuccess());
+
+        assertEquals(RequestsEntity.Status.APPROVED, requestsRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(RequestsEntity.Status.APPROVED, requestsRepository.findById(second).orElseThrow().getStatus());
+        assertTrue(requestsRepository.findById(first).orElseThrow().getDateReady() != null);
+    }
+
+    @Test
+    void endpointReportsEachItem() throws Exception {
+        Long pending = seed(RequestsEntity.Status.PENDING);
+        Long rejected = seed(RequestsEntity.Status.REJECTED);
+
+        mockMvc.perform(put("/api/requests/status/batch")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(String.valueOf(registrar.getUserId())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"REJECTED\",\"remarks\":\"Incomplete\",\"requestIds\":["
+                                + pending + "," + rejected + "," + MISSING_ID + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].requestId").value(pending))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].requestId").value(rejected))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[2].requestId").value(MISSING_ID))
+                .andExpect(jsonPath("$[2].success").value(false));
+
+        assertEquals(RequestsEntity.Status.REJECTED, requestsRepository.findById(pending).orElseThrow().getStatus());
+    }
+
+    private Long seed(RequestsEntity.Status status) {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now().plusDays(3));
+        request.setStatus(status);
+        return requestsRepository.save(request).getRequestId();
+    }
+}
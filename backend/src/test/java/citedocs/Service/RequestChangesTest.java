@@ -0,0 +1,125 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.DTO.RequestChangesDTO;
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestTombstoneRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestChangesTest {
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private RequestTombstoneRepository requestTombstoneRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        requestsRepository.deleteAll();
+        requestTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void returnsChangesAndDeletesAfterWatermark() {
+        String start = requestsService.findChanges(null, null, null).getWatermark();
+
+        RequestsEntity kept = requestsService.create(newRequest(1L));
+        RequestsEntity removed = requestsService.create(newRequest(2L));
+        requestsService.delete(removed.getRequestId());
+
+        RequestChangesDTO changes = requestsService.findChanges(start, null, null);
+        assertEquals(List.of(kept.getRequestId()), ids(changes.getChanged()));
+        assertEquals(List.of(removed.getRequestId()), changes.getDeleted());
+        assertFalse(changes.isHasMore());
+
+        // Unsettled rows are sent again until they fall behind the settle lag
+        RequestChangesDTO again = requestsService.findChanges(changes.getWatermark(), null, null);
+        assertEquals(List.of(kept.getRequestId()), ids(again.getChanged()));
+
+        RequestChangesDTO forStudent = requestsService.findChanges(start, 2L, null);
+        assertTrue(forStudent.getChanged().isEmpty());
+        assertEquals(List.of(removed.getRequestId()), forStudent.getDeleted());
+    }
+
+    @Test
+    void pagesThroughSettledChangesInOrder() {
+        String start = requestsService.findChanges(null, null, null).getWatermark();
+
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(requestsService.create(newRequest(1L)).getRequestId());
+        }
+        requestsService.delete(created.remove(2));
+
+        // Age every write past the settle lag
+        LocalDateTime settledTime = LocalDateTime.now().minusMinutes(1);
+        jdbcTemplate.update("UPDATE requests SET updated_at = ?", settledTime);
+        jdbcTemplate.update("UPDATE request_tombstones SET deleted_at = ?", settledTime);
+        start = "2000-01-01T00:00,0";
+
+        List<Long> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        RequestChangesDTO page;
+        String watermark = start;
+        int calls = 0;
+        do {
+            page = requestsService.findChanges(watermark, null, 2);
+            changed.addAll(ids(page.getChanged()));
+            deleted.addAll(page.getDeleted());
+            watermark = page.getWatermark();
+            calls++;
+        } while (page.isHasMore());
+
+        assertEquals(created, changed);
+        assertEquals(1, deleted.size());
+        assertEquals(3, calls);
+
+        RequestChangesDTO nothingNew = requestsService.findChanges(watermark, null, 2);
+        assertTrue(nothingNew.getChanged().isEmpty());
+        assertTrue(nothingNew.getDeleted().isEmpty());
+    }
+
+    private List<Long> ids(List<RequestSummaryDTO> requests) {
+        return requests.stream().map(RequestSummaryDTO::getRequestId).toList();
+    }
+
+    private RequestsEntity newRequest(Long userId) {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(userId);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now().plusDays(7));
+        return request;
+    }
+}
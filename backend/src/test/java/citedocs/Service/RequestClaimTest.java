@@ -0,0 +1,187 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.Controller.StatusUpdateRequest;
+import citedocs.DTO.RequestClaimDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Exception.ConflictException;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestClaimTest {
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrarsClaimDisjointRequests() throws Exception {
+        Set<Long> seeded = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            seeded.add(seed(RequestsEntity.Status.PENDING, LocalDate.now().plusDays(i)));
+        }
+
+        int registrars = 6;
+        ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(registrars);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < registrars; r++) {
+                int registrarId = 100 + r;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    Optional<RequestClaimDTO> claim;
+                    while ((claim = requestsService.claimNext(registrarId)).isPresent()) {
+                        claimed.add(claim.get().getRequest().getRequestId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(20, claimed.size());
+        assertEquals(seeded, new HashSet<>(claimed));
+    }
+
+    @Test
+    void claimsMostUrgentFirstAndSkipsLiveLeases() {
+        Long later = seed(RequestsEntity.Status.PENDING, LocalDate.now().plusDays(9));
+        Long undated = seed(RequestsEntity.Status.PENDING, null);
+        Long urgent = seed(RequestsEntity.Status.PROCESSING, LocalDate.now().plusDays(1));
+        seed(RequestsEntity.Status.COMPLETED, LocalDate.now());
+
+        RequestClaimDTO first = requestsService.claimNext(1).orElseThrow();
+        assertEquals(urgent, first.getRequest().getRequestId());
+        assertEquals(1, first.getAssignedTo());
+        assertTrue(first.getLeaseExpiresAt().isAfter(LocalDateTime.now()));
+
+        // undated requests are due a week after filing, ahead of one due in nine days
+        assertEquals(undated, requestsService.claimNext(2).orElseThrow().getRequest().getRequestId());
+        assertEquals(later, requestsService.claimNext(2).orElseThrow().getRequest().getRequestId());
+        assertTrue(requestsService.claimNext(3).isEmpty());
+
+        // An expired lease can be taken over
+        jdbcTemplate.update("UPDATE requests SET lease_expires_at = ? WHERE request_id = ?",
+                LocalDateTime.now().minusMinutes(1), urgent);
+        assertEquals(urgent, requestsService.claimNext(3).orElseThrow().getRequest().getRequestId());
+    }
+
+    @Test
+    void claimOrderFollowsStatusChanges() {
+        Long first = seed(RequestsEntity.Status.PENDING, LocalDate.now().plusDays(1));
+        Long second = seed(RequestsEntity.Status.PENDING, LocalDate.now().plusDays(3));
+
+        // the compare-and-set UPDATE clears the key, so an approved request is no longer claimable
+        StatusUpdateRequest approve = new StatusUpdateRequest();
+        approve.setStatus("APPROVED");
+        requestsService.updateStatus(first, approve, 1);
+        assertEquals(second, requestsService.claimNext(1).orElseThrow().getRequest().getRequestId());
+        assertTrue(requestsService.claimNext(1).isEmpty());
+    }
+
+    @Test
+    void concurrentClaimersNeverComeBackEmptyWhileRequestsRemain() throws Exception {
+        int registrars = 8;
+        int claimsEach = 5;
+        Set<Long> seeded = new HashSet<>();
+        for (int i = 0; i < registrars * claimsEach; i++) {
+            seeded.add(seed(i % 3 == 0 ? RequestsEntity.Status.PROCESSING : RequestsEntity.Status.PENDING,
+                    i % 4 == 0 ? null : LocalDate.now().plusDays(i % 10)));
+        }
+        seed(RequestsEntity.Status.COMPLETED, LocalDate.now());
+
+        ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(registrars);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < registrars; r++) {
+                int registrarId = 200 + r;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < claimsEach; i++) {
+                        // enough requests are left for every call, so none may come back empty
+                        claimed.add(requestsService.claimNext(registrarId).orElseThrow().getRequest().getRequestId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(seeded, new HashSet<>(claimed));
+        assertEquals(seeded.size(), claimed.size());
+        assertTrue(requestsService.claimNext(1).isEmpty());
+    }
+
+    @Test
+    void onlyTheHolderCanRelease() {
+        Long id = seed(RequestsEntity.Status.PENDING, LocalDate.now());
+        requestsService.claimNext(1).orElseThrow();
+
+        assertThrows(ConflictException.class, () -> requestsService.releaseClaim(id, 2));
+        requestsService.releaseClaim(id, 1);
+
+        assertEquals(id, requestsService.claimNext(2).orElseThrow().getRequest().getRequestId());
+    }
+
+    private Long seed(RequestsEntity.Status status, LocalDate dateNeeded) {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(dateNeeded);
+        request.setStatus(status);
+        return requestsRepository.save(request).getRequestId();
+    }
+}
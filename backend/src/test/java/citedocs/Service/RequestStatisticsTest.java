@@ -0,0 +1,84 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import citedocs.StatementCounter;
+import citedocs.Controller.StatusUpdateRequest;
+import citedocs.DTO.RequestStatsDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestStatisticsTest {
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestStatistics requestStatistics;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+        requestStatistics.rebuild();
+    }
+
+    @Test
+    void countersFollowWritesAndMatchRebuild() {
+        requestsRepository.deleteAll();
+        requestStatistics.rebuild();
+
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity first = requestsService.create(newRequest(1L, document));
+        RequestsEntity second = requestsService.create(newRequest(1L, document));
+        requestsService.create(newRequest(2L, document));
+
+        StatusUpdateRequest approve = new StatusUpdateRequest();
+        approve.setStatus("APPROVED");
+        requestsService.updateStatus(first.getRequestId(), approve, null);
+        requestsService.delete(second.getRequestId());
+
+        StatementCounter.reset();
+        RequestStatsDTO global = requestsService.getStats(null);
+        RequestStatsDTO student = requestsService.getStats(1L);
+        assertEquals(0, StatementCounter.count());
+
+        assertEquals(2, global.getTotal());
+        assertEquals(1, global.getByStatus().get("PENDING"));
+        assertEquals(1, global.getByStatus().get("APPROVED"));
+        assertEquals(2, global.getByDocument().get(document.getName()));
+
+        assertEquals(1, student.getTotal());
+        assertEquals(1, student.getByStatus().get("APPROVED"));
+        assertEquals(0, student.getByStatus().get("PENDING"));
+
+        requestStatistics.rebuild();
+        RequestStatsDTO rebuilt = requestsService.getStats(null);
+        assertEquals(global.getByStatus(), rebuilt.getByStatus());
+        assertEquals(global.getByDocument(), rebuilt.getByDocument());
+    }
+
+    private RequestsEntity newRequest(Long userId, DocumentsEntity document) {
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(userId);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now().plusDays(7));
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import citedocs.StatementCounter;
+import citedocs.Controller.StatusUpdateRequest;
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestWorkQueueTest {
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestWorkQueue requestWorkQueue;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        requestsRepository.deleteAll();
+        requestWorkQueue.rebuild();
+    }
+
+    @Test
+    void ordersByUrgencyAndFollowsStatusChanges() {
+        RequestsEntity later = requestsService.create(newRequest(10));
+        RequestsEntity soonest = requestsService.create(newRequest(2));
+        RequestsEntity middle = requestsService.create(newRequest(5));
+
+        assertEquals(List.of(soonest.getRequestId(), middle.getRequestId(), later.getRequestId()),
+                ids(requestsService.findWorkQueue(null)));
+
+        requestsService.updateStatus(soonest.getRequestId(), status("COMPLETED"), 1);
+        requestsService.updateStatus(middle.getRequestId(), status("PROCESSING"), 1);
+        assertEquals(List.of(middle.getRequestId(), later.getRequestId()), ids(requestsService.findWorkQueue(null)));
+
+        // Reopening puts it back in urgency order
+        requestsService.updateStatus(soonest.getRequestId(), status("PENDING"), 1);
+        assertEquals(soonest.getRequestId(), requestsService.findWorkQueue(1).get(0).getRequestId());
+
+        requestsService.delete(soonest.getRequestId());
+        List<Long> incremental = ids(requestsService.findWorkQueue(null));
+        requestWorkQueue.rebuild();
+        assertEquals(incremental, ids(requestsService.findWorkQueue(null)));
+    }
+
+    @Test
+    void readsOnlyTheRowsItReturns() {
+        for (int i = 0; i < 30; i++) {
+            requestsService.create(newRequest(i + 1));
+        }
+
+        StatementCounter.reset();
+        List<RequestSummaryDTO> queue = requestsService.findWorkQueue(5);
+
+        assertEquals(5, queue.size());
+        // summary projection and payment proofs
+        assertEquals(2, StatementCounter.count());
+    }
+
+    @Test
+    void dropsRequestsClosedElsewhere() {
+        RequestsEntity closedElsewhere = requestsService.create(newRequest(1));
+        RequestsEntity open = requestsService.create(newRequest(3));
+        jdbcTemplate.update("UPDATE requests SET status = 'REJECTED' WHERE request_id = ?", closedElsewhere.getRequestId());
+
+        assertEquals(List.of(open.getRequestId()), ids(requestsService.findWorkQueue(null)));
+        assertEquals(1, requestWorkQueue.size());
+    }
+
+    @Test
+    void peekIsIndependentOfQueueSize() {
+        for (long id = 1; id <= 50_000; id++) {
+            RequestsEntity request = new RequestsEntity();
+            request.setRequestId(id);
+            request.setStatus(RequestsEntity.Status.PENDING);
+            request.setDateNeeded(LocalDate.now().plusDays(id % 90));
+            requestWorkQueue.recordSaved(request);
+        }
+        assertEquals(50_000, requestWorkQueue.size());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(20, requestWorkQueue.peek(20).size());
+        }
+        long averageNanos = (System.nanoTime() - start) / 1_000;
+        assertTrue(averageNanos < 1_000_000, "peek took " + averageNanos + "ns");
+    }
+
+    private RequestsEntity newRequest(int daysUntilNeeded) {
+        DocumentsEntity document = documentsRepository.findAll().get(0);
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(document);
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now().plusDays(daysUntilNeeded));
+        return request;
+    }
+
+    private static StatusUpdateRequest status(String status) {
+        StatusUpdateRequest update = new StatusUpdateRequest();
+        update.setStatus(status);
+        return update;
+    }
+
+    private static List<Long> ids(List<RequestSummaryDTO> rows) {
+        return rows.stream().map(RequestSummaryDTO::getRequestId).toList();
+    }
+}
@@ -0,0 +1,187 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import citedocs.StatementCounter;
+import citedocs.Controller.StatusUpdateRequest;
+import citedocs.DTO.StatusChangedEvent;
+import citedocs.Entity.OutboxEventEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Exception.ConflictException;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.OutboxEventRepository;
+import citedocs.Repository.RequestsRepository;
+
+@SpringBootTest
+class RequestsServiceConcurrencyTest {
+
+    private static final RequestsEntity.Status[] TARGETS = {
+            RequestsEntity.Status.PROCESSING,
+            RequestsEntity.Status.APPROVED,
+            RequestsEntity.Status.COMPLETED,
+            RequestsEntity.Status.REJECTED,
+            RequestsEntity.Status.PENDING
+    };
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        requestsRepository.deleteAll();
+    }
+
+    @Test
+    void statusUpdateUsesThreeStatements() {
+        Long id = seedRequest();
+        StatementCounter.reset();
+
+        requestsService.updateStatus(id, statusUpdate(RequestsEntity.Status.PROCESSING), 1);
+
+        // status snapshot, conditional UPDATE, outbox INSERT
+        assertEquals(3, StatementCounter.count());
+    }
+
+    @Test
+    void concurrentStatusUpdatesNeverLoseATransition() throws Exception {
+        Long id = seedRequest();
+        int threads = 8;
+        int attemptsPerThread = 40;
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger noOps = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    RequestsEntity.Status target = TARGETS[(offset + i) % TARGETS.length];
+                    try {
+                        requestsService.updateStatus(id, statusUpdate(target), 1);
+                        succeeded.incrementAndGet();
+                    } catch (ConflictException ex) {
+                        conflicts.incrementAndGet();
+                    } catch (IllegalArgumentException ex) {
+                        noOps.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(threads * attemptsPerThread, succeeded.get() + conflicts.get() + noOps.get());
+
+        // Every applied transition produced exactly one event, and the events
+        // chain from PENDING to the final status with no gaps or overwrites
+        List<String[]> transitions = new ArrayList<>();
+        for (OutboxEventEntity event : outboxEventRepository.findAll()) {
+            if (event.getEventType() != OutboxEventEntity.Type.REQUEST_STATUS_CHANGED) {
+                continue;
+            }
+            StatusChangedEvent payload = objectMapper.readValue(event.getPayload(), StatusChangedEvent.class);
+            for (StatusChangedEvent.Change change : payload.getChanges()) {
+                if (id.equals(change.getRequestId())) {
+                    transitions.add(new String[] { change.getOldStatus(), payload.getNewStatus() });
+                }
+            }
+        }
+
+        assertEquals(succeeded.get(), transitions.size());
+        assertFormChain(transitions, RequestsEntity.Status.PENDING.toString(),
+                requestsRepository.findById(id).orElseThrow().getStatus().toString());
+    }
+
+    /**
+     * Asserts the transitions can be ordered into one chain from first to
+     * last, each starting where the previous one ended. Neither event
+     * timestamps (which can tie) nor status log ids (assigned when the
+     * dispatcher runs, not at commit) give the commit order, so this checks
+     * the Euler-path conditions instead: every status is entered as often as
+     * it is left, except the first and last, and all of them are reachable
+     * from the first. A lost update shows up as one status left twice.
+     */
+    private static void assertFormChain(List<String[]> transitions, String first, String last) {
+        Map<String, Integer> balance = new HashMap<>();
+        Map<String, Set<String>> next = new HashMap<>();
+        for (String[] transition : transitions) {
+            balance.merge(transition[0], 1, Integer::sum);
+            balance.merge(transition[1], -1, Integer::sum);
+            next.computeIfAbsent(transition[0], status -> new HashSet<>()).add(transition[1]);
+        }
+        balance.merge(first, -1, Integer::sum);
+        balance.merge(last, 1, Integer::sum);
+        balance.forEach((status, surplus) -> assertEquals(0, surplus, "unbalanced transitions at " + status));
+
+        Set<String> reached = new HashSet<>(Set.of(first));
+        Deque<String> pending = new ArrayDeque<>(reached);
+        while (!pending.isEmpty()) {
+            for (String status : next.getOrDefault(pending.pop(), Set.of())) {
+                if (reached.add(status)) {
+                    pending.push(status);
+                }
+            }
+        }
+        assertTrue(reached.containsAll(next.keySet()));
+        assertTrue(reached.contains(last));
+    }
+
+    private Long seedRequest() {
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId(1L);
+        request.setDocument(documentsRepository.findAll().get(0));
+        request.setCopies(1);
+        return requestsRepository.save(request).getRequestId();
+    }
+
+    private StatusUpdateRequest statusUpdate(RequestsEntity.Status status) {
+        StatusUpdateRequest payload = new StatusUpdateRequest();
+        payload.setStatus(status.toString());
+        return payload;
+    }
+}
@@ -0,0 +1,170 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import citedocs.StatementCounter;
+import citedocs.DTO.CursorPage;
+import citedocs.DTO.RequestDetailDTO;
+import citedocs.DTO.RequestFilter;
+import citedocs.DTO.RequestSummaryDTO;
+import citedocs.Entity.DocumentsEntity;
+import citedocs.Entity.PaymentEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.PaymentRepository;
+import citedocs.Repository.RequestsRepository;
+import citedocs.Repository.UserRepository;
+
+@SpringBootTest
+class RequestsServiceTest {
+
+    @Autowired
+    private RequestsService requestsService;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        requestsRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findAllUsesConstantNumberOfStatements() {
+        seedRequests(5);
+        long smallListStatements = countStatements(() -> assertEquals(5, requestsService.findAll().size()));
+
+        seedRequests(45);
+        long largeListStatements = countStatements(() -> assertEquals(50, requestsService.findAll().size()));
+
+        // requests joined with documents and users, then payments
+        assertEquals(2, smallListStatements);
+        assertEquals(smallListStatements, largeListStatements);
+    }
+
+    @Test
+    void findByUserIdUsesConstantNumberOfStatements() {
+        List<UserEntity> students = seedRequests(20);
+        Long userId = (long) students.get(0).getUserId();
+
+        long statements = countStatements(() -> {
+            List<RequestSummaryDTO> requests = requestsService.findByUserId(userId);
+            assertEquals(1, requests.size());
+            assertEquals(students.get(0).getName(), requests.get(0).getUserName());
+            assertEquals("proof-0.jpg", requests.get(0).getProofOfPayment());
+        });
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void findDetailByIdReadsProjectionOnly() {
+        List<UserEntity> students = seedRequests(3);
+        Long requestId = requestsRepository.findAll().get(1).getRequestId();
+
+        long statements = countStatements(() -> {
+            RequestDetailDTO detail = requestsService.findDetailById(requestId);
+            assertEquals(students.get(1).getName(), detail.getStudentName());
+            assertEquals("REQ-" + requestId, detail.getReferenceCode());
+            assertEquals("proof-1.jpg", detail.getProofOfPayment());
+            assertEquals("PENDING", detail.getStatus());
+        });
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void findPageAppliesFiltersAcrossPages() {
+        seedRequests(6);
+        List<RequestsEntity> requests = requestsRepository.findAll();
+        Long documentId = requests.get(0).getDocument().getDocumentId();
+        for (int i = 0; i < 3; i++) {
+            RequestsEntity request = requests.get(i);
+            request.setStatus(RequestsEntity.Status.PROCESSING);
+            requestsRepository.save(request);
+        }
+
+        RequestFilter filter = new RequestFilter();
+        filter.setStatus("processing");
+        filter.setLimit(2);
+        CursorPage<RequestSummaryDTO> first = requestsService.findPage(filter);
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.getNextCursor() != null);
+
+        filter.setAfter(first.getNextCursor());
+        CursorPage<RequestSummaryDTO> second = requestsService.findPage(filter);
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+
+        List<Long> seen = new ArrayList<>();
+        first.getItems().forEach(row -> seen.add(row.getRequestId()));
+        second.getItems().forEach(row -> seen.add(row.getRequestId()));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(seen.contains(requests.get(i).getRequestId()));
+        }
+
+        RequestFilter byDocument = new RequestFilter();
+        byDocument.setStatus("PROCESSING");
+        byDocument.setDocumentId(documentId);
+        for (RequestSummaryDTO row : requestsService.findPage(byDocument).getItems()) {
+            assertEquals(RequestsEntity.Status.PROCESSING, row.getStatus());
+            assertEquals(documentId, row.getDocument().getDocumentId());
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        StatementCounter.reset();
+        action.run();
+        return StatementCounter.count();
+    }
+
+    private List<UserEntity> seedRequests(int count) {
+        List<DocumentsEntity> documents = documentsRepository.findAll();
+        long offset = userRepository.count();
+
+        List<UserEntity> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long n = offset + i;
+            UserEntity student = userRepository.save(new UserEntity(
+                    "Student " + n, "student" + n + "@cit.edu", "secret",
+                    UserEntity.Role.STUDENT, "SID-" + n, null));
+            students.add(student);
+
+            RequestsEntity request = new RequestsEntity();
+            request.setUserId((long) student.getUserId());
+            request.setDocument(documents.get(i % documents.size()));
+            request.setCopies(1);
+            request.setDateNeeded(LocalDate.now().plusDays(7));
+            request = requestsRepository.save(request);
+
+            PaymentEntity payment = new PaymentEntity();
+            payment.setRequestId(request.getRequestId());
+            payment.setProofOfPayment("proof-" + i + ".jpg");
+            paymentRepository.save(payment);
+        }
+        return students;
+    }
+}
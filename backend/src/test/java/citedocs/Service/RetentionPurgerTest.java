@@ -0,0 +1,194 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import citedocs.DTO.RetentionRunDTO;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Entity.NotificationTemplate;
+import citedocs.Entity.RequestStatusLogEntity;
+import citedocs.Entity.RequestsEntity;
+import citedocs.Entity.UserEntity;
+import citedocs.Repository.DocumentsRepository;
+import citedocs.Repository.NotificationReadMarkRepository;
+import citedocs.Repository.NotificationRepository;
+import citedocs.Repository.RequestStatusLogRepository;
+import citedocs.Repository.RequestsRepository;
+import citedocs.Repository.RetentionMarkRepository;
+
+@SpringBootTest
+class RetentionPurgerTest {
+
+    private static final int USER_ID = 9401;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReadMarkRepository readMarkRepository;
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private RequestStatusLogService requestStatusLogService;
+
+    @Autowired
+    private RequestStatusLogRepository requestStatusLogRepository;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private RetentionMarkRepository retentionMarkRepository;
+
+    @Autowired
+    private DocumentsRepository documentsRepository;
+
+    @Autowired
+    private RequestStatistics requestStatistics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteAll();
+        readMarkRepository.deleteAll();
+        requestStatusLogRepository.deleteAll();
+        requestsRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM notification_digest_requests");
+        jdbcTemplate.update("DELETE FROM request_status_log_archive");
+        retentionMarkRepository.deleteAll();
+        requestStatistics.rebuild();
+    }
+
+    @Test
+    void deletesOldReadNotificationsInChunks() throws Exception {
+        List<NotificationEntity> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(notificationService.buildNotification(USER_ID, (long) i, "Old " + i));
+        }
+        notificationService.sendNotifications(sent);
+        notificationService.sendNotifications(List.of(notificationService.buildBroadcast(
+                UserEntity.Role.REGISTRAR, 10L, NotificationTemplate.REQUEST_SUBMITTED, "Ana", null, "TOR")));
+        List<NotificationEntity> burst = List.of(
+                notificationService.buildNotification(USER_ID, 11L, NotificationTemplate.REQUEST_SUBMITTED,
+                        "Ana", null, "Diploma"),
+                notificationService.buildNotification(USER_ID, 12L, NotificationTemplate.REQUEST_SUBMITTED,
+                        "Ben", null, "Diploma"));
+        notificationService.sendNotifications(burst);
+        notificationWriter.flush(5000);
+
+        notificationService.markAsRead(sent.get(0).getNotificationId());
+        notificationService.markAllAsRead(USER_ID, sent.get(1).getNotificationId());
+        notificationService.markAsRead(sent.get(3).getNotificationId());
+        notificationService.markAsRead(burst.get(0).getNotificationId());
+        jdbcTemplate.update("UPDATE notifications SET created_at = ?", LocalDateTime.now().minusDays(100));
+
+        NotificationEntity recent = notificationService.sendNotification(USER_ID, 20L, "Recent");
+        notificationWriter.flush(5000);
+        notificationService.markAsRead(recent.getNotificationId());
+
+        RetentionRunDTO run = purger().purge();
+
+        // read by flag, by read mark, the broadcast and the read digest
+        assertEquals(5, run.getNotificationsDeleted());
+        assertEquals(List.of(recent.getNotificationId(), sent.get(4).getNotificationId(),
+                        sent.get(2).getNotificationId()),
+                notificationRepository.findByUserIdOrderByCreatedAtDescNotificationIdDesc(USER_ID).stream()
+                        .map(NotificationEntity::getNotificationId).toList());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_digest_requests", Integer.class));
+        assertEquals(2, notificationService.countUnread(USER_ID).getUnread());
+
+        assertEquals(0, purger().purge().getNotificationsDeleted());
+    }
+
+    @Test
+    void nightlyWalkResumesAtTheMarkUntilTheNextFullWalk() throws Exception {
+        List<NotificationEntity> sent = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sent.add(notificationService.buildNotification(USER_ID, (long) i, "Old " + i));
+        }
+        notificationService.sendNotifications(sent);
+        notificationWriter.flush(5000);
+        jdbcTemplate.update("UPDATE notifications SET created_at = ?", LocalDateTime.now().minusDays(100));
+
+        // nothing read yet; the walk still moves past the unread rows
+        assertEquals(0, purger().purge().getNotificationsDeleted());
+        long mark = retentionMarkRepository.findById(RetentionPurger.NOTIFICATIONS_MARK).orElseThrow().getNextId();
+        assertTrue(mark > sent.get(3).getNotificationId());
+
+        // read behind the mark: left for the next full walk
+        notificationService.markAsRead(sent.get(1).getNotificationId());
+        assertEquals(0, purger().purge().getNotificationsDeleted());
+
+        jdbcTemplate.update("UPDATE retention_marks SET swept_at = ?", LocalDateTime.now().minusDays(31));
+        assertEquals(1, purger().purge().getNotificationsDeleted());
+        assertEquals(3, notificationRepository.findByUserIdOrderByCreatedAtDescNotificationIdDesc(USER_ID).size());
+    }
+
+    @Test
+    void archivesOldStatusLogsOfLiveRequests() {
+        RequestsEntity request = new RequestsEntity();
+        request.setUserId((long) USER_ID);
+        request.setDocument(documentsRepository.findAll().get(0));
+        request.setCopies(1);
+        request.setDateNeeded(LocalDate.now());
+        Long requestId = requestsRepository.save(request).getRequestId();
+
+        List<RequestStatusLogEntity> logs = new ArrayList<>();
+        for (String status : List.of("PROCESSING", "APPROVED", "COMPLETED")) {
+            RequestStatusLogEntity log = new RequestStatusLogEntity();
+            log.setRequestId(requestId);
+            log.setOldStatus("PENDING");
+            log.setNewStatus(status);
+            log.setChangedBy(1);
+            logs.add(log);
+        }
+        requestStatusLogRepository.insertAll(logs);
+        jdbcTemplate.update("UPDATE request_status_log SET changed_at = ? WHERE new_status <> 'COMPLETED'",
+                LocalDateTime.now().minusDays(40));
+
+        // another node copied the first log but has not deleted it yet
+        jdbcTemplate.update("INSERT INTO request_status_log_archive " +
+                "(archive_year, log_id, request_id, old_status, new_status, remarks, changed_by, changed_at) " +
+                "SELECT YEAR(CURRENT_DATE), log_id, request_id, old_status, new_status, remarks, changed_by, changed_at " +
+                "FROM request_status_log WHERE new_status = 'PROCESSING'");
+
+        RetentionRunDTO run = purger().purge();
+
+        assertEquals(2, run.getStatusLogsArchived());
+        assertEquals(1, requestStatusLogRepository.count());
+        assertEquals(3, requestStatusLogService.findAllIncludingArchived((long) USER_ID).size());
+    }
+
+    private RetentionPurger purger() {
+        return new RetentionPurger(notificationRepository, requestStatusLogRepository, retentionMarkRepository,
+                unreadCountCache, transactionManager, 90, 30, 2, 0, 30);
+    }
+}
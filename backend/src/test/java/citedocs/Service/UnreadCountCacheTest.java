@@ -0,0 +1,101 @@
+package citedocs.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import citedocs.StatementCounter;
+import citedocs.Entity.NotificationEntity;
+import citedocs.Repository.NotificationRepository;
+
+@SpringBootTest
+class UnreadCountCacheTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void cachedCountFollowsSendsReadsAndDeletes() throws Exception {
+        int userId = 9101;
+        assertEquals(0, notificationService.countUnread(userId).getUnread());
+
+        notificationService.sendNotifications(List.of(
+                notificationService.buildNotification(userId, 1L, "first"),
+                notificationService.buildNotification(userId, 2L, "second"),
+                notificationService.buildNotification(userId + 1, 3L, "someone else")));
+        NotificationEntity third = notificationService.sendNotification(userId, 4L, "third");
+        notificationWriter.flush(5000);
+
+        StatementCounter.reset();
+        assertEquals(3, notificationService.countUnread(userId).getUnread());
+        assertEquals(0, StatementCounter.count());
+
+        notificationService.markAsRead(third.getNotificationId());
+        notificationService.markAsRead(third.getNotificationId());
+        assertEquals(2, notificationService.countUnread(userId).getUnread());
+
+        NotificationEntity first = notificationRepository.findByUserIdOrderByCreatedAtDescNotificationIdDesc(userId).stream()
+                .filter(n -> n.getMessage().equals("first"))
+                .findFirst().orElseThrow();
+        notificationService.delete(first.getNotificationId());
+        notificationService.delete(third.getNotificationId());
+
+        StatementCounter.reset();
+        assertEquals(1, notificationService.countUnread(userId).getUnread());
+        assertEquals(0, StatementCounter.count());
+        assertEquals(1, notificationRepository.countUnread(userId));
+    }
+
+    @Test
+    void concurrentReadsOfOneNotificationDecrementOnce() throws Exception {
+        int userId = 9102;
+        NotificationEntity target = notificationService.sendNotification(userId, 1L, "read twice");
+        notificationService.sendNotification(userId, 2L, "still unread");
+        notificationWriter.flush(5000);
+        assertEquals(2, notificationService.countUnread(userId).getUnread());
+
+        int readers = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    notificationService.markAsRead(target.getNotificationId());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1, notificationService.countUnread(userId).getUnread());
+        assertEquals(1, notificationRepository.countUnread(userId));
+    }
+}
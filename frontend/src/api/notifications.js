@@ -9,6 +9,15 @@ export const getNotifications = async (token, userId) => {
   return res.data;
 };
 
+// One page, newest first: { items, nextCursor }. Pass nextCursor back as before.
+export const getNotificationPage = async (token, userId, { before, limit = 20 } = {}) => {
+  const res = await axios.get(`${API}/notifications/user/${userId}`, {
+    headers: { Authorization: `Bearer ${token}` },
+    params: before ? { before, limit } : { limit }
+  });
+  return res.data;
+};
+
 export const getUnreadNotifications = async (token, userId) => {
   const res = await axios.get(`${API}/notifications/user/${userId}/unread`, {
     headers: { Authorization: `Bearer ${token}` }
@@ -16,6 +25,20 @@ export const getUnreadNotifications = async (token, userId) => {
   return res.data;
 };
 
+// Marks everything up to upTo (the newest id the user has seen) as read in one call.
+// Nothing shown means nothing to mark.
+export const markAllNotificationsRead = async (token, userId, upTo) => {
+  if (!upTo) return;
+  await axios.put(
+    `${API}/notifications/user/${userId}/read-all`,
+    {},
+    {
+      headers: { Authorization: `Bearer ${token}` },
+      params: { upTo }
+    }
+  );
+};
+
 export const markNotificationRead = async (token, id) => {
   const res = await axios.put(
     `${API}/notifications/${id}/read`,
@@ -24,3 +47,81 @@ export const markNotificationRead = async (token, id) => {
   );
   return res.data;
 };
+
+// Single-use ticket for opening the stream; EventSource cannot send the JWT
+export const getStreamTicket = async (token) => {
+  const res = await axios.post(
+    `${API}/notifications/stream-ticket`,
+    {},
+    { headers: { Authorization: `Bearer ${token}` } }
+  );
+  return res.data.ticket;
+};
+
+const STREAM_RETRY_MS = 3000;
+
+/**
+ * Opens the notification Server-Sent Events stream. Each connection uses a
+ * fresh single-use ticket, so the browser's own reconnect (which would reuse
+ * the spent ticket) is replaced by reconnecting here with a new ticket and
+ * the last event id seen. "reset" means too much was missed and the list
+ * should be reloaded, and "update" carries a digest whose count changed in
+ * place. Returns a function that closes it.
+ */
+export const openNotificationStream = (token, { onNotification, onReset, onUpdate }) => {
+  let source = null;
+  let retryTimer = null;
+  let closed = false;
+  let lastEventId = null;
+
+  const retry = () => {
+    if (!closed) retryTimer = setTimeout(connect, STREAM_RETRY_MS);
+  };
+
+  const connect = async () => {
+    let ticket;
+    try {
+      ticket = await getStreamTicket(token);
+    } catch (err) {
+      retry();
+      return;
+    }
+    if (closed) return;
+
+    const params = new URLSearchParams({ ticket });
+    if (lastEventId) params.set("after", lastEventId);
+    source = new EventSource(`${API}/notifications/stream?${params}`);
+
+    source.addEventListener("notification", (event) => {
+      if (event.lastEventId) lastEventId = event.lastEventId;
+      onNotification(JSON.parse(event.data));
+    });
+    source.addEventListener("reset", () => {
+      // the list is reloaded, so there is nothing older to resume from
+      lastEventId = null;
+      if (onReset) onReset();
+    });
+    source.addEventListener("update", (event) => {
+      if (onUpdate) onUpdate(JSON.parse(event.data));
+    });
+    source.onerror = () => {
+      source.close();
+      retry();
+    };
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (source) source.close();
+  };
+};
+
+export const getUnreadCount = async (token, userId) => {
+  const res = await axios.get(`${API}/notifications/user/${userId}/unread-count`, {
+    headers: { Authorization: `Bearer ${token}` }
+  });
+  return res.data;
+};
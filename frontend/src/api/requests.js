@@ -10,19 +10,92 @@ export const fetchRequests = ({ token, query } = {}) =>
     query,
   });
 
-export const fetchRequestById = ({ id, token }) =>
-  apiRequest(`${REQUESTS_BASE}/${id}`, {
+export const fetchRequestStats = ({ token, userId } = {}) =>
+  apiRequest(`${REQUESTS_BASE}/stats`, {
     method: "GET",
     token,
+    query: userId ? { userId } : undefined,
   });
 
-export const createRequest = ({ payload, token }) => {
-  // Backend expects JSON, not FormData
-  return apiRequest(REQUESTS_BASE, {
+// Registrar work queue: the next actionable requests, most urgent first
+export const fetchWorkQueue = ({ token, limit } = {}) =>
+  apiRequest(`${REQUESTS_BASE}/queue`, {
+    method: "GET",
+    token,
+    query: limit ? { limit } : undefined,
+  });
+
+// Assigns the next unclaimed request to the signed-in registrar; null when none is left
+export const claimNextRequest = ({ token }) =>
+  apiRequest(`${REQUESTS_BASE}/claim-next`, {
     method: "POST",
-    body: payload,
     token,
   });
+
+export const releaseRequestClaim = ({ id, token }) =>
+  apiRequest(`${REQUESTS_BASE}/${id}/release`, {
+    method: "POST",
+    token,
+  });
+
+// Delta sync: without `since` this only returns the current watermark; take it
+// before loading the full list. Follows `hasMore` until caught up.
+export const fetchRequestChanges = async ({ token, since, userId } = {}) => {
+  const changed = [];
+  const deleted = [];
+  let watermark = since;
+  let page;
+  do {
+    const query = {};
+    if (watermark) query.since = watermark;
+    if (userId) query.userId = userId;
+    page = await apiRequest(`${REQUESTS_BASE}/changes`, {
+      method: "GET",
+      token,
+      query,
+    });
+    changed.push(...(page.changed || []));
+    deleted.push(...(page.deleted || []));
+    watermark = page.watermark;
+  } while (page.hasMore);
+  return { changed, deleted, watermark };
+};
+
+export const fetchRequestById = ({ id, token }) =>
+  apiRequest(`${REQUESTS_BASE}/${id}`, {
+    method: "GET",
+    token,
+  });
+
+// One key per logical submission: retries that reuse it get the first
+// response back instead of creating a duplicate
+export const newIdempotencyKey = () =>
+  window.crypto?.randomUUID
+    ? window.crypto.randomUUID()
+    : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
+// fetch rejects with a TypeError when the request never got a response
+const isNetworkError = (error) => error instanceof TypeError;
+
+const postIdempotent = async (path, { body, token, idempotencyKey, retries = 2 }) => {
+  const key = idempotencyKey || newIdempotencyKey();
+  for (let attempt = 0; ; attempt += 1) {
+    try {
+      return await apiRequest(path, {
+        method: "POST",
+        body,
+        token,
+        headers: { "Idempotency-Key": key },
+      });
+    } catch (error) {
+      if (!isNetworkError(error) || attempt >= retries) throw error;
+    }
+  }
+};
+
+export const createRequest = ({ payload, token, idempotencyKey }) => {
+  // Backend expects JSON, not FormData
+  return postIdempotent(REQUESTS_BASE, { body: payload, token, idempotencyKey });
 };
 
 export const updateRequest = ({ id, payload, token }) =>
@@ -78,7 +151,7 @@ export const fetchDocuments = ({ token } = {}) =>
 
 const PAYMENTS_BASE = "/api/payments";
 
-export const createPayment = ({ requestId, proofFile, remarks, token }) => {
+export const createPayment = ({ requestId, proofFile, remarks, token, idempotencyKey }) => {
   const formData = new FormData();
   formData.append("requestId", requestId);
   formData.append("proofFile", proofFile);
@@ -86,11 +159,7 @@ export const createPayment = ({ requestId, proofFile, remarks, token }) => {
     formData.append("remarks", remarks);
   }
 
-  return apiRequest(`${PAYMENTS_BASE}/upload`, {
-    method: "POST",
-    body: formData,
-    token,
-  });
+  return postIdempotent(`${PAYMENTS_BASE}/upload`, { body: formData, token, idempotencyKey });
 };
 
 export const fetchPaymentByRequestId = async ({ requestId, token }) => {
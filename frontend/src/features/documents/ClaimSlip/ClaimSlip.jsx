@@ -80,7 +80,7 @@ const ClaimSlip = () => {
         });
 
         setRequestData({
-          studentName: request.userName || "Unknown Student",
+          studentName: request.studentName || request.userName || "Unknown Student",
           studentId: request.studentId || "N/A",
           documentType: request.documentName || request.documentType?.name || request.documentType || "Document",
           copies: request.copies || 1,
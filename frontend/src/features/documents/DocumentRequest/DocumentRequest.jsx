@@ -1,4 +1,4 @@
-import React, { useCallback, useEffect, useMemo, useState } from "react";
+import React, { useCallback, useEffect, useMemo, useRef, useState } from "react";
 import { Link } from "react-router-dom";
 import "../../portals/student/StudentPortal/StudentPortal.css";
 import Header from "../../portals/student/StudentPortal/components/Header";
@@ -11,6 +11,7 @@ import {
   fetchDocuments,
   createPayment,
   fetchPaymentByRequestId,
+  newIdempotencyKey,
 } from "../../../api/requests";
 
 
@@ -25,6 +26,10 @@ export default function DocumentRequest() {
     proofFile: null,
   });
 
+  // Idempotency keys for the current submission; kept across resubmits of
+  // the same form so a retry after a dropped response is not a duplicate
+  const submissionKeys = useRef(null);
+
   const [userRequests, setUserRequests] = useState([]);
   const [isFetching, setIsFetching] = useState(false);
   const [fetchError, setFetchError] = useState(null);
@@ -46,6 +51,7 @@ export default function DocumentRequest() {
   };
 
   const handleChange = (e) => {
+    submissionKeys.current = null;
     setFormData({
       ...formData,
       [e.target.name]: e.target.value,
@@ -55,6 +61,7 @@ export default function DocumentRequest() {
   const handleFileUpload = (e) => {
     const file = e.target.files[0];
     if (file) {
+      submissionKeys.current = null;
       setFormData({ ...formData, proofFile: file });
     }
   };
@@ -234,8 +241,13 @@ export default function DocumentRequest() {
     try {
       setIsFetching(true);
       
+      if (!submissionKeys.current) {
+        submissionKeys.current = { request: newIdempotencyKey(), payment: newIdempotencyKey() };
+      }
+      const keys = submissionKeys.current;
+
       // Step 1: Create the request
-      const created = await createRequestApi({ payload, token });
+      const created = await createRequestApi({ payload, token, idempotencyKey: keys.request });
       const requestId = created.requestId;
 
       if (!requestId) {
@@ -250,6 +262,7 @@ export default function DocumentRequest() {
             proofFile: formData.proofFile,
             remarks: null,
             token,
+            idempotencyKey: keys.payment,
           });
         } catch (paymentError) {
           console.error("Payment upload failed", paymentError);
@@ -265,6 +278,7 @@ export default function DocumentRequest() {
       setTimeout(() => setSuccess(false), 3000);
 
       // Reset form
+      submissionKeys.current = null;
       setFormData({
         documentId: "",
         dateNeeded: "",
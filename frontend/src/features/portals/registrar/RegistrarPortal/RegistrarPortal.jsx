@@ -1,4 +1,4 @@
-import React, { useEffect, useMemo, useState } from "react";
+import React, { useEffect, useMemo, useRef, useState } from "react";
 import { useSearchParams, Outlet, useLocation, Link } from "react-router-dom";
 import "./RegistrarPortal.css";
 
@@ -12,12 +12,14 @@ import Footer from "../../../../components/layout/Footer";
 import { useAuthContext } from "../../../auth/context/AuthContext";
 import {
   fetchRequests,
+  fetchRequestChanges,
+  fetchRequestStats,
   updateRequestStatus,
   fetchDocuments,
   fetchPaymentByRequestId,
   fetchStatusLogs,
 } from "../../../../api/requests";
-import { formatRequestId } from "../../../../utils/requestUtils";
+import { formatRequestId, mergeRequestChanges } from "../../../../utils/requestUtils";
 import useModal from "./hooks/useModal";
 
 export default function RegistrarPortal() {
@@ -108,6 +110,28 @@ export default function RegistrarPortal() {
   const [statusFilter, setStatusFilter] = useState("all");
   const [docFilter, setDocFilter] = useState("all");
   const [activities, setActivities] = useState([]);
+  const [serverStats, setServerStats] = useState(null);
+  // Delta sync position; taken before the full load so no change is missed
+  const watermarkRef = useRef(null);
+
+  // Dashboard counts come from the stats endpoint; reloaded whenever the list changes
+  useEffect(() => {
+    if (!token) {
+      setServerStats(null);
+      return;
+    }
+    fetchRequestStats({ token })
+      .then(setServerStats)
+      .catch((error) => {
+        console.warn("Unable to load request stats", error);
+        setServerStats(null);
+      });
+  }, [token, requests]);
+
+  const countByStatus = (status) =>
+    serverStats?.byStatus
+      ? serverStats.byStatus[status.toUpperCase()] ?? 0
+      : requests.filter((r) => r.status === status).length;
 
   useEffect(() => {
     const loadRequests = async () => {
@@ -118,6 +142,7 @@ export default function RegistrarPortal() {
       setIsLoading(true);
       setFetchError(null);
       try {
+        watermarkRef.current = (await fetchRequestChanges({ token })).watermark;
         const data = await fetchRequests({ token });
         if (Array.isArray(data)) {
           // Load payment info for each request
@@ -328,57 +353,41 @@ export default function RegistrarPortal() {
         dateReady,
         token,
       });
-      // Reload requests to get updated data
-      const data = await fetchRequests({ token });
-      if (Array.isArray(data)) {
-        // Load payment info for each request
-        const requestsWithPayments = await Promise.all(
-          data.map(async (req) => {
-            let proofUrl = "";
-            try {
-              const payment = await fetchPaymentByRequestId({
-                requestId: req.requestId,
-                token,
-              });
-              if (payment && payment.proofOfPayment) {
-                const API_BASE_URL = process.env.REACT_APP_API_URL || "http://localhost:8080";
-                proofUrl = `${API_BASE_URL}/api/payments/file/${payment.proofOfPayment}`;
-              }
-            } catch (error) {
-              // Payment not found is expected for requests without payment - ignore silently
-              if (error.message && !error.message.includes('404')) {
-                console.warn(`Error loading payment for request ${req.requestId}:`, error);
-              }
-            }
-
-            return {
-              id: formatRequestId(req.requestId || req.id),
-              requestId: req.requestId || req.id,
-              referenceCode: formatRequestId(req.requestId || req.id),
-              studentName: req.userName || "Unknown Student",
-              studentId: req.studentId || "N/A",
-              documentType:
-                req.documentName ||
-                req.documentType?.name ||
-                req.documentType ||
-                "Document",
-              purpose: req.purpose,
-              copies: req.copies,
-              status: (req.status || "").toLowerCase(),
-              date: req.createdAt
-                ? new Date(req.createdAt).toLocaleDateString()
-                : "",
-              dateNeeded: req.dateNeeded,
-              dateReady: req.dateReady,
-              proofImage: proofUrl,
-              proofUrl: proofUrl,
-              remarks: req.remarks,
-              createdAt: req.createdAt,
-            };
-          })
-        );
-        setRequests(requestsWithPayments);
-      }
+      // Fetch only what changed since the last sync
+      const changes = await fetchRequestChanges({ token, since: watermarkRef.current });
+      watermarkRef.current = changes.watermark;
+      const API_BASE_URL = process.env.REACT_APP_API_URL || "http://localhost:8080";
+      setRequests((rows) =>
+        mergeRequestChanges(rows, changes, (req) => {
+          const proofUrl = req.proofOfPayment
+            ? `${API_BASE_URL}/api/payments/file/${req.proofOfPayment}`
+            : "";
+          return {
+            id: formatRequestId(req.requestId || req.id),
+            requestId: req.requestId || req.id,
+            referenceCode: formatRequestId(req.requestId || req.id),
+            studentName: req.userName || "Unknown Student",
+            studentId: req.studentId || "N/A",
+            documentType:
+              req.documentName ||
+              req.documentType?.name ||
+              req.documentType ||
+              "Document",
+            purpose: req.purpose,
+            copies: req.copies,
+            status: (req.status || "").toLowerCase(),
+            date: req.createdAt
+              ? new Date(req.createdAt).toLocaleDateString()
+              : "",
+            dateNeeded: req.dateNeeded,
+            dateReady: req.dateReady,
+            proofImage: proofUrl,
+            proofUrl: proofUrl,
+            remarks: req.remarks,
+            createdAt: req.createdAt,
+          };
+        })
+      );
       statusModal.close();
     } catch (error) {
       console.error("Unable to update status", error);
@@ -397,37 +406,37 @@ export default function RegistrarPortal() {
   const stats = [
     {
       label: "Total Requests",
-      value: requests.length,
+      value: serverStats ? serverStats.total : requests.length,
       color: "stat-total",
       link: "/registrar?status=all",
     },
     {
       label: "Pending",
-      value: requests.filter((r) => r.status === "pending").length,
+      value: countByStatus("pending"),
       color: "stat-pending",
       link: "/registrar?status=pending",
     },
     {
       label: "Processing",
-      value: requests.filter((r) => r.status === "processing").length,
+      value: countByStatus("processing"),
       color: "stat-warning",
       link: "/registrar?status=processing",
     },
     {
       label: "Approved",
-      value: requests.filter((r) => r.status === "approved").length,
+      value: countByStatus("approved"),
       color: "stat-approved",
       link: "/registrar?status=approved",
     },
     {
       label: "Completed",
-      value: requests.filter((r) => r.status === "completed").length,
+      value: countByStatus("completed"),
       color: "stat-success",
       link: "/registrar?status=completed",
     },
     {
       label: "Rejected",
-      value: requests.filter((r) => r.status === "rejected").length,
+      value: countByStatus("rejected"),
       color: "stat-danger",
       link: "/registrar?status=rejected",
     },
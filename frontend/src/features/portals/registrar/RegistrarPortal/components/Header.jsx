@@ -4,9 +4,11 @@ import { useAuthContext } from "../../../../auth/context/AuthContext";
 import appLogo from "../../../../../assets/images/app_logo.png";
 
 import {
-  getNotifications,
-  getUnreadNotifications,
-  markNotificationRead
+  getNotificationPage,
+  getUnreadCount,
+  markAllNotificationsRead,
+  markNotificationRead,
+  openNotificationStream
 } from "../../../../../api/notifications";
 
 import "../../../../../components/NotificationStyles.css";
@@ -14,7 +16,8 @@ import "../../../../../components/NotificationStyles.css";
 export default function Header({ registrarName = "Registrar" }) {
   const [showNotifications, setShowNotifications] = useState(false);
   const [notifications, setNotifications] = useState([]);
-  const [unread, setUnread] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [unreadCount, setUnreadCount] = useState(0);
 
   const navigate = useNavigate();
   const { logout, user, token } = useAuthContext();
@@ -47,11 +50,12 @@ export default function Header({ registrarName = "Registrar" }) {
   const loadNotifications = useCallback(async () => {
     if (!token || !user?.userId) return;
     try {
-      const all = await getNotifications(token, user.userId);
-      const unreadList = await getUnreadNotifications(token, user.userId);
+      const page = await getNotificationPage(token, user.userId);
+      const { unread } = await getUnreadCount(token, user.userId);
 
-      setNotifications(all);
-      setUnread(unreadList);
+      setNotifications(page.items);
+      setNextCursor(page.nextCursor);
+      setUnreadCount(unread);
     } catch (err) {
       console.error("Failed to load notifications", err);
     }
@@ -61,13 +65,63 @@ export default function Header({ registrarName = "Registrar" }) {
     loadNotifications();
   }, [loadNotifications]);
 
+  /** --------------------------------------------------
+   * Live updates: new notifications arrive over one open
+   * stream instead of re-fetching the lists
+   -----------------------------------------------------*/
+  useEffect(() => {
+    if (!token || !user?.userId) return undefined;
+
+    const prepend = (list, notif) =>
+      list.some((n) => n.notificationId === notif.notificationId)
+        ? list
+        : [notif, ...list];
+
+    return openNotificationStream(token, {
+      onNotification: (notif) => {
+        setNotifications((prev) => prepend(prev, notif));
+        if (!notif.isRead) {
+          setUnreadCount((count) => count + 1);
+        }
+      },
+      onUpdate: (notif) => {
+        // A digest's count changed; keep its read state
+        setNotifications((prev) =>
+          prev.map((n) =>
+            n.notificationId === notif.notificationId
+              ? { ...notif, isRead: n.isRead }
+              : n
+          )
+        );
+      },
+      onReset: loadNotifications,
+    });
+  }, [token, user, loadNotifications]);
+
+  /** --------------------------------------------------
+   * Older notifications, one page at a time
+   -----------------------------------------------------*/
+  const loadOlder = async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await getNotificationPage(token, user.userId, { before: nextCursor });
+      setNotifications((prev) => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error("Failed to load older notifications", err);
+    }
+  };
+
   /** --------------------------------------------------
    * MARK AS READ
    -----------------------------------------------------*/
   const handleMarkRead = async (id) => {
     await markNotificationRead(token, id);
 
-    setUnread(unread.filter((n) => n.notificationId !== id));
+    const target = notifications.find((n) => n.notificationId === id);
+    if (target && !target.isRead) {
+      setUnreadCount((count) => Math.max(0, count - 1));
+    }
 
     setNotifications(
       notifications.map((n) =>
@@ -80,16 +134,14 @@ export default function Header({ registrarName = "Registrar" }) {
    * MARK ALL AS READ
    -----------------------------------------------------*/
   const handleMarkAllRead = async () => {
-    if (!token || unread.length === 0) return;
+    if (!token || unreadCount === 0) return;
     
     try {
-      // Mark all unread notifications as read concurrently
-      await Promise.all(
-        unread.map((n) => markNotificationRead(token, n.notificationId))
-      );
+      // One call moves the read watermark up to the newest notification shown
+      await markAllNotificationsRead(token, user.userId, notifications[0]?.notificationId);
 
       // Update state to reflect all notifications as read
-      setUnread([]);
+      setUnreadCount(0);
       setNotifications(
         notifications.map((n) => ({ ...n, isRead: true }))
       );
@@ -163,8 +215,8 @@ export default function Header({ registrarName = "Registrar" }) {
               onClick={() => setShowNotifications(!showNotifications)}
             >
               🔔
-              {unread.length > 0 && (
-                <span className="notification-badge">{unread.length}</span>
+              {unreadCount > 0 && (
+                <span className="notification-badge">{unreadCount}</span>
               )}
             </div>
 
@@ -196,6 +248,12 @@ export default function Header({ registrarName = "Registrar" }) {
                       </div>
                     );
                   })}
+
+                  {nextCursor && (
+                    <div className="notification-more" onClick={loadOlder}>
+                      Load older
+                    </div>
+                  )}
                 </div>
 
                 <div
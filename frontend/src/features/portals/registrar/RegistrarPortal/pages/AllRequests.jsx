@@ -1,12 +1,12 @@
-import React, { useEffect, useState, useMemo } from "react";
+import React, { useEffect, useState, useMemo, useRef } from "react";
 import { useLocation, useNavigate } from "react-router-dom";
 import RequestTable from "../components/RequestTable";
 import RequestDetailsModal from "../components/RequestDetailsModal";
 import StatusUpdateModal from "../components/StatusUpdateModal";
 import useModal from "../hooks/useModal";
 import { useAuthContext } from "../../../../auth/context/AuthContext";
-import { fetchRequests, updateRequestStatus, fetchDocuments, fetchPaymentByRequestId } from "../../../../../api/requests";
-import { formatRequestId } from "../../../../../utils/requestUtils";
+import { fetchRequests, fetchRequestChanges, updateRequestStatus, fetchDocuments, fetchPaymentByRequestId } from "../../../../../api/requests";
+import { formatRequestId, mergeRequestChanges } from "../../../../../utils/requestUtils";
 
 export default function AllRequests() {
   const detailsModal = useModal();
@@ -21,6 +21,8 @@ export default function AllRequests() {
   const location = useLocation();
   const navigate = useNavigate();
   const { token } = useAuthContext();
+  // Delta sync position; taken before the full load so no change is missed
+  const watermarkRef = useRef(null);
 
   // Load requests
   useEffect(() => {
@@ -29,6 +31,7 @@ export default function AllRequests() {
       setIsLoading(true);
       setFetchError(null);
       try {
+        watermarkRef.current = (await fetchRequestChanges({ token })).watermark;
         const data = await fetchRequests({ token });
         if (Array.isArray(data)) {
           // Load payment info for each request
@@ -164,11 +167,16 @@ export default function AllRequests() {
         dateReady,
         token,
       });
-      // Reload requests to get updated data
-      const data = await fetchRequests({ token });
-      if (Array.isArray(data)) {
-        setRequests(
-          data.map((req) => ({
+      // Fetch only what changed since the last sync
+      const changes = await fetchRequestChanges({ token, since: watermarkRef.current });
+      watermarkRef.current = changes.watermark;
+      const API_BASE_URL = process.env.REACT_APP_API_URL || "http://localhost:8080";
+      setRequests((rows) =>
+        mergeRequestChanges(rows, changes, (req) => {
+          const proofUrl = req.proofOfPayment
+            ? `${API_BASE_URL}/api/payments/file/${req.proofOfPayment}`
+            : "";
+          return {
             id: formatRequestId(req.requestId || req.id),
             requestId: req.requestId || req.id,
             referenceCode: formatRequestId(req.requestId || req.id),
@@ -185,13 +193,15 @@ export default function AllRequests() {
             date: req.createdAt
               ? new Date(req.createdAt).toLocaleDateString()
               : "",
+            dateNeeded: req.dateNeeded,
             dateReady: req.dateReady,
-            proofImage: req.proofOfPayment,
+            proofImage: proofUrl,
+            proofUrl: proofUrl,
             remarks: req.remarks,
             createdAt: req.createdAt,
-          }))
-        );
-      }
+          };
+        })
+      );
       statusModal.close();
     } catch (error) {
       console.error("Failed to update status:", error);
@@ -8,7 +8,7 @@ import ActivityPanel from "./components/ActivityPanel";
 import RequestDetailsModal from "../../registrar/RegistrarPortal/components/RequestDetailsModal";
 import { Outlet, useLocation, useNavigate, Link } from "react-router-dom";
 import { useAuthContext } from "../../../auth/context/AuthContext";
-import { fetchRequests, fetchStatusLogs, fetchDocuments, fetchPaymentByRequestId } from "../../../../api/requests";
+import { fetchRequests, fetchRequestStats, fetchStatusLogs, fetchDocuments, fetchPaymentByRequestId } from "../../../../api/requests";
 import { formatRequestId } from "../../../../utils/requestUtils";
 
 const StudentPortal = () => {
@@ -22,6 +22,7 @@ const StudentPortal = () => {
   const [statusFilter, setStatusFilter] = useState("all");
   const [docFilter, setDocFilter] = useState("all");
   const [documentTypes, setDocumentTypes] = useState([]);
+  const [serverStats, setServerStats] = useState(null);
   const location = useLocation();
   const navigate = useNavigate();
 
@@ -200,6 +201,28 @@ const StudentPortal = () => {
     loadDocumentTypes();
   }, [token, requests]);
 
+  // Dashboard counts come from the stats endpoint; reloaded whenever the list changes
+  useEffect(() => {
+    if (!token || !user?.userId) {
+      setServerStats(null);
+      return;
+    }
+    fetchRequestStats({ token, userId: user.userId })
+      .then(setServerStats)
+      .catch((error) => {
+        console.warn("Unable to load request stats", error);
+        setServerStats(null);
+      });
+  }, [token, user?.userId, requests]);
+
+  const requestedCount = serverStats ? serverStats.total : requests.length;
+  const readyCount = serverStats?.byStatus
+    ? (serverStats.byStatus.APPROVED ?? 0) + (serverStats.byStatus.COMPLETED ?? 0)
+    : requests.filter((item) => {
+        const s = (item.status || "").toString().toLowerCase();
+        return s === "approved" || s === "completed" || s === "ready_for_pickup" || s === "ready for pickup";
+      }).length;
+
   const stats = [
     {
       title: "Request Document",
@@ -211,7 +234,7 @@ const StudentPortal = () => {
     {
       title: "Documents Requested",
       subtitle: "View all your previous requests",
-      value: requests.length.toString(),
+      value: requestedCount.toString(),
       icon: "📋",
       variant: "yellow",
       onClick: () => navigate("/student/requests"),
@@ -219,12 +242,7 @@ const StudentPortal = () => {
     {
       title: "Ready for Pickup",
       subtitle: "Approved documents",
-      value: requests
-        .filter((item) => {
-          const s = (item.status || "").toString().toLowerCase();
-          return s === "approved" || s === "completed" || s === "ready_for_pickup" || s === "ready for pickup";
-        })
-        .length.toString(),
+      value: readyCount.toString(),
       icon: "✓",
       variant: "white",
     },
@@ -4,9 +4,11 @@ import { useAuthContext } from "../../../../auth/context/AuthContext";
 import appLogo from "../../../../../assets/images/app_logo.png";
 
 import {
-  getNotifications,
-  getUnreadNotifications,
-  markNotificationRead
+  getNotificationPage,
+  getUnreadCount,
+  markAllNotificationsRead,
+  markNotificationRead,
+  openNotificationStream
 } from "../../../../../api/notifications";
 
 import "../../../../../components/NotificationStyles.css";
@@ -14,7 +16,8 @@ import "../../../../../components/NotificationStyles.css";
 export default function Header({ studentName }) {
   const [showNotifications, setShowNotifications] = useState(false);
   const [notifications, setNotifications] = useState([]);
-  const [unread, setUnread] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [unreadCount, setUnreadCount] = useState(0);
 
   const navigate = useNavigate();
   const { user, token, logout } = useAuthContext();
@@ -45,24 +48,65 @@ export default function Header({ studentName }) {
    -----------------------------------------------------*/
   const loadNotifications = useCallback(async () => {
     if (!token || !user?.userId) return;
-    const all = await getNotifications(token, user.userId);
-    const unreadList = await getUnreadNotifications(token, user.userId);
+    const page = await getNotificationPage(token, user.userId);
+    const { unread } = await getUnreadCount(token, user.userId);
 
-    setNotifications(all);
-    setUnread(unreadList);
+    setNotifications(page.items);
+    setNextCursor(page.nextCursor);
+    setUnreadCount(unread);
   }, [token, user]);
 
   useEffect(() => {
     loadNotifications();
   }, [loadNotifications]);
 
+  /** --------------------------------------------------
+   * Live updates: new notifications arrive over one open
+   * stream instead of re-fetching the lists
+   -----------------------------------------------------*/
+  useEffect(() => {
+    if (!token || !user?.userId) return undefined;
+
+    const prepend = (list, notif) =>
+      list.some((n) => n.notificationId === notif.notificationId)
+        ? list
+        : [notif, ...list];
+
+    return openNotificationStream(token, {
+      onNotification: (notif) => {
+        setNotifications((prev) => prepend(prev, notif));
+        if (!notif.isRead) {
+          setUnreadCount((count) => count + 1);
+        }
+      },
+      onReset: loadNotifications,
+    });
+  }, [token, user, loadNotifications]);
+
+  /** --------------------------------------------------
+   * Older notifications, one page at a time
+   -----------------------------------------------------*/
+  const loadOlder = async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await getNotificationPage(token, user.userId, { before: nextCursor });
+      setNotifications((prev) => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error("Failed to load older notifications", err);
+    }
+  };
+
   /** --------------------------------------------------
    * Mark a notification as read
    -----------------------------------------------------*/
   const handleMarkRead = async (id) => {
     await markNotificationRead(token, id);
 
-    setUnread(unread.filter((n) => n.notificationId !== id));
+    const target = notifications.find((n) => n.notificationId === id);
+    if (target && !target.isRead) {
+      setUnreadCount((count) => Math.max(0, count - 1));
+    }
 
     setNotifications(
       notifications.map((n) =>
@@ -75,16 +119,14 @@ export default function Header({ studentName }) {
    * Mark all notifications as read
    -----------------------------------------------------*/
   const handleMarkAllRead = async () => {
-    if (!token || unread.length === 0) return;
+    if (!token || unreadCount === 0) return;
     
     try {
-      // Mark all unread notifications as read concurrently
-      await Promise.all(
-        unread.map((n) => markNotificationRead(token, n.notificationId))
-      );
+      // One call moves the read watermark up to the newest notification shown
+      await markAllNotificationsRead(token, user.userId, notifications[0]?.notificationId);
 
       // Update state to reflect all notifications as read
-      setUnread([]);
+      setUnreadCount(0);
       setNotifications(
         notifications.map((n) => ({ ...n, isRead: true }))
       );
@@ -147,8 +189,8 @@ export default function Header({ studentName }) {
               onClick={() => setShowNotifications(!showNotifications)}
             >
               🔔
-              {unread.length > 0 && (
-                <span className="notification-badge">{unread.length}</span>
+              {unreadCount > 0 && (
+                <span className="notification-badge">{unreadCount}</span>
               )}
             </div>
 
@@ -181,6 +223,12 @@ export default function Header({ studentName }) {
                       </div>
                     );
                   })}
+
+                  {nextCursor && (
+                    <div className="notification-more" onClick={loadOlder}>
+                      Load older
+                    </div>
+                  )}
                 </div>
 
                 <div
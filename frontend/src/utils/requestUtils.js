@@ -33,3 +33,23 @@ export const extractRequestId = (formattedId) => {
   return match ? parseInt(match[1], 10) : null;
 };
 
+
+/**
+ * Apply a delta sync result to a list of request rows
+ * @param {Array} rows - Current rows, each with a numeric requestId
+ * @param {{changed: Array, deleted: Array}} changes - Result of fetchRequestChanges
+ * @param {Function} toRow - Maps a backend request to a row
+ * @returns {Array} Updated rows; new requests are placed first
+ */
+export const mergeRequestChanges = (rows, changes, toRow) => {
+  const deleted = new Set(changes.deleted || []);
+  const updates = new Map((changes.changed || []).map((req) => [req.requestId, toRow(req)]));
+
+  const merged = rows
+    .filter((row) => !deleted.has(row.requestId))
+    .map((row) => updates.get(row.requestId) || row);
+
+  const known = new Set(merged.map((row) => row.requestId));
+  const added = [...updates.values()].filter((row) => !known.has(row.requestId));
+  return [...added, ...merged];
+};